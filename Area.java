@@ -0,0 +1,70 @@
+package Model;
+
+/**
+ * the four areas of the board, in TileCode kind order so ordinal() == kind
+ *
+ * {@code @invariant} values()[kind].kind() == kind
+ */
+public enum Area {
+    MOSAIC("mosaic", 100, 100),
+    STATUE("statue", 200, 100),
+    SKELETON("skeleton", 300, 100),
+    AMPHORA("amphora", 400, 100);
+
+    public static final int COUNT = 4;
+
+    private static final Area[] VALUES = values();
+
+    private final String label;
+    private final int x;
+    private final int y;
+
+    Area(String label, int x, int y) {
+        this.label = label;
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * @return the TileCode kind of the tiles this area collects
+     */
+    public int kind() {
+        return ordinal();
+    }
+
+    /**
+     * @return lower case name as used by the ui and the text moves
+     */
+    public String label() {
+        return label;
+    }
+
+    public int getX() { return x; }
+    public int getY() { return y; }
+
+    /**
+     * @param kind TileCode.MOSAIC, STATUE, SKELETON or AMPHORA
+     * @return the area of that kind
+     */
+    public static Area of(int kind) {
+        return VALUES[kind];
+    }
+
+    /**
+     * finds an area by name, ignoring case and without allocating
+     *
+     * @param label area name
+     * @return the area or null if there is none with that name
+     */
+    public static Area of(String label) {
+        if (label == null) {
+            return null;
+        }
+        for (Area area : VALUES) {
+            if (area.label.equalsIgnoreCase(label)) {
+                return area;
+            }
+        }
+        return null;
+    }
+}
@@ -3,9 +3,19 @@ package Controller;
 import Model.*;
 import View.Screen;
 
+import AI.BotPolicy;
+import Metrics.Counter;
+import Metrics.Metrics;
+import Metrics.MoveExecutedEvent;
+import Metrics.Timer;
+
 import javax.swing.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * base controller class that manages the overall flow of the game
@@ -13,10 +23,24 @@ import java.util.List;
 
  * holds a reference to the active GameEngine instance
  * responsible for ensuring that all game rules are checked before modifying the Model
+ * with a GameLoop set, the handle methods only queue commands so the ui thread never waits on the game,
+ * checkMoveValidity and executeMove always run on the caller's thread
  */
 public class GameController {
+    private static final Timer DRAW_TIMER = Metrics.timer("controller_draw", "time of a draw action");
+    private static final Timer SELECT_TIMER = Metrics.timer("controller_select_tile", "time of a tile selection");
+    private static final Timer END_TURN_TIMER = Metrics.timer("controller_end_turn", "time to end a turn, without bot turns");
+    private static final Timer CARD_TIMER = Metrics.timer("controller_character_power", "time of a character card action");
+    private static final Counter REJECTED = Metrics.counter("controller_rejected_actions", "actions refused as illegal");
+
     protected GameEngine gameEngine;
     protected Screen screen;
+    private GameLoop gameLoop;
+    private final Map<String, BotPolicy> botSeats = new HashMap<>();
+    private RandomGenerator botRandom = new SplittableRandom();
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+    private long validationNanos;
+    private boolean rejected;
 
     public GameController() {
         this.gameEngine = null;
@@ -61,62 +85,71 @@ public class GameController {
             return false;
         }
 
+        if (moveDetails instanceof Move move) {
+            return checkMoveValidity(move);
+        }
         if (moveDetails instanceof String move) {
-            return checkStringMoveValidity(move);
+            return checkMoveValidity(MoveStrings.parse(move));
         }
 
         return false;
     }
 
-    private boolean checkStringMoveValidity(String move) {
-        if (move.startsWith("draw_tiles")) {
-            return gameEngine.getCurrentPlayer() != null;
-        }
-        else if (move.startsWith("select_area:")) {
-            String[] parts = move.split(":");
-            if (parts.length == 3) {
-                String area = parts[1];
-                int count = Integer.parseInt(parts[2]);
-                return isValidAreaSelection(area, count);
-            }
+    /**
+     * checks a typed move against the current game state, every move goes through the move generator,
+     * so the turn order and the pick rules hold for the controller exactly as for bots and the server
+     *
+     * @param move typed move, null is never valid
+     * @return true if the move can be played by the current player
+     *
+     * {@code @post} the game state is not modified
+     */
+    public boolean checkMoveValidity(Move move) {
+        if (move == null || gameEngine == null || gameEngine.getCurrentPlayer() == null || !fitsMoveCode(move)) {
+            return false;
         }
-        else if (move.startsWith("use_card:")) {
-            String cardName = move.split(":")[1];
-            return isValidCardUse(cardName);
+        if (move instanceof Move.SelectArea select) {
+            return isLegalSelection(select);
         }
-
-        return false;
+        return MoveGenerator.isLegal(gameEngine, MoveGenerator.canonical(gameEngine, move.encode()), moveBuffer);
     }
 
-    private boolean isValidAreaSelection(String area, int count) {
-        if (count < 1 || count > 2) return false;
-
-        String[] validAreas = {"mosaic", "statue", "skeleton", "amphora"};
-        for (String validArea : validAreas) {
-            if (validArea.equals(area)) {
-                return true;
-            }
+    /**
+     * the generator lists single picks only, taking the first count tiles is legal when each of those picks is
+     */
+    private boolean isLegalSelection(Move.SelectArea select) {
+        Player player = gameEngine.getCurrentPlayer();
+        int count = select.count();
+        if (count < 1 || player.getPicksThisTurn() + count > 2
+                || gameEngine.getBoard().getArea(select.area()).size() < count) {
+            return false;
         }
-        return false;
+        return MoveGenerator.isLegal(gameEngine,
+                MoveGenerator.canonical(gameEngine, MoveCode.take(select.area(), 0)), moveBuffer);
     }
 
-    private boolean isValidCardUse(String cardName) {
-        Player currentPlayer = gameEngine.getCurrentPlayer();
-        if (currentPlayer == null) return false;
+    /**
+     * only a move whose fields fit their bits encodes to the MoveCode it stands for
+     */
+    private static boolean fitsMoveCode(Move move) {
+        return switch (move) {
+            case Move.Draw draw -> true;
+            case Move.EndTurn endTurn -> true;
+            case Move.SelectArea select -> isArea(select.area()) && select.count() >= 0 && select.count() <= 0xFF;
+            case Move.Take take -> isArea(take.area()) && take.index() >= 0 && take.index() <= 0xFF;
+            case Move.UseCard use -> use.card() >= 0 && use.card() <= 0xF && use.area() >= 0 && use.area() <= 0xF
+                    && use.arg() >= 0 && use.arg() <= 0xFF;
+        };
+    }
 
-        String[] validCards = {"Assistant", "Archaeologist", "Excavator", "Professor", "Programmer"};
-        for (String validCard : validCards) {
-            if (validCard.equals(cardName)) {
-                return true;
-            }
-        }
-        return false;
+    private static boolean isArea(int area) {
+        return area >= TileCode.MOSAIC && area <= TileCode.AMPHORA;
     }
 
     /**
      * processes a validated move, updates the model, and then updates the view
      *
-     * @param moveDetails an object or data structure describing the validated move
+     * @param moveDetails a typed Move or its text form as read by MoveStrings
 
      * {@code pre} moveDetails represents a valid move for the current game state
 
@@ -124,77 +157,58 @@ public class GameController {
      * {@code @post} the Screen is notified to redraw the new game state
      */
     public void executeMove(Object moveDetails) {
-        if (!checkMoveValidity(moveDetails)) {
+        if (moveDetails instanceof Move move) {
+            executeMove(move);
+        } else if (moveDetails instanceof String move) {
+            executeMove(MoveStrings.parse(move));
+        }
+    }
+
+    /**
+     * plays a typed move if it is valid, then updates the view
+     *
+     * @param move typed move
+     *
+     * {@code @post} invalid moves leave the game unchanged
+     */
+    public void executeMove(Move move) {
+        if (!checkMoveValidity(move)) {
             return;
         }
 
-        if (moveDetails instanceof String move) {
-            executeStringMove(move);
+        switch (move) {
+            case Move.Draw draw -> executeDrawTiles();
+            case Move.SelectArea select -> executeSelectArea(select);
+            case Move.Take take -> gameEngine.apply(take.encode());
+            case Move.UseCard use -> executeUseCard(use);
+            case Move.EndTurn endTurn -> {
+                gameEngine.getCurrentPlayer().resetTurn();
+                endCurrentTurn();
+            }
         }
 
         updateView();
     }
 
-    private void executeStringMove(String move) {
-        if (move.equals("draw_tiles")) {
-            executeDrawTiles();
-        }
-        else if (move.startsWith("select_area:")) {
-            String[] parts = move.split(":");
-            String area = parts[1];
-            int count = Integer.parseInt(parts[2]);
-            executeSelectArea(area, count);
-        }
-        else if (move.startsWith("use_card:")) {
-            String cardName = move.split(":")[1];
-            executeUseCard(cardName);
-        }
-    }
-
     private void executeDrawTiles() {
         if (gameEngine != null) {
-            Player currentPlayer = gameEngine.getCurrentPlayer();
-            if (currentPlayer != null) {
-                List<Tile> drawnTiles = GameEngine.drawT(4);
-                for (Tile tile : drawnTiles) {
-                    gameEngine.getBoard().placeTileInArea(tile);
-                }
-            }
+            gameEngine.executePlayerTurn();
             checkForGameEnd();
         }
     }
 
-    private void executeSelectArea(String area, int count) {
-        if (gameEngine != null && gameEngine.getBoard() != null) {
-            Player currentPlayer = gameEngine.getCurrentPlayer();
-            if (currentPlayer != null) {
-                List<Tile> selectedTiles = gameEngine.getBoard().takeFromArea(area, count);
-                if (selectedTiles != null && !selectedTiles.isEmpty()) {
-                    currentPlayer.addTiles(selectedTiles);
-                } else {
-                    if (screen != null) {
-                        screen.showMessage("No tiles available in " + area + " area");
-                    }
-                }
-            }
+    private void executeSelectArea(Move.SelectArea select) {
+        if (gameEngine.getBoard().getArea(select.area()).size() > 0) {
+            gameEngine.apply(select.encode());
+        } else {
+            showMessage("No tiles available in " + MoveCode.areaName(select.area()) + " area");
         }
     }
 
-    private void executeUseCard(String cardName) {
-        Player currentPlayer = gameEngine.getCurrentPlayer();
-        if (currentPlayer != null) {
-            currentPlayer.useCharacterPower(findCardByName(cardName));
-
-            if (screen != null) {
-                screen.showMessage("player used " + cardName);
-            }
+    private void executeUseCard(Move.UseCard use) {
+        gameEngine.apply(use.encode());
 
-            endCurrentTurn();
-        }
-    }
-
-    private Charactercard findCardByName(String cardName) {
-        return null;
+        showMessage("player used " + MoveCode.cardName(use.card()));
     }
 
     private void endCurrentTurn() {
@@ -203,7 +217,8 @@ public class GameController {
 
             Player nextPlayer = gameEngine.getCurrentPlayer();
             if (screen != null && nextPlayer != null) {
-                screen.updatePlayerTurn(nextPlayer.getColor());
+                String color = nextPlayer.getColor();
+                onScreen(() -> screen.updatePlayerTurn(color));
             }
         }
     }
@@ -213,123 +228,66 @@ public class GameController {
             if (gameEngine.getBoard().isGameOver()) {
                 Player winner = gameEngine.checkWinner();
                 if (screen != null && winner != null) {
-                    screen.showWinner(winner.getColor(), winner.calculateScore());
+                    String color = winner.getColor();
+                    int score = winner.calculateScore();
+                    onScreen(() -> screen.showWinner(color, score));
                 }
             }
         }
     }
 
     private void updateView() {
-        if (screen != null) {
-            screen.updateGameState(getCurrentGameState());
-        }
+        publishChanges();
     }
 
-    private Object getCurrentGameState() {
-        if (gameEngine != null && gameEngine.getBoard() != null) {
-            return new Controller.GameStateDTO(
-                    gameEngine.getCurrentPlayer(),
-                    gameEngine.getBoard(),
-                    gameEngine.getPlayers()
-            );
-        }
-        return null;
+    /**
+     * draws for the current player on the game loop, the player then clicks up to two tiles of one area
+     */
+    public void handleDrawTiles() {
+        submit(() -> perform(DRAW_TIMER, "draw", this::drawTiles));
     }
 
-
-    public void handleDrawTiles() {
+    private void drawTiles() {
         if (gameEngine == null) return;
 
         Player currentPlayer = gameEngine.getCurrentPlayer();
 
         if (currentPlayer.hasDrawnThisTurn()) {
-            if (screen != null) {
-                screen.showMessage("Already drew this turn! End turn to continue.");
-            }
+            rejected = true;
+            showMessage("Already drew this turn! End turn to continue.");
             return;
         }
 
         currentPlayer.setDrawnThisTurn(true);
 
-        List<Tile> drawnTiles = gameEngine.executePlayerTurn();
+        gameEngine.executePlayerTurn();
 
-        if (screen != null) {
-            int playerNum = Integer.parseInt(currentPlayer.getColor());
-            screen.showMessage("player " + playerNum + " drew 4");
-            updateVisualAreas();
-            screen.displayGameState(gameEngine);
-
-            promptTileSelectionTwice();
-        }
+        int playerNum = Integer.parseInt(currentPlayer.getColor());
+        showMessage("player " + playerNum + " drew 4, click up to 2 tiles of one area");
+        publishChanges();
 
         checkForGameEnd();
     }
 
-    private void promptTileSelectionTwice() {
-        if (screen == null) return;
-
-        String[] areas = {"mosaic", "statue", "skeleton", "amphora"};
-        String selectedArea = (String) JOptionPane.showInputDialog(
-                screen,
-                "select area",
-                "",
-                JOptionPane.QUESTION_MESSAGE,
-                null,
-                areas,
-                areas[0]
-        );
-
-        if (selectedArea == null) return;
-
-        // First tile
-        String tile1Str = JOptionPane.showInputDialog(
-                screen,
-                "select tile number from the area",
-                "",
-                JOptionPane.QUESTION_MESSAGE
-        );
-
-        if (tile1Str != null) {
-            try {
-                int tile1 = Integer.parseInt(tile1Str.trim());
-                handleTileSelection(selectedArea, tile1);
-            } catch (NumberFormatException e) {
-                screen.showMessage("Invalid number!");
-            }
-        }
-
-        // Second tile (optional)
-        String tile2Str = JOptionPane.showInputDialog(
-                screen,
-                "select second tile",
-                "",
-                JOptionPane.QUESTION_MESSAGE
-        );
-
-        if (tile2Str != null) {
-            try {
-                int tile2 = Integer.parseInt(tile2Str.trim());
-                handleTileSelection(selectedArea, tile2);
-            } catch (NumberFormatException e) {
-                screen.showMessage("Invalid number!");
-            }
-        }
-
+    public void handleEndTurn() {
+        submit(this::endTurn);
+    }
 
+    private void endTurn() {
+        perform(END_TURN_TIMER, "end turn", this::passTurn);
+        playBots();
     }
 
-    public void handleEndTurn() {
+    private void passTurn() {
         if (gameEngine == null) return;
 
         Player currentPlayer = gameEngine.getCurrentPlayer();
         if (currentPlayer == null) return;
 
-        currentPlayer.setDrawnThisTurn(false);
+        currentPlayer.resetTurn();
 
         int playerNum = Integer.parseInt(currentPlayer.getColor());
-        if (screen != null) {
-            screen.showMessage("turn ended from player" + playerNum);
-        }
+        showMessage("turn ended from player" + playerNum);
 
         gameEngine.nextTurn();
 
@@ -338,16 +296,88 @@ public class GameController {
 
 
         if (screen != null && nextPlayer != null) {
-            nextPlayer.calculateScore();
-            screen.updatePlayerTurn(nextPlayer.getColor());
-            screen.displayGameState(gameEngine);
+            String color = nextPlayer.getColor();
+            onScreen(() -> screen.updatePlayerTurn(color));
         }
+        publishChanges();
 
         checkForGameEnd();
     }
 
+    /**
+     * lets a computer policy play every turn of the given seat
+     *
+     * @param color colour of the seat as used by GameEngine.initializeGame
+     * @param policy the bot, or null to give the seat back to a human
+     */
+    public void setBotSeat(String color, BotPolicy policy) {
+        submit(() -> {
+            if (policy == null) {
+                botSeats.remove(color);
+            } else {
+                botSeats.put(color, policy);
+            }
+        });
+    }
 
+    /**
+     * plays turns for as long as the current player is a bot seat,
+     * with a game loop the bots think on the loop thread and the ui keeps running
+     *
+     * {@code @pre} the game is initialized
+     *
+     * {@code @post} the current player is a human seat or the game is over
+     */
+    public void playBotTurns() {
+        submit(this::playBots);
+    }
+
+    private void playBots() {
+        if (gameEngine == null) return;
+
+        Board board = gameEngine.getBoard();
+        Player current = gameEngine.getCurrentPlayer();
+        boolean played = false;
+
+        while (current != null && botSeats.containsKey(current.getColor()) && !board.isGameOver()) {
+            gameEngine.executePlayerTurn();
+            if (!board.isGameOver()) {
+                String area = botSeats.get(current.getColor()).chooseArea(gameEngine, current, botRandom);
+                int kind = MoveCode.areaKind(area);
+                if (kind >= 0) {
+                    gameEngine.apply(MoveCode.select(kind, 2));
+                }
+                showMessage("player " + current.getColor() + " (bot) took from " + area + " area");
+            }
+            current.resetTurn();
+            gameEngine.nextTurn();
+            gameEngine.calculateStatueScores();
+            current = gameEngine.getCurrentPlayer();
+            played = true;
+            publishChanges();
+        }
+
+        if (played) {
+            if (screen != null && current != null) {
+                String color = current.getColor();
+                onScreen(() -> screen.updatePlayerTurn(color));
+            }
+            checkForGameEnd();
+        }
+    }
+
+
+    /**
+     * takes a tile the player clicked in one of the areas
+     *
+     * @param areaType area name
+     * @param tileNumber position of the tile in the area, 1 based
+     */
     public void handleTileSelection(String areaType, int tileNumber) {
+        submit(() -> perform(SELECT_TIMER, "take", () -> selectTile(areaType, tileNumber)));
+    }
+
+    private void selectTile(String areaType, int tileNumber) {
         if (gameEngine == null || gameEngine.getBoard() == null) return;
 
         Player currentPlayer = gameEngine.getCurrentPlayer();
@@ -356,130 +386,228 @@ public class GameController {
         List<Tile> areaTiles = gameEngine.getBoard().getAreaTiles(areaType);
 
         if (tileNumber < 1 || tileNumber > areaTiles.size()) {
-            if (screen != null) {
-                screen.showMessage("Invalid tile number! Choose between 1 and " + areaTiles.size());
-            }
+            showMessage("Invalid tile number! Choose between 1 and " + areaTiles.size());
             return;
         }
 
-        int index = tileNumber - 1;
-        Tile selectedTile = gameEngine.getBoard().takeTileByIndex(areaType, index);
+        int kind = MoveCode.areaKind(areaType);
 
-        if (selectedTile != null) {
-            List<Tile> tiles = new ArrayList<>();
-            tiles.add(selectedTile);
-            currentPlayer.addTiles(tiles);
+        if (kind < 0) {
+            showMessage("error");
+            return;
+        }
 
-            if (screen != null) {
-                int playerNum = Integer.parseInt(currentPlayer.getColor());
-                screen.showMessage("player " + playerNum + " took tile " + tileNumber + " from " + areaType + " area");
-                updateVisualAreas();
-                screen.displayGameState(gameEngine);
-            }
-        } else {
-            if (screen != null) {
-                screen.showMessage("error");
-            }
+        AreaType area = area(kind);
+        int first = area.indexOf(area.codeAt(tileNumber - 1));
+        long check = System.nanoTime();
+        boolean legal = MoveGenerator.isLegal(gameEngine, MoveCode.take(kind, first), moveBuffer);
+        validationNanos += System.nanoTime() - check;
+        if (!legal) {
+            rejected = true;
+            showMessage(currentPlayer.hasDrawnThisTurn()
+                    ? "Take up to 2 tiles from the same area"
+                    : "Draw tiles first!");
+            return;
         }
+
+        gameEngine.apply(MoveCode.take(kind, tileNumber - 1));
+
+        int playerNum = Integer.parseInt(currentPlayer.getColor());
+        showMessage("player " + playerNum + " took tile " + tileNumber + " from " + areaType + " area");
+        publishChanges();
     }
 
+    /**
+     * plays a card that needs no target, the Excavator and the Professor
+     *
+     * @param cardName card name as shown on the card
+     */
     public void handleCharacterPower(String cardName) {
+        handleCharacterPower(cardName, null, 0);
+    }
+
+    /**
+     * plays a card on the tile the player clicked
+     * the Archaeologist and the Programmer only use the area of that tile, the Assistant takes the tile itself
+     *
+     * @param cardName card name as shown on the card
+     * @param areaType area of the clicked tile, null if the card was played without one
+     * @param tileNumber position of the clicked tile, 1 based
+     */
+    public void handleCharacterPower(String cardName, String areaType, int tileNumber) {
+        submit(() -> perform(CARD_TIMER, cardName, () -> useCharacterPower(cardName, areaType, tileNumber)));
+    }
+
+    /**
+     * @param cardName card name as shown on the card
+     * @return true if the card is played on a tile of an area rather than on its own
+     */
+    public static boolean cardTargetsArea(String cardName) {
+        return switch (cardName) {
+            case "Assistant", "Archaeologist", "Programmer" -> true;
+            default -> false;
+        };
+    }
+
+    private void useCharacterPower(String cardName, String areaType, int tileNumber) {
         if (gameEngine == null) return;
 
         Player currentPlayer = gameEngine.getCurrentPlayer();
         if (currentPlayer == null) return;
 
         if (!canUseCharacterCard(currentPlayer, cardName)) {
-            if (screen != null) {
-                screen.showMessage("player " + currentPlayer.getColor() + "has used " + cardName);
-            }
+            showMessage("player " + currentPlayer.getColor() + "has used " + cardName);
             return;
         }
 
-        currentPlayer.markCardAsUsed(cardName);
+        int kind = MoveCode.areaKind(areaType);
+        if (cardTargetsArea(cardName) && kind < 0) {
+            showMessage(cardName + ": click a tile of the area to use it on");
+            return;
+        }
 
-        if (screen != null) {
-            screen.showMessage("player " + currentPlayer.getColor() + " used " + cardName);
+        Move.UseCard move = executeCharacterCardAbility(cardName, currentPlayer, kind, tileNumber);
+        if (move == null) return;
+
+        long check = System.nanoTime();
+        boolean legal = checkMoveValidity(move);
+        validationNanos += System.nanoTime() - check;
+        if (!legal) {
+            rejected = true;
+            showMessage(cardName + " cannot be used right now");
+            return;
         }
 
-        executeCharacterCardAbility(cardName, currentPlayer);
+        gameEngine.apply(move.encode());
+
+        showMessage("player " + currentPlayer.getColor() + " used " + cardName);
+        publishChanges();
     }
 
     private boolean canUseCharacterCard(Player player, String cardName) {
         return !player.isCardUsed(cardName);
     }
 
-    private void executeCharacterCardAbility(String cardName, Player player) {
+    /**
+     * builds the card move for the area and tile the player clicked
+     *
+     * @return the move, or null if there is no such card
+     */
+    private Move.UseCard executeCharacterCardAbility(String cardName, Player player, int kind, int tileNumber) {
         switch (cardName) {
             case "Assistant":
-                handleAssistantCard(player);
-                break;
+                return tileNumber < 1 ? null : new Move.UseCard(MoveCode.CARD_ASSISTANT, kind, tileNumber - 1);
             case "Archaeologist":
-                handleArchaeologistCard(player);
-                break;
+                return new Move.UseCard(MoveCode.CARD_ARCHAEOLOGIST, kind, Math.max(Math.min(2, area(kind).size()), 1));
             case "Excavator":
-                handleExcavatorCard(player);
-                break;
+                return handleExcavatorCard(player);
             case "Professor":
-                handleProfessorCard(player);
-                break;
+                return new Move.UseCard(MoveCode.CARD_PROFESSOR);
             case "Programmer":
-                handleProgrammerCard(player);
-                break;
+                return new Move.UseCard(MoveCode.CARD_PROGRAMMER, kind, 0);
         }
+        return null;
     }
 
-    private void handleAssistantCard(Player player) {
-        if (screen != null) {
-            screen.showMessage("Assistant: Take 1 tile from any area. Select area and tile.");
-        }
+    private Move.UseCard handleExcavatorCard(Player player) {
+        if (player.getChosenArea() < 0) return new Move.UseCard(MoveCode.CARD_EXCAVATOR, 0, 1);
+
+        int count = Math.min(2, area(player.getChosenArea()).size());
+        return new Move.UseCard(MoveCode.CARD_EXCAVATOR, 0, Math.max(count, 1));
     }
 
-    private void handleArchaeologistCard(Player player) {
-        if (screen != null) {
-            screen.showMessage("Archaeologist: Take up to 2 tiles from any area except the one chosen earlier.");
-        }
+    private AreaType area(int kind) {
+        return gameEngine.getBoard().getArea(kind);
     }
 
-    private void handleExcavatorCard(Player player) {
-        if (screen != null) {
-            screen.showMessage("Excavator: Take up to 2 tiles from the area chosen earlier.");
+    /**
+     * runs one player action on the game loop thread, timed for the metrics and recorded as a flight recorder event,
+     * the action sets rejected when it refuses to play and adds its legality checks to validationNanos
+     */
+    private void perform(Timer timer, String type, Runnable action) {
+        MoveExecutedEvent event = new MoveExecutedEvent();
+        Player player = gameEngine == null ? null : gameEngine.getCurrentPlayer();
+        validationNanos = 0;
+        rejected = false;
+
+        event.begin();
+        timer.time(action);
+        event.end();
+
+        if (rejected) {
+            REJECTED.increment();
+        }
+        if (event.shouldCommit()) {
+            event.type = type;
+            event.player = player == null ? null : player.getColor();
+            event.legal = !rejected;
+            event.validationNanos = validationNanos;
+            event.commit();
         }
     }
 
-    private void handleProfessorCard(Player player) {
-        if (screen != null) {
-            screen.showMessage("Professor: Take 1 tile from each area except the one chosen earlier.");
+    /**
+     * runs a command on the game loop, or right away on the caller's thread when there is none
+     */
+    private void submit(Runnable command) {
+        if (gameLoop == null || gameLoop.isLoopThread()) {
+            command.run();
+        } else {
+            gameLoop.submit(command);
         }
     }
 
-    private void handleProgrammerCard(Player player) {
-        if (screen != null) {
-            screen.showMessage("Programmer: Select an area. Next turn, draw 2 tiles from it.");
+    /**
+     * swing is only touched on the event dispatch thread, the game loop hands screen updates over
+     */
+    private void onScreen(Runnable update) {
+        if (screen == null) return;
+        if (SwingUtilities.isEventDispatchThread()) {
+            update.run();
+        } else {
+            SwingUtilities.invokeLater(update);
         }
     }
 
-    private void updateVisualAreas() {
-        if (screen == null || gameEngine == null || gameEngine.getBoard() == null) return;
+    private void showMessage(String message) {
+        onScreen(() -> screen.showMessage(message));
+    }
 
-        screen.updateAreaTiles("mosaic", gameEngine.getBoard().getAreaTiles("mosaic"));
-        screen.updateAreaTiles("statue", gameEngine.getBoard().getAreaTiles("statue"));
-        screen.updateAreaTiles("skeleton", gameEngine.getBoard().getAreaTiles("skeleton"));
-        screen.updateAreaTiles("amphora", gameEngine.getBoard().getAreaTiles("amphora"));
-        screen.updateAreaTiles("landslide", gameEngine.getBoard().getLandslideTiles());
+    /**
+     * tells the views what the last action changed, they repaint only those areas and player panels
+     */
+    private void publishChanges() {
+        if (gameEngine != null && gameEngine.getBoard() != null) {
+            gameEngine.getBoard().getChanges().flush();
+        }
     }
 
 
 
 
+    /**
+     * the bots of a seeded game choose from the game's seed too, so the same seed replays the same bot turns
+     */
     public void setGameEngine(GameEngine gameEngine) {
         this.gameEngine = gameEngine;
+        if (gameEngine != null) {
+            botRandom = RandomStreams.bots(gameEngine.getSeed());
+        }
     }
 
     public void setScreen(Screen screen) {
         this.screen = screen;
     }
 
+    /**
+     * from now on the handle methods queue their work on the loop instead of running on the caller's thread
+     *
+     * @param gameLoop loop that owns the game engine, null to run everything on the caller's thread
+     */
+    public void setGameLoop(GameLoop gameLoop) {
+        this.gameLoop = gameLoop;
+    }
+
     public GameEngine getGameEngine() {
         return gameEngine;
     }
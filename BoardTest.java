@@ -1,16 +1,301 @@
 package Controller;
 
+import Model.Area;
+import Model.AreaType;
+import Model.ChangeBus;
+import Model.GameEngine;
 import Model.Player;
-import Model.Board;
+import Model.Tile;
+import Model.TileCode;
 
-public class GameStateDTO {
-    public Player currentPlayer;
-    public Board board;
-    public java.util.List<Player> players;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
 
-    public GameStateDTO(Player currentPlayer, Board board, java.util.List<Player> players) {
-        this.currentPlayer = currentPlayer;
-        this.board = board;
+/**
+ * immutable snapshot of a game for views, spectators and loggers on any thread
+ * areas and players are persistent: next() rebuilds only those the ChangeBus reports as changed
+ * and shares the rest with the previous snapshot, so a turn costs the changed parts and not a deep copy
+ *
+ * {@code @invariant} nothing reachable from a snapshot is modified after it is built
+ */
+public final class GameStateDTO {
+    private final int currentTurnIndex;
+    private final int landslides;
+    private final int bagSize;
+    private final int dirty;
+    private final SharedList<AreaView> areas;
+    private final SharedList<PlayerView> players;
+
+    GameStateDTO(int currentTurnIndex, int landslides, int bagSize, int dirty,
+                 SharedList<AreaView> areas, SharedList<PlayerView> players) {
+        this.currentTurnIndex = currentTurnIndex;
+        this.landslides = landslides;
+        this.bagSize = bagSize;
+        this.dirty = dirty;
+        this.areas = areas;
         this.players = players;
     }
+
+    /**
+     * captures a whole game
+     *
+     * @param engine initialized engine, read only by the thread that owns it
+     * @return snapshot reporting everything as changed
+     */
+    public static GameStateDTO of(GameEngine engine) {
+        AreaView[] areaViews = new AreaView[Area.COUNT];
+        for (Area area : Area.values()) {
+            areaViews[area.ordinal()] = new AreaView(area, engine.getBoard().getArea(area));
+        }
+        List<Player> seats = engine.getPlayers();
+        PlayerView[] playerViews = new PlayerView[seats.size()];
+        for (int seat = 0; seat < playerViews.length; seat++) {
+            playerViews[seat] = new PlayerView(seats.get(seat));
+        }
+        return new GameStateDTO(engine.getCurrentTurnIndex(), engine.getBoard().getLandslideCount(),
+                engine.getBoard().getBagSize(), ChangeBus.ALL, SharedList.of(areaViews), SharedList.of(playerViews));
+    }
+
+    /**
+     * captures the game again after some changes
+     *
+     * @param engine the engine this snapshot was taken from
+     * @param changed ChangeBus bits of everything that changed since this snapshot
+     * @return snapshot sharing every area and player that did not change
+     *
+     * {@code @pre} every change since this snapshot was marked on the engine's ChangeBus
+     */
+    public GameStateDTO next(GameEngine engine, int changed) {
+        List<Player> seats = engine.getPlayers();
+        if (seats.size() != players.size()) {
+            return of(engine).merge(changed);
+        }
+
+        SharedList<AreaView> nextAreas = areas;
+        for (Area area : Area.values()) {
+            if ((changed & ChangeBus.area(area.kind())) != 0) {
+                nextAreas = nextAreas.with(area.ordinal(), new AreaView(area, engine.getBoard().getArea(area)));
+            }
+        }
+        SharedList<PlayerView> nextPlayers = players;
+        for (int seat = 0; seat < seats.size(); seat++) {
+            if ((changed & ChangeBus.player(seat)) != 0) {
+                nextPlayers = nextPlayers.with(seat, new PlayerView(seats.get(seat)));
+            }
+        }
+        return new GameStateDTO(engine.getCurrentTurnIndex(), engine.getBoard().getLandslideCount(),
+                engine.getBoard().getBagSize(), changed, nextAreas, nextPlayers);
+    }
+
+    /**
+     * @param more bits of a snapshot that was replaced before anyone saw it
+     * @return the same position reporting both sets of changes
+     */
+    public GameStateDTO merge(int more) {
+        if ((dirty | more) == dirty) {
+            return this;
+        }
+        return new GameStateDTO(currentTurnIndex, landslides, bagSize, dirty | more, areas, players);
+    }
+
+    /**
+     * @return ChangeBus bits of the regions that changed since the previous snapshot
+     */
+    public int getDirty() {
+        return dirty;
+    }
+
+    public int getCurrentTurnIndex() {
+        return currentTurnIndex;
+    }
+
+    public int getLandslideCount() {
+        return landslides;
+    }
+
+    public int getBagSize() {
+        return bagSize;
+    }
+
+    /**
+     * @return the four areas in Area order, read only
+     */
+    public List<AreaView> getAreas() {
+        return areas;
+    }
+
+    public AreaView getArea(Area area) {
+        return areas.get(area.ordinal());
+    }
+
+    /**
+     * @return the players in seat order, read only
+     */
+    public List<PlayerView> getPlayers() {
+        return players;
+    }
+
+    SharedList<AreaView> areaList() {
+        return areas;
+    }
+
+    SharedList<PlayerView> playerList() {
+        return players;
+    }
+
+    /**
+     * @return the player whose turn it is, null if there are no players
+     */
+    public PlayerView getCurrentPlayer() {
+        return currentTurnIndex < players.size() ? players.get(currentTurnIndex) : null;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof GameStateDTO state
+                && currentTurnIndex == state.currentTurnIndex
+                && landslides == state.landslides
+                && bagSize == state.bagSize
+                && areas.equals(state.areas)
+                && players.equals(state.players);
+    }
+
+    @Override
+    public int hashCode() {
+        return ((currentTurnIndex * 31 + landslides) * 31 + bagSize) * 31 + areas.hashCode() * 31 + players.hashCode();
+    }
+
+    /**
+     * the tiles of one area at the time of the snapshot
+     */
+    public static final class AreaView {
+        private final Area area;
+        private final byte[] codes;
+        private final List<Tile> tiles = new AbstractList<>() {
+            @Override
+            public Tile get(int index) {
+                return TileCode.toTile(codes[index]);
+            }
+
+            @Override
+            public int size() {
+                return codes.length;
+            }
+        };
+
+        AreaView(Area area, AreaType live) {
+            this.area = area;
+            this.codes = new byte[live.size()];
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = live.codeAt(i);
+            }
+        }
+
+        /**
+         * @param codes tile codes in display order, owned by the view from now on
+         */
+        AreaView(Area area, byte[] codes) {
+            this.area = area;
+            this.codes = codes;
+        }
+
+        public Area getArea() {
+            return area;
+        }
+
+        public int size() {
+            return codes.length;
+        }
+
+        public byte codeAt(int index) {
+            return codes[index];
+        }
+
+        /**
+         * @return the shared tile of every code in display order, read only
+         */
+        public List<Tile> getTiles() {
+            return tiles;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof AreaView view && area == view.area && Arrays.equals(codes, view.codes);
+        }
+
+        @Override
+        public int hashCode() {
+            return area.hashCode() * 31 + Arrays.hashCode(codes);
+        }
+    }
+
+    /**
+     * what one player holds at the time of the snapshot
+     */
+    public static final class PlayerView {
+        private final String color;
+        private final int score;
+        private final int usedCardMask;
+        private final byte[] tileCodes;
+
+        /**
+         * reads the live player only, the snapshot is taken on the game loop after every action
+         */
+        PlayerView(Player live) {
+            this(live.getColor(), live.tileScore() + live.getStatuePoints(), live.getUsedCardMask(), live.getTileCodes());
+        }
+
+        /**
+         * @param tileCodes held codes kind by kind, owned by the view from now on
+         */
+        PlayerView(String color, int score, int usedCardMask, byte[] tileCodes) {
+            this.color = color;
+            this.score = score;
+            this.usedCardMask = usedCardMask;
+            this.tileCodes = tileCodes;
+        }
+
+        /**
+         * @return the used character cards, bit i is MoveCode card i
+         */
+        public int getUsedCardMask() {
+            return usedCardMask;
+        }
+
+        public String getColor() {
+            return color;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * @param card one of the MoveCode.CARD constants
+         * @return true if that card was used before the snapshot
+         */
+        public boolean isCardUsed(int card) {
+            return (usedCardMask & (1 << card)) != 0;
+        }
+
+        public int getTileCount() {
+            return tileCodes.length;
+        }
+
+        public byte getTileCode(int index) {
+            return tileCodes[index];
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof PlayerView view && color.equals(view.color) && score == view.score
+                    && usedCardMask == view.usedCardMask && Arrays.equals(tileCodes, view.tileCodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return (color.hashCode() * 31 + usedCardMask) * 31 + Arrays.hashCode(tileCodes);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package AI;
+
+import Model.GameEngine;
+import Model.Player;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * decision rule of a computer controlled seat
+ * after the draw phase the bot picks one area and takes up to two tiles from it
+ *
+ * {@code @invariant} implementations keep no per-game state, the same instance may play many games at once
+ */
+public interface BotPolicy {
+
+    /**
+     * chooses the area the player takes tiles from this turn
+     *
+     * @param engine the game in progress, already past the draw phase
+     * @param player the player whose turn it is
+     * @param random random stream of the game being played
+     * @return one of "mosaic", "statue", "skeleton", "amphora" or null to take nothing
+     *
+     * {@code @pre} player is the current player of engine
+     *
+     * {@code @post} the game state is not modified
+     */
+    String chooseArea(GameEngine engine, Player player, RandomGenerator random);
+
+    /**
+     * returns a short name used in reports
+     *
+     * @return the name of the policy
+     */
+    String getName();
+}
@@ -0,0 +1,74 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * collects which parts of one game changed and tells the listeners once per flush,
+ * so a view repaints only the dirty regions and only once per action
+ * marking is a single or on an int, games nobody listens to pay nothing else
+ *
+ * bits: 0-3 the area of that TileCode kind, 4 landslides, 5 turn, 8 and up one bit per seat
+ *
+ * {@code @invariant} flush() delivers every bit marked since the previous flush exactly once
+ */
+public final class ChangeBus {
+    public static final int LANDSLIDES = 1 << 4;
+    public static final int TURN = 1 << 5;
+    public static final int PLAYERS = -1 << 8;
+    public static final int ALL = -1;
+
+    private final List<ModelListener> listeners = new ArrayList<>();
+    private int dirty;
+
+    /**
+     * @param kind TileCode kind of an area
+     * @return the bit of that area
+     */
+    public static int area(int kind) {
+        return 1 << kind;
+    }
+
+    /**
+     * @param seat index of the player in GameEngine.getPlayers()
+     * @return the bit of that player
+     */
+    public static int player(int seat) {
+        return 1 << (8 + seat);
+    }
+
+    void mark(int bits) {
+        dirty |= bits;
+    }
+
+    public void addListener(ModelListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ModelListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return the bits marked since the last flush, without clearing them
+     */
+    public int peek() {
+        return dirty;
+    }
+
+    /**
+     * hands the collected changes to every listener and starts a new collection
+     *
+     * @return the bits that were delivered, 0 if nothing changed
+     */
+    public int flush() {
+        int changed = dirty;
+        dirty = 0;
+        if (changed != 0) {
+            for (ModelListener listener : listeners) {
+                listener.onModelChange(changed);
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,74 @@
+package Test;
+
+import Model.*;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChangeBusTest {
+    private GameEngine engine;
+    private ChangeBus changes;
+    private final List<Integer> delivered = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        engine = new GameEngine(9);
+        engine.initializeGame();
+        changes = engine.getBoard().getChanges();
+        changes.flush();
+        changes.addListener(delivered::add);
+    }
+
+    @Test
+    public void testTakingATileMarksOnlyItsAreaAndPlayer() {
+        Board board = engine.getBoard();
+        board.placeTileCode(TileCode.CARYATID);
+        changes.flush();
+        delivered.clear();
+
+        engine.apply(MoveCode.take(TileCode.STATUE, 0));
+
+        assertEquals(ChangeBus.area(TileCode.STATUE) | ChangeBus.player(0), changes.flush());
+        assertEquals(1, delivered.size());
+    }
+
+    @Test
+    public void testFlushDeliversOnceAndClears() {
+        Board board = engine.getBoard();
+        board.placeTileCode(TileCode.MOSAIC_RED);
+        board.placeTileCode(TileCode.MOSAIC_GREEN);
+        board.placeTileCode(TileCode.LANDSLIDE_TILE);
+
+        assertEquals(ChangeBus.area(TileCode.MOSAIC) | ChangeBus.LANDSLIDES, changes.flush());
+        assertEquals(0, changes.flush());
+        assertEquals(1, delivered.size());
+    }
+
+    @Test
+    public void testEndTurnMarksTheTurn() {
+        engine.apply(MoveCode.draw());
+        changes.flush();
+
+        engine.apply(MoveCode.endTurn());
+
+        assertTrue((changes.peek() & ChangeBus.TURN) != 0);
+        assertEquals(0, changes.peek() & ChangeBus.area(TileCode.MOSAIC));
+    }
+
+    @Test
+    public void testRemovedListenerHearsNothing() {
+        List<Integer> other = new ArrayList<>();
+        ModelListener listener = other::add;
+        changes.addListener(listener);
+        changes.removeListener(listener);
+
+        engine.getBoard().placeTileCode(TileCode.SPHINX);
+        changes.flush();
+
+        assertTrue(other.isEmpty());
+        assertEquals(1, delivered.size());
+    }
+}
@@ -1,8 +1,10 @@
 package Controller;
 
 import Model.AreaType;
+import Model.Move;
 import Model.Player;
 import Model.Tile;
+import Model.TileCode;
 import View.Screen;
 
 /**
@@ -35,11 +37,10 @@ public class IOhandler extends GameController {
             return;
         }
 
-        Player currentPlayer = gameEngine.getCurrentPlayer();
-        String areaName = getAreaName(area);
+        int kind = getAreaKind(area);
 
-        if (areaName != null) {
-            String move = "select_area:" + areaName + ":1";
+        if (kind >= 0) {
+            Move move = new Move.SelectArea(kind, 1);
             if (checkMoveValidity(move)) {
                 executeMove(move);
             }
@@ -69,16 +70,15 @@ public class IOhandler extends GameController {
      */
     public void handleEndTurn() {
         if (gameEngine != null) {
-            String move = "end_turn";
-            executeMove(move);
+            executeMove(Move.END_TURN);
         }
     }
 
-    private String getAreaName(AreaType area) {
-        if (area.getX() == 100 && area.getY() == 100) return "mosaic";
-        if (area.getX() == 200 && area.getY() == 100) return "statue";
-        if (area.getX() == 300 && area.getY() == 100) return "skeleton";
-        if (area.getX() == 400 && area.getY() == 100) return "amphora";
-        return null;
+    private int getAreaKind(AreaType area) {
+        if (area.getX() == 100 && area.getY() == 100) return TileCode.MOSAIC;
+        if (area.getX() == 200 && area.getY() == 100) return TileCode.STATUE;
+        if (area.getX() == 300 && area.getY() == 100) return TileCode.SKELETON;
+        if (area.getX() == 400 && area.getY() == 100) return TileCode.AMPHORA;
+        return -1;
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package Metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * a count that only goes up, e.g. tiles drawn or moves rejected
+ */
+public final class Counter {
+    private final String name;
+    private final String help;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name, String help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    public void increment() {
+        if (Metrics.ENABLED) {
+            value.increment();
+        }
+    }
+
+    public void add(long amount) {
+        if (Metrics.ENABLED) {
+            value.add(amount);
+        }
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+}
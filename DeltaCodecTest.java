@@ -0,0 +1,113 @@
+package Test;
+
+import Controller.DeltaDecoder;
+import Controller.DeltaEncoder;
+import Controller.GameStateDTO;
+import Model.*;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class DeltaCodecTest {
+    private GameEngine engine;
+    private ChangeBus changes;
+    private GameStateDTO state;
+
+    @Before
+    public void setUp() {
+        engine = new GameEngine(13);
+        engine.initializeGame();
+        changes = engine.getBoard().getChanges();
+        changes.flush();
+        state = GameStateDTO.of(engine);
+    }
+
+    private GameStateDTO play(int move) {
+        engine.apply(move);
+        state = state.next(engine, changes.flush());
+        return state;
+    }
+
+    @Test
+    public void testDecoderRebuildsEveryVersionIncludingUndos() {
+        DeltaEncoder encoder = new DeltaEncoder(8);
+        DeltaDecoder decoder = new DeltaDecoder();
+        decoder.apply(encoder.encode(state));
+
+        Random random = new Random(9);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        long[] records = new long[512];
+        int depth = 0;
+        for (int step = 0; step < 300 && !engine.getBoard().isGameOver(); step++) {
+            if (depth > 0 && random.nextInt(5) == 0) {
+                engine.undo(records[--depth]);
+                state = state.next(engine, changes.flush());
+            } else {
+                int n = MoveGenerator.generate(engine, moves);
+                if (n == 0) break;
+                records[depth++] = engine.apply(moves[random.nextInt(n)]);
+                state = state.next(engine, changes.flush());
+            }
+
+            GameStateDTO rebuilt = decoder.apply(encoder.encode(state));
+            assertEquals("step " + step, state, rebuilt);
+            assertEquals(encoder.getVersion(), decoder.getVersion());
+        }
+    }
+
+    @Test
+    public void testTakingATileCostsAFewBytes() {
+        DeltaEncoder encoder = new DeltaEncoder(1000);
+        encoder.encode(state);
+        play(MoveCode.draw());
+        encoder.encode(state);
+        engine.getBoard().placeTileCode(TileCode.CARYATID);
+        changes.flush();
+
+        ByteBuffer take = encoder.encode(play(MoveCode.take(TileCode.STATUE, 0)));
+
+        assertEquals(DeltaEncoder.DELTA, take.get(0));
+        assertTrue("take used " + take.remaining() + " bytes", take.remaining() <= 16);
+        assertTrue(encoder.keyframe().remaining() > 4 * take.remaining());
+    }
+
+    @Test
+    public void testTakeFromALongAreaSendsTheIndexNotTheArea() {
+        DeltaEncoder encoder = new DeltaEncoder(1000);
+        DeltaDecoder decoder = new DeltaDecoder();
+        play(MoveCode.draw());
+        for (int i = 0; i < 24; i++) {
+            engine.getBoard().placeTileCode((byte) (TileCode.AMPHORA_BLUE + i % 6));
+        }
+        state = state.next(engine, changes.flush());
+        decoder.apply(encoder.encode(state));
+
+        ByteBuffer take = encoder.encode(play(MoveCode.take(TileCode.AMPHORA, 12)));
+        assertTrue("take used " + take.remaining() + " bytes", take.remaining() <= 16);
+        assertEquals(state, decoder.apply(take));
+
+        engine.getBoard().placeTileCode(TileCode.AMPHORA_RED);
+        state = state.next(engine, changes.flush());
+        ByteBuffer append = encoder.encode(state);
+        assertTrue("append used " + append.remaining() + " bytes", append.remaining() <= 12);
+        assertEquals(state, decoder.apply(append));
+    }
+
+    @Test
+    public void testDecoderWaitsForAKeyframeAfterAGap() {
+        DeltaEncoder encoder = new DeltaEncoder(4);
+        DeltaDecoder decoder = new DeltaDecoder();
+        decoder.apply(encoder.encode(state));
+
+        encoder.encode(play(MoveCode.draw()));
+        GameStateDTO afterGap = decoder.apply(encoder.encode(play(MoveCode.endTurn())));
+        assertNull(afterGap);
+
+        GameStateDTO keyframe = decoder.apply(encoder.encode(play(MoveCode.draw())));
+        assertEquals(4, encoder.getVersion());
+        assertEquals(state, keyframe);
+    }
+}
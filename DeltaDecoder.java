@@ -0,0 +1,212 @@
+package Controller;
+
+import Model.Area;
+import Model.ChangeBus;
+import Model.TileCode;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * rebuilds GameStateDTO versions from the updates of a DeltaEncoder
+ * areas and players a delta does not mention are shared with the previous version
+ *
+ * {@code @invariant} getState() equals the version the encoder had at getVersion()
+ */
+public final class DeltaDecoder {
+    private GameStateDTO state;
+    private int version;
+
+    /**
+     * @return the latest rebuilt version, null before the first keyframe
+     */
+    public GameStateDTO getState() {
+        return state;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * reads one update
+     *
+     * @param in positioned at the update, left after it
+     * @return the new version, or null if it is a delta that does not follow the current version,
+     *         in which case the decoder waits for the next keyframe
+     */
+    public GameStateDTO apply(ByteBuffer in) {
+        byte kind = in.get();
+        int next = in.getInt();
+        if (kind == DeltaEncoder.KEYFRAME) {
+            state = readKeyframe(in);
+        } else if (state != null && next == version + 1) {
+            state = readDelta(state, in);
+        } else {
+            skipDelta(in);
+            return null;
+        }
+        version = next;
+        return state;
+    }
+
+    private static GameStateDTO readKeyframe(ByteBuffer in) {
+        int turn = in.get();
+        int landslides = in.get();
+        int bag = in.get() & 0xFF;
+        GameStateDTO.AreaView[] areas = new GameStateDTO.AreaView[Area.COUNT];
+        for (Area area : Area.values()) {
+            byte[] codes = new byte[in.get() & 0xFF];
+            in.get(codes);
+            areas[area.ordinal()] = new GameStateDTO.AreaView(area, codes);
+        }
+        GameStateDTO.PlayerView[] players = new GameStateDTO.PlayerView[in.get()];
+        for (int seat = 0; seat < players.length; seat++) {
+            String color = String.valueOf(in.getShort());
+            int score = in.getShort();
+            int cards = in.get();
+            byte[] codes = new byte[in.get() & 0xFF];
+            in.get(codes);
+            players[seat] = new GameStateDTO.PlayerView(color, score, cards, codes);
+        }
+        return new GameStateDTO(turn, landslides, bag, ChangeBus.ALL, SharedList.of(areas), SharedList.of(players));
+    }
+
+    private static GameStateDTO readDelta(GameStateDTO base, ByteBuffer in) {
+        int turn = base.getCurrentTurnIndex();
+        int landslides = base.getLandslideCount();
+        int bag = base.getBagSize();
+        int dirty = 0;
+        byte[][] areaCodes = new byte[Area.COUNT][];
+        byte[][] tiles = new byte[base.getPlayers().size()][];
+        int[] scores = new int[tiles.length];
+        int[] cards = new int[tiles.length];
+
+        byte op;
+        while ((op = in.get()) != DeltaEncoder.END) {
+            int arg = in.get();
+            dirty |= DeltaEncoder.dirtyBits(op, arg);
+            switch (op) {
+                case DeltaEncoder.TURN -> turn = arg;
+                case DeltaEncoder.LANDSLIDES -> landslides = arg;
+                case DeltaEncoder.BAG -> bag = arg & 0xFF;
+                case DeltaEncoder.AREA -> {
+                    areaCodes[arg] = new byte[in.get() & 0xFF];
+                    in.get(areaCodes[arg]);
+                }
+                case DeltaEncoder.AREA_REMOVE -> {
+                    byte[] codes = areaCodes[arg] != null ? areaCodes[arg] : codes(base.getAreas().get(arg));
+                    areaCodes[arg] = removeAt(codes, in.get());
+                }
+                case DeltaEncoder.AREA_APPEND -> {
+                    byte[] codes = areaCodes[arg] != null ? areaCodes[arg] : codes(base.getAreas().get(arg));
+                    areaCodes[arg] = append(codes, in.get());
+                }
+                default -> {
+                    GameStateDTO.PlayerView player = base.getPlayers().get(arg);
+                    if (tiles[arg] == null) {
+                        tiles[arg] = codes(player);
+                        scores[arg] = player.getScore();
+                        cards[arg] = player.getUsedCardMask();
+                    }
+                    switch (op) {
+                        case DeltaEncoder.PLAYER_ADD -> tiles[arg] = addTile(tiles[arg], in.get());
+                        case DeltaEncoder.PLAYER_REMOVE -> tiles[arg] = removeLast(tiles[arg], in.get());
+                        case DeltaEncoder.SCORE -> scores[arg] = in.getShort();
+                        case DeltaEncoder.CARDS -> cards[arg] = in.get();
+                        default -> throw new IllegalArgumentException("unknown delta operation " + op);
+                    }
+                }
+            }
+        }
+
+        SharedList<GameStateDTO.AreaView> areas = base.areaList();
+        for (int kind = 0; kind < Area.COUNT; kind++) {
+            if (areaCodes[kind] != null) {
+                areas = areas.with(kind, new GameStateDTO.AreaView(Area.of(kind), areaCodes[kind]));
+            }
+        }
+        SharedList<GameStateDTO.PlayerView> players = base.playerList();
+        for (int seat = 0; seat < tiles.length; seat++) {
+            if (tiles[seat] != null) {
+                String color = base.getPlayers().get(seat).getColor();
+                players = players.with(seat, new GameStateDTO.PlayerView(color, scores[seat], cards[seat], tiles[seat]));
+            }
+        }
+        return new GameStateDTO(turn, landslides, bag, dirty, areas, players);
+    }
+
+    /**
+     * moves past a delta whose base is missing
+     */
+    private static void skipDelta(ByteBuffer in) {
+        byte op;
+        while ((op = in.get()) != DeltaEncoder.END) {
+            if (op == DeltaEncoder.AREA) {
+                in.get();
+                in.position(in.position() + (in.get() & 0xFF));
+                continue;
+            }
+            in.position(in.position() + (op == DeltaEncoder.PLAYER_ADD || op == DeltaEncoder.PLAYER_REMOVE
+                    || op == DeltaEncoder.CARDS || op == DeltaEncoder.AREA_REMOVE || op == DeltaEncoder.AREA_APPEND ? 2
+                    : op == DeltaEncoder.SCORE ? 3 : 1));
+        }
+    }
+
+    private static byte[] codes(GameStateDTO.PlayerView player) {
+        byte[] codes = new byte[player.getTileCount()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = player.getTileCode(i);
+        }
+        return codes;
+    }
+
+    private static byte[] codes(GameStateDTO.AreaView area) {
+        byte[] codes = new byte[area.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = area.codeAt(i);
+        }
+        return codes;
+    }
+
+    private static byte[] removeAt(byte[] codes, int index) {
+        byte[] shrunk = Arrays.copyOf(codes, codes.length - 1);
+        System.arraycopy(codes, index + 1, shrunk, index, codes.length - index - 1);
+        return shrunk;
+    }
+
+    private static byte[] append(byte[] codes, byte code) {
+        byte[] grown = Arrays.copyOf(codes, codes.length + 1);
+        grown[codes.length] = code;
+        return grown;
+    }
+
+    /**
+     * inserts after the last tile of the same or an earlier kind
+     */
+    private static byte[] addTile(byte[] tiles, byte code) {
+        int kind = TileCode.kindOf(code);
+        int at = 0;
+        while (at < tiles.length && TileCode.kindOf(tiles[at]) <= kind) {
+            at++;
+        }
+        byte[] grown = new byte[tiles.length + 1];
+        System.arraycopy(tiles, 0, grown, 0, at);
+        grown[at] = code;
+        System.arraycopy(tiles, at, grown, at + 1, tiles.length - at);
+        return grown;
+    }
+
+    private static byte[] removeLast(byte[] tiles, int kind) {
+        int at = tiles.length - 1;
+        while (at >= 0 && TileCode.kindOf(tiles[at]) != kind) {
+            at--;
+        }
+        if (at < 0) {
+            return tiles;
+        }
+        byte[] shrunk = Arrays.copyOf(tiles, tiles.length - 1);
+        System.arraycopy(tiles, at + 1, shrunk, at, tiles.length - at - 1);
+        return shrunk;
+    }
+}
@@ -0,0 +1,256 @@
+package Controller;
+
+import Model.Area;
+import Model.ChangeBus;
+import Model.TileCode;
+
+import java.nio.ByteBuffer;
+
+/**
+ * turns a stream of GameStateDTO versions into small updates for spectators
+ * every update describes what changed since the previous version, every keyframeInterval versions
+ * a whole snapshot is sent instead so a receiver that joins late or lost its place can start over,
+ * keyframe() makes one at any time for a receiver that asks
+ *
+ * an update is [KEYFRAME or DELTA] [version: int] followed by
+ * keyframe: [turn] [landslides] [bag] per area [size] codes..., [players] per player [colour: short] [score: short] [cards] [count] codes...
+ * delta: operations, each [op] [arguments], up to END
+ *
+ * players keep their tiles kind by kind in the order taken, so a delta only names their codes, never positions
+ * areas keep their tiles in the order they arrived, a take leaves a gap anywhere and a draw adds at the end,
+ * so a changed area is sent as the indices taken and the codes appended, or whole when that is shorter
+ *
+ * {@code @invariant} applying the delta of version v to version v - 1 gives version v exactly
+ */
+public final class DeltaEncoder {
+    public static final byte KEYFRAME = 0;
+    public static final byte DELTA = 1;
+
+    static final byte END = 0;
+    /** [turn index] */
+    static final byte TURN = 1;
+    /** [landslide count] */
+    static final byte LANDSLIDES = 2;
+    /** [bag size] */
+    static final byte BAG = 3;
+    /** [area kind] [size] codes... the whole area in order */
+    static final byte AREA = 4;
+    /** [seat] [code] the code is added after the player's tiles of its kind */
+    static final byte PLAYER_ADD = 5;
+    /** [seat] [kind] the last tile of that kind is taken back */
+    static final byte PLAYER_REMOVE = 6;
+    /** [seat] [score: short] */
+    static final byte SCORE = 7;
+    /** [seat] [used card mask] */
+    static final byte CARDS = 8;
+    /** [area kind] [index] the tile at index is taken, the ones behind it move up */
+    static final byte AREA_REMOVE = 9;
+    /** [area kind] [code] the code is put behind the tiles of the area */
+    static final byte AREA_APPEND = 10;
+
+    private final int keyframeInterval;
+    private GameStateDTO last;
+    private int version;
+
+    /**
+     * @param keyframeInterval every how many versions a whole snapshot is sent
+     */
+    public DeltaEncoder(int keyframeInterval) {
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    /**
+     * encodes the next version against the previous one
+     *
+     * @param state the new version
+     * @return the update, a keyframe for the first version, every keyframeInterval versions
+     *         and when the seats changed
+     */
+    public ByteBuffer encode(GameStateDTO state) {
+        GameStateDTO previous = last;
+        last = state;
+        version++;
+        ByteBuffer out = ByteBuffer.allocate(maxSize(state));
+        if (previous == null || version % keyframeInterval == 0
+                || previous.getPlayers().size() != state.getPlayers().size()) {
+            writeKeyframe(state, version, out);
+        } else {
+            writeDelta(previous, state, version, out);
+        }
+        return out.flip();
+    }
+
+    /**
+     * @return a keyframe of the latest version, for a receiver that joins now
+     *
+     * {@code @pre} encode was called at least once
+     */
+    public ByteBuffer keyframe() {
+        ByteBuffer out = ByteBuffer.allocate(maxSize(last));
+        writeKeyframe(last, version, out);
+        return out.flip();
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * enough room for a keyframe, which is never smaller than a delta of the same version
+     * plus the operations of a delta that removes as many tiles as it adds
+     */
+    private static int maxSize(GameStateDTO state) {
+        int size = 16 + Area.COUNT * (1 + TileCode.COUNT * 3);
+        for (GameStateDTO.PlayerView player : state.getPlayers()) {
+            size += 8 + player.getTileCount() * 6 + TileCode.KIND_COUNT * 3;
+        }
+        for (GameStateDTO.AreaView area : state.getAreas()) {
+            size += area.size();
+        }
+        return size;
+    }
+
+    static void writeKeyframe(GameStateDTO state, int version, ByteBuffer out) {
+        out.put(KEYFRAME).putInt(version);
+        out.put((byte) state.getCurrentTurnIndex()).put((byte) state.getLandslideCount()).put((byte) state.getBagSize());
+        for (GameStateDTO.AreaView area : state.getAreas()) {
+            out.put((byte) area.size());
+            for (int i = 0; i < area.size(); i++) {
+                out.put(area.codeAt(i));
+            }
+        }
+        out.put((byte) state.getPlayers().size());
+        for (GameStateDTO.PlayerView player : state.getPlayers()) {
+            out.putShort(Short.parseShort(player.getColor()));
+            out.putShort((short) player.getScore());
+            out.put((byte) player.getUsedCardMask());
+            out.put((byte) player.getTileCount());
+            for (int i = 0; i < player.getTileCount(); i++) {
+                out.put(player.getTileCode(i));
+            }
+        }
+    }
+
+    static void writeDelta(GameStateDTO from, GameStateDTO to, int version, ByteBuffer out) {
+        out.put(DELTA).putInt(version);
+        if (from.getCurrentTurnIndex() != to.getCurrentTurnIndex()) {
+            out.put(TURN).put((byte) to.getCurrentTurnIndex());
+        }
+        if (from.getLandslideCount() != to.getLandslideCount()) {
+            out.put(LANDSLIDES).put((byte) to.getLandslideCount());
+        }
+        if (from.getBagSize() != to.getBagSize()) {
+            out.put(BAG).put((byte) to.getBagSize());
+        }
+
+        for (int a = 0; a < Area.COUNT; a++) {
+            GameStateDTO.AreaView before = from.getAreas().get(a);
+            GameStateDTO.AreaView after = to.getAreas().get(a);
+            if (before != after) {
+                writeAreaChanges(before, after, out);
+            }
+        }
+
+        for (int seat = 0; seat < to.getPlayers().size(); seat++) {
+            GameStateDTO.PlayerView before = from.getPlayers().get(seat);
+            GameStateDTO.PlayerView after = to.getPlayers().get(seat);
+            if (before == after) continue;
+            writeTileChanges(seat, before, after, out);
+            if (before.getScore() != after.getScore()) {
+                out.put(SCORE).put((byte) seat).putShort((short) after.getScore());
+            }
+            if (before.getUsedCardMask() != after.getUsedCardMask()) {
+                out.put(CARDS).put((byte) seat).put((byte) after.getUsedCardMask());
+            }
+        }
+        out.put(END);
+    }
+
+    /**
+     * the tiles of before that start after are kept, the others removed front to back, then the rest appended
+     */
+    private static void writeAreaChanges(GameStateDTO.AreaView before, GameStateDTO.AreaView after, ByteBuffer out) {
+        if (before.equals(after)) {
+            return;
+        }
+        byte kind = (byte) after.getArea().ordinal();
+        int kept = kept(before, after);
+        int edits = before.size() - kept + after.size() - kept;
+        if (3 * edits > 3 + after.size()) {
+            out.put(AREA).put(kind).put((byte) after.size());
+            for (int i = 0; i < after.size(); i++) {
+                out.put(after.codeAt(i));
+            }
+            return;
+        }
+        int at = 0;
+        for (int i = 0; i < before.size(); i++) {
+            if (at < kept && before.codeAt(i) == after.codeAt(at)) {
+                at++;
+            } else {
+                out.put(AREA_REMOVE).put(kind).put((byte) at);
+            }
+        }
+        for (; at < after.size(); at++) {
+            out.put(AREA_APPEND).put(kind).put(after.codeAt(at));
+        }
+    }
+
+    /**
+     * @return how many tiles at the front of after are found in before in the same order, matched greedily
+     */
+    private static int kept(GameStateDTO.AreaView before, GameStateDTO.AreaView after) {
+        int at = 0;
+        for (int i = 0; i < before.size() && at < after.size(); i++) {
+            if (before.codeAt(i) == after.codeAt(at)) {
+                at++;
+            }
+        }
+        return at;
+    }
+
+    /**
+     * per kind the tiles after the common prefix are taken back and the new ones added
+     */
+    private static void writeTileChanges(int seat, GameStateDTO.PlayerView before, GameStateDTO.PlayerView after,
+                                         ByteBuffer out) {
+        int b = 0;
+        int a = 0;
+        for (int kind = 0; kind < TileCode.LANDSLIDE; kind++) {
+            int bEnd = kindEnd(before, b, kind);
+            int aEnd = kindEnd(after, a, kind);
+            int same = 0;
+            while (b + same < bEnd && a + same < aEnd && before.getTileCode(b + same) == after.getTileCode(a + same)) {
+                same++;
+            }
+            for (int i = b + same; i < bEnd; i++) {
+                out.put(PLAYER_REMOVE).put((byte) seat).put((byte) kind);
+            }
+            for (int i = a + same; i < aEnd; i++) {
+                out.put(PLAYER_ADD).put((byte) seat).put(after.getTileCode(i));
+            }
+            b = bEnd;
+            a = aEnd;
+        }
+    }
+
+    private static int kindEnd(GameStateDTO.PlayerView player, int from, int kind) {
+        while (from < player.getTileCount() && TileCode.kindOf(player.getTileCode(from)) == kind) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * @return ChangeBus bits of everything a delta operation touches
+     */
+    static int dirtyBits(byte op, int arg) {
+        return switch (op) {
+            case TURN -> ChangeBus.TURN;
+            case LANDSLIDES -> ChangeBus.LANDSLIDES;
+            case AREA, AREA_REMOVE, AREA_APPEND -> ChangeBus.area(arg);
+            case PLAYER_ADD, PLAYER_REMOVE, SCORE, CARDS -> ChangeBus.player(arg);
+            default -> 0;
+        };
+    }
+}
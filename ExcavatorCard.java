@@ -1,44 +1,258 @@
 package Main;
 
+import AI.MctsBot;
 import Controller.GameController;
+import Controller.GameLoop;
 import Model.GameEngine;
+import Model.GameSave;
+import Model.JournalIndex;
+import Model.JournalReplayer;
+import Model.MoveJournal;
 import Model.Player;
+import Model.WriteAheadLog;
 import View.Screen;
 import Controller.IOhandler;
+import Metrics.MetricsDump;
+import Network.RemoteController;
+import Network.TableClient;
+import Network.TableServer;
 import javax.swing.SwingUtilities;
-import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
 
                 System.out.println("=== Starting Amphipolis Game ===");
 
-                Screen screen = new Screen();
-                GameEngine gameEngine = new GameEngine();
-                GameController controller = new GameController(screen);
+                dumpMetrics(args);
 
-                screen.setGameController(controller);
-                controller.setGameEngine(gameEngine);
+                for (String arg : args) {
+                    if (arg.startsWith("--serve=")) {
+                        serve(Integer.parseInt(arg.substring("--serve=".length())), args);
+                        return;
+                    }
+                    if (arg.startsWith("--connect=")) {
+                        connect(arg.substring("--connect=".length()));
+                        return;
+                    }
+                    if (arg.startsWith("--replay=")) {
+                        replay(arg.substring("--replay=".length()));
+                        return;
+                    }
+                }
 
-                IOhandler ioHandler = new IOhandler(screen);
-                ioHandler.setGameEngine(gameEngine);
+                Path save = savePath(args);
+                GameEngine gameEngine;
+                if (save != null && Files.exists(save)) {
+                    gameEngine = GameSave.load(save);
+                    System.out.println("Resumed the game saved in " + save);
+                } else {
+                    gameEngine = new GameEngine();
+                    gameEngine.initializeGame();
+                }
+                journal(args, gameEngine);
+                GameLoop gameLoop = new GameLoop(gameEngine);
+                if (save != null) {
+                    saveOnExit(save, gameEngine, gameLoop);
+                }
 
+                SwingUtilities.invokeLater(() -> startUi(args, gameEngine, gameLoop));
 
-                gameEngine.initializeGame();
-                screen.initializeDisplay();
-                Player firstPlayer = gameEngine.getCurrentPlayer();
-                if (firstPlayer != null) {
-                    screen.updatePlayerTurn(firstPlayer.getColor());
-                }
+                System.out.println("Players: " + gameEngine.getPlayers().size());
+    }
 
+    /**
+     * builds the window on the event dispatch thread, from here on the game itself only runs on the game loop
+     */
+    private static void startUi(String[] args, GameEngine gameEngine, GameLoop gameLoop) {
+        Screen screen = new Screen();
+        GameController controller = new GameController(screen);
 
-                screen.displayGameState(gameEngine);
+        screen.setGameController(controller);
+        controller.setGameEngine(gameEngine);
+        controller.setGameLoop(gameLoop);
 
-                System.out.println("=== Game Started ===");
-                System.out.println("Players: " + gameEngine.getPlayers().size());
-                if (firstPlayer != null) {
-                    System.out.println("Current player: " + firstPlayer.getColor());
-                }
+        IOhandler ioHandler = new IOhandler(screen);
+        ioHandler.setGameEngine(gameEngine);
+
+        screen.initializeDisplay();
+        gameLoop.submit(() -> {
+            Player firstPlayer = gameEngine.getCurrentPlayer();
+            if (firstPlayer != null) {
+                String color = firstPlayer.getColor();
+                SwingUtilities.invokeLater(() -> screen.updatePlayerTurn(color));
+                System.out.println("Current player: " + color);
+            }
+        });
+
+        screen.observe(gameLoop);
+
+        seatBots(args, controller);
+        controller.playBotTurns();
+
+        System.out.println("=== Game Started ===");
+    }
+
+    /**
+     * keeps a file of the game's metrics up to date, e.g. --metrics=metrics.prom --metrics-every=5000
+     */
+    private static void dumpMetrics(String[] args) {
+        String file = null;
+        long periodMillis = 10_000;
+        for (String arg : args) {
+            if (arg.startsWith("--metrics=")) {
+                file = arg.substring("--metrics=".length());
+            } else if (arg.startsWith("--metrics-every=")) {
+                periodMillis = Long.parseLong(arg.substring("--metrics-every=".length()));
+            }
+        }
+        if (file == null) return;
+
+        MetricsDump dump = new MetricsDump(Path.of(file), periodMillis);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                dump.close();
+            } catch (Exception e) {
+                System.err.println("last metrics dump failed: " + e.getMessage());
+            }
+        }));
+        System.out.println("Metrics are written to " + file);
+    }
+
+    /**
+     * resumes the game of a file and saves it there when the app closes, e.g. --save=game.sav
+     */
+    private static Path savePath(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("--save=")) {
+                return Path.of(arg.substring("--save=".length()));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * the save runs on the game loop, between two commands, so it never sees half a move
+     */
+    private static void saveOnExit(Path save, GameEngine gameEngine, GameLoop gameLoop) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                gameLoop.submit(() -> {
+                    try {
+                        GameSave.save(gameEngine, save);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }).get(2, TimeUnit.SECONDS);
+                System.out.println("Game saved to " + save);
+            } catch (Exception e) {
+                System.err.println("saving the game failed: " + e.getMessage());
+            }
+        }));
+    }
+
+    /**
+     * records the game for replays, e.g. --journal=game.journal
+     */
+    private static void journal(String[] args, GameEngine gameEngine) throws Exception {
+        for (String arg : args) {
+            if (arg.startsWith("--journal=")) {
+                String file = arg.substring("--journal=".length());
+                MoveJournal journal = new MoveJournal(Path.of(file), gameEngine);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        journal.close();
+                    } catch (Exception e) {
+                        System.err.println("closing the journal failed: " + e.getMessage());
+                    }
+                }));
+                System.out.println("Moves are journaled to " + file + ", seed " + gameEngine.getSeed());
+            }
+        }
+    }
+
+    /**
+     * opens a journaled game with a timeline to scrub through it, e.g. --replay=game.journal
+     */
+    private static void replay(String file) throws Exception {
+        JournalIndex index = JournalIndex.build(JournalReplayer.map(Path.of(file)));
+        SwingUtilities.invokeLater(() -> {
+            Screen screen = new Screen();
+            screen.initializeDisplay();
+            screen.showTimeline(index);
+        });
+    }
+
+    /**
+     * hosts tables for remote players until the process is stopped, e.g. --serve=7777 --journals=games
+     * or --serve=7777 --wal=tables.wal --wal-delay=500, the delay in microseconds a move may wait for others
+     * to share its disk sync
+     */
+    private static void serve(int port, String[] args) throws Exception {
+        TableServer server = new TableServer(new InetSocketAddress(port));
+        Path wal = null;
+        long walDelay = 0;
+        for (String arg : args) {
+            if (arg.startsWith("--journals=")) {
+                server.setJournalDirectory(Path.of(arg.substring("--journals=".length())));
+            } else if (arg.startsWith("--wal=")) {
+                wal = Path.of(arg.substring("--wal=".length()));
+            } else if (arg.startsWith("--wal-delay=")) {
+                walDelay = Long.parseLong(arg.substring("--wal-delay=".length()));
+            }
+        }
+        if (wal != null) {
+            WriteAheadLog log = new WriteAheadLog(wal, walDelay, TimeUnit.MICROSECONDS);
+            System.out.println("=== Recovered " + log.getRecovered().size() + " unfinished tables ===");
+            server.setWriteAheadLog(log);
+        }
+        server.start();
+        System.out.println("=== Serving tables on port " + server.getPort() + " ===");
+        Thread.currentThread().join();
+    }
+
+    /**
+     * sits at a table of a remote server, e.g. --connect=localhost:7777:42
+     */
+    private static void connect(String target) throws Exception {
+        String[] parts = target.split(":");
+        TableClient client = TableClient.connect(
+                new InetSocketAddress(parts[0], Integer.parseInt(parts[1])),
+                parts.length > 2 ? Integer.parseInt(parts[2]) : 0,
+                SwingUtilities::invokeLater);
+
+        SwingUtilities.invokeLater(() -> {
+            Screen screen = new Screen();
+            screen.setGameController(new RemoteController(screen, client));
+            screen.initializeDisplay();
+            screen.observe(client);
+        });
+    }
+
+    /**
+     * seats monte carlo bots from the command line, e.g. --bots=2,3,4 --think=800
+     */
+    private static void seatBots(String[] args, GameController controller) {
+        String seats = null;
+        long thinkMillis = 500;
+        for (String arg : args) {
+            if (arg.startsWith("--bots=")) {
+                seats = arg.substring("--bots=".length());
+            } else if (arg.startsWith("--think=")) {
+                thinkMillis = Long.parseLong(arg.substring("--think=".length()));
+            }
+        }
+        if (seats == null || seats.isEmpty()) return;
 
+        MctsBot bot = new MctsBot(thinkMillis);
+        for (String seat : seats.split(",")) {
+            controller.setBotSeat(seat.trim(), bot);
+            System.out.println("Player " + seat.trim() + " is played by " + bot.getName());
+        }
     }
 }
\ No newline at end of file
@@ -8,5 +8,6 @@ package Model;
 public class LandslideT extends Tile{
     public LandslideT(Tile tile){
         this.colour = tile.colour;
+        this.code = TileCode.encode(TileCode.LANDSLIDE, colour);
     }
 }
@@ -0,0 +1,156 @@
+package Controller;
+
+import Model.ChangeBus;
+import Model.GameEngine;
+import Model.ModelListener;
+
+import javax.swing.SwingUtilities;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * the single thread that owns a GameEngine
+ * the ui, bots and replays never touch the engine themselves, they queue commands here and run in order,
+ * after every command the changes are captured as a GameStateDTO and handed to the views on their own thread,
+ * each snapshot shares every area and player that did not change with the one before
+ *
+ * snapshots the views have not picked up yet are merged, so a slow view sees the latest position
+ * with every region that changed in between, never a backlog
+ *
+ * {@code @invariant} the engine is only read or modified on the loop thread
+ */
+public final class GameLoop {
+    private final GameEngine engine;
+    private final ChangeBus changes;
+    private final Executor publisher;
+    private final ExecutorService thread;
+    private final List<Consumer<GameStateDTO>> views = new CopyOnWriteArrayList<>();
+    private final AtomicReference<GameStateDTO> pending = new AtomicReference<>();
+    private final ModelListener modelListener = this::publish;
+    private volatile Thread loopThread;
+    private volatile Thread.UncaughtExceptionHandler failureHandler;
+    private GameStateDTO last;
+
+    /**
+     * a loop that delivers snapshots on the swing event dispatch thread
+     *
+     * @param engine initialized engine, from now on owned by the loop
+     */
+    public GameLoop(GameEngine engine) {
+        this(engine, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * @param engine initialized engine, from now on owned by the loop
+     * @param publisher runs snapshot deliveries on the views' thread
+     */
+    public GameLoop(GameEngine engine, Executor publisher) {
+        this.engine = engine;
+        this.changes = engine.getBoard().getChanges();
+        this.publisher = publisher;
+        this.thread = Executors.newSingleThreadExecutor(task -> {
+            Thread t = new Thread(task, "game-loop");
+            t.setDaemon(true);
+            loopThread = t;
+            return t;
+        });
+        submit(() -> {
+            engine.setProfiled(true);
+            changes.addListener(modelListener);
+        });
+    }
+
+    /**
+     * queues a command, commands run one at a time in the order they were submitted
+     *
+     * @param command reads or changes the engine
+     * @return completes once the command ran and its changes were published, exceptionally if the command threw
+     */
+    public Future<?> submit(Runnable command) {
+        return thread.submit(() -> {
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                Thread current = Thread.currentThread();
+                Thread.UncaughtExceptionHandler handler = failureHandler;
+                (handler != null ? handler : current.getUncaughtExceptionHandler()).uncaughtException(current, e);
+                throw e;
+            } finally {
+                changes.flush();
+            }
+        });
+    }
+
+    /**
+     * receives the exception of every command that throws, also for callers that drop the Future
+     * without a handler they go to the loop thread's uncaught exception handler
+     *
+     * @param handler called on the loop thread, or null for the default
+     */
+    public void setFailureHandler(Thread.UncaughtExceptionHandler handler) {
+        this.failureHandler = handler;
+    }
+
+    /**
+     * @return true if the caller is the thread that owns the engine
+     */
+    public boolean isLoopThread() {
+        return Thread.currentThread() == loopThread;
+    }
+
+    /**
+     * subscribes a view, the next snapshot reports everything as changed so it can draw the whole position
+     *
+     * @param view called on the publisher's thread
+     */
+    public void addView(Consumer<GameStateDTO> view) {
+        views.add(view);
+        submit(() -> publish(ChangeBus.ALL));
+    }
+
+    public void removeView(Consumer<GameStateDTO> view) {
+        views.remove(view);
+    }
+
+    /**
+     * stops taking commands, queued ones still run
+     *
+     * @param millis how long to wait for them
+     * @return true if the loop finished in time
+     */
+    public boolean shutdown(long millis) throws InterruptedException {
+        submit(() -> changes.removeListener(modelListener));
+        thread.shutdown();
+        return thread.awaitTermination(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private void publish(int dirty) {
+        last = last == null ? GameStateDTO.of(engine) : last.next(engine, dirty);
+        GameStateDTO next = last;
+        while (true) {
+            GameStateDTO waiting = pending.get();
+            GameStateDTO merged = waiting == null ? next : next.merge(waiting.getDirty());
+            if (pending.compareAndSet(waiting, merged)) {
+                if (waiting == null) {
+                    publisher.execute(this::deliver);
+                }
+                return;
+            }
+        }
+    }
+
+    private void deliver() {
+        GameStateDTO snapshot = pending.getAndSet(null);
+        if (snapshot == null) return;
+        for (Consumer<GameStateDTO> view : views) {
+            view.accept(snapshot);
+        }
+    }
+}
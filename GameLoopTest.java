@@ -0,0 +1,138 @@
+package Test;
+
+import Controller.GameController;
+import Controller.GameLoop;
+import Controller.GameStateDTO;
+import Model.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+public class GameLoopTest {
+    private GameEngine engine;
+    private GameLoop loop;
+    private final ConcurrentLinkedQueue<Runnable> viewThread = new ConcurrentLinkedQueue<>();
+    private final List<GameStateDTO> seen = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        engine = new GameEngine(5);
+        engine.initializeGame();
+        loop = new GameLoop(engine, viewThread::add);
+        loop.addView(seen::add);
+        loop.submit(() -> { }).get();
+        runViewThread();
+        seen.clear();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        assertTrue(loop.shutdown(1000));
+    }
+
+    private void runViewThread() {
+        Runnable task;
+        while ((task = viewThread.poll()) != null) {
+            task.run();
+        }
+    }
+
+    @Test
+    public void testCommandsRunInOrderOnTheLoopThread() throws Exception {
+        List<Integer> order = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+        for (int i = 0; i < 100; i++) {
+            int n = i;
+            loop.submit(() -> {
+                assertNotSame(caller, Thread.currentThread());
+                assertTrue(loop.isLoopThread());
+                order.add(n);
+            });
+        }
+        loop.submit(() -> { }).get();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+        assertFalse(loop.isLoopThread());
+    }
+
+    @Test
+    public void testSnapshotsWaitingForTheViewAreMerged() throws Exception {
+        int[] drawn = new int[1];
+        loop.submit(() -> {
+            engine.apply(MoveCode.draw());
+            drawn[0] = engine.getBoard().getChanges().peek();
+        }).get();
+        loop.submit(() -> engine.apply(MoveCode.endTurn())).get();
+
+        assertEquals(1, viewThread.size());
+        runViewThread();
+
+        assertEquals(1, seen.size());
+        GameStateDTO snapshot = seen.get(0);
+        assertTrue((snapshot.getDirty() & ChangeBus.TURN) != 0);
+        assertEquals(drawn[0], snapshot.getDirty() & drawn[0]);
+        assertEquals(1, snapshot.getCurrentTurnIndex());
+    }
+
+    @Test
+    public void testSnapshotMatchesTheEngine() throws Exception {
+        loop.submit(() -> engine.apply(MoveCode.draw())).get();
+        runViewThread();
+
+        GameStateDTO state = seen.get(seen.size() - 1);
+        assertEquals(captureOnLoop(), state);
+        for (Area area : Area.values()) {
+            assertEquals(engine.getBoard().getArea(area).getTiles(), state.getArea(area).getTiles());
+        }
+    }
+
+    @Test
+    public void testFailedCommandReachesFutureAndHandler() throws Exception {
+        List<Throwable> failures = new ArrayList<>();
+        loop.setFailureHandler((thread, e) -> failures.add(e));
+        IllegalStateException thrown = new IllegalStateException("broken command");
+
+        Future<?> result = loop.submit(() -> {
+            throw thrown;
+        });
+        try {
+            result.get();
+            fail("the command threw");
+        } catch (ExecutionException e) {
+            assertSame(thrown, e.getCause());
+        }
+        assertEquals(List.of(thrown), failures);
+        loop.submit(() -> { }).get();
+    }
+
+    private GameStateDTO captureOnLoop() throws Exception {
+        GameStateDTO[] out = new GameStateDTO[1];
+        loop.submit(() -> out[0] = GameStateDTO.of(engine)).get();
+        return out[0];
+    }
+
+    @Test
+    public void testControllerQueuesUiActionsOnTheLoop() throws Exception {
+        GameController controller = new GameController();
+        controller.setGameEngine(engine);
+        controller.setGameLoop(loop);
+
+        controller.handleDrawTiles();
+        controller.handleEndTurn();
+        loop.submit(() -> { }).get();
+        runViewThread();
+
+        GameStateDTO snapshot = seen.get(seen.size() - 1);
+        assertEquals(1, snapshot.getCurrentTurnIndex());
+        assertEquals(captureOnLoop(), snapshot);
+    }
+}
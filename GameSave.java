@@ -0,0 +1,130 @@
+package Model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * saves a game in progress to a file and resumes it, without serialization or reflection
+ *
+ * layout, little endian: MAGIC, VERSION, 2 reserved bytes, the seed, the number of shorts of the position,
+ * a CRC32C of those shorts, then the position as packed by GameState
+ * a mid-game save is about 400 bytes, written next to the file, forced to the disk and only then moved over it,
+ * so a crash or a power loss while saving leaves the previous save
+ *
+ * loading reads the file into one buffer and the position into one short[], everything else it allocates
+ * is the restored game itself
+ */
+public final class GameSave {
+    /** "AMPS" */
+    public static final int MAGIC = 0x53504D41;
+    public static final int VERSION = 1;
+    public static final int HEADER = 24;
+
+    private GameSave() {
+    }
+
+    /**
+     * @param engine game to save, only read
+     * @param file where to save, replaced
+     */
+    public static void save(GameEngine engine, Path file) throws IOException {
+        ByteBuffer out = write(engine);
+        Path parent = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                // the rename may reach the disk before the contents otherwise
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @param file a save written by save
+     * @return the saved game, ready to play on
+     */
+    public static GameEngine load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            long size = channel.size();
+            if (size < HEADER || size > HEADER + 2L * Short.MAX_VALUE) {
+                throw new IOException(file + " is not a saved game");
+            }
+            ByteBuffer in = ByteBuffer.allocate((int) size);
+            while (in.hasRemaining()) {
+                if (channel.read(in) < 0) {
+                    throw new IOException(file + " is cut short");
+                }
+            }
+            in.flip();
+            return read(in);
+        }
+    }
+
+    /**
+     * @param engine game to save, only read
+     * @return the save, positioned at 0
+     */
+    public static ByteBuffer write(GameEngine engine) {
+        short[] state = GameState.capture(engine).toArray();
+        ByteBuffer out = ByteBuffer.allocate(HEADER + 2 * state.length).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC);
+        out.putShort((short) VERSION);
+        out.putShort((short) 0);
+        out.putLong(engine.getSeed());
+        out.putInt(state.length);
+        out.putInt(0);
+        out.asShortBuffer().put(state);
+        CRC32C crc = new CRC32C();
+        crc.update(out.array(), HEADER, 2 * state.length);
+        out.putInt(20, (int) crc.getValue());
+        out.clear();
+        return out;
+    }
+
+    /**
+     * @param save bytes of a save from its header on
+     * @return the saved game
+     */
+    public static GameEngine read(ByteBuffer save) throws IOException {
+        ByteBuffer in = save.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int base = in.position();
+        if (in.remaining() < HEADER || in.getInt(base) != MAGIC) {
+            throw new IOException("not a saved game");
+        }
+        int version = in.getShort(base + 4);
+        if (version != VERSION) {
+            throw new IOException("unsupported save version " + version);
+        }
+        int length = in.getInt(base + 16);
+        if (length < 0 || in.remaining() != HEADER + 2L * length) {
+            throw new IOException("saved game is cut short");
+        }
+        in.position(base + HEADER);
+        CRC32C crc = new CRC32C();
+        crc.update(in.slice(base + HEADER, 2 * length));
+        if ((int) crc.getValue() != in.getInt(base + 20)) {
+            throw new IOException("saved game is damaged");
+        }
+
+        short[] state = new short[length];
+        in.asShortBuffer().get(state);
+        try {
+            return GameState.wrap(state).toEngine(in.getLong(base + 8));
+        } catch (RuntimeException e) {
+            throw new IOException("saved game does not hold a valid position", e);
+        }
+    }
+}
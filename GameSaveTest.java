@@ -0,0 +1,86 @@
+package Test;
+
+import Model.*;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class GameSaveTest {
+
+    private static GameEngine midgame(long seed) {
+        GameEngine engine = new GameEngine(seed);
+        engine.initializeGame();
+        Random random = new Random(seed);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int ply = 0; ply < 50; ply++) {
+            engine.apply(moves[random.nextInt(MoveGenerator.generate(engine, moves))]);
+        }
+        engine.calculateStatueScores();
+        return engine;
+    }
+
+    @Test
+    public void testLoadedGamePlaysOnLikeTheSavedOne() throws Exception {
+        GameEngine saved = midgame(12);
+        Path file = Files.createTempFile("game", ".sav");
+        try {
+            GameSave.save(saved, file);
+            GameEngine loaded = GameSave.load(file);
+
+            assertEquals(GameState.capture(saved), GameState.capture(loaded));
+            assertEquals(saved.hash(), loaded.hash());
+            assertEquals(saved.getSeed(), loaded.getSeed());
+
+            Random random = new Random(13);
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            int n;
+            while ((n = MoveGenerator.generate(saved, moves)) > 0 && saved.getBoard().getBagSize() > 0) {
+                int move = moves[random.nextInt(n)];
+                saved.apply(move);
+                loaded.apply(move);
+            }
+            assertEquals(GameState.capture(saved), GameState.capture(loaded));
+            for (int seat = 0; seat < saved.getPlayers().size(); seat++) {
+                assertEquals(saved.getPlayers().get(seat).calculateScore(), loaded.getPlayers().get(seat).calculateScore());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testDamagedSavesAreRefused() {
+        ByteBuffer save = GameSave.write(midgame(14));
+
+        ByteBuffer flipped = copy(save);
+        flipped.put(GameSave.HEADER + 7, (byte) (flipped.get(GameSave.HEADER + 7) ^ 1));
+        assertRefused(flipped, "damaged");
+
+        ByteBuffer newer = copy(save);
+        newer.putShort(4, (short) (GameSave.VERSION + 1));
+        assertRefused(newer, "version");
+
+        assertRefused(copy(save).limit(save.limit() - 2), "cut short");
+        assertRefused(ByteBuffer.allocate(GameSave.HEADER), "not a saved game");
+    }
+
+    private static ByteBuffer copy(ByteBuffer save) {
+        ByteBuffer copy = ByteBuffer.allocate(save.limit());
+        copy.put(save.duplicate()).flip();
+        return copy;
+    }
+
+    private static void assertRefused(ByteBuffer save, String reason) {
+        try {
+            GameSave.read(save);
+            fail("loaded a save that is " + reason);
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains(reason));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package Model;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * registry of the live games hosted by one process
+ * every session owns its own GameEngine, so bags and random streams are never shared between tables
+ *
+ * {@code @invariant} a session id is never handed out twice by the same registry
+ * {@code @invariant} an engine is only touched by one thread at a time when accessed through withEngine
+ */
+public class GameSession {
+    private final ConcurrentHashMap<Long, GameEngine> engines = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * creates and initializes a new game with an unseeded random stream
+     *
+     * @return id of the new session
+     *
+     * {@code @post} the session is registered and its game is initialized
+     */
+    public long open() {
+        return register(new GameEngine());
+    }
+
+    /**
+     * creates and initializes a new game whose bag is shuffled from the given seed
+     *
+     * @param seed seed of the game's random stream
+     * @return id of the new session
+     *
+     * {@code @post} the session is registered and its game is initialized
+     */
+    public long open(long seed) {
+        return register(new GameEngine(seed));
+    }
+
+    private long register(GameEngine engine) {
+        engine.initializeGame();
+        long id = nextId.getAndIncrement();
+        engines.put(id, engine);
+        return id;
+    }
+
+    /**
+     * returns the engine of a session
+     * the engine itself is not thread safe, callers sharing it across threads should use withEngine
+     *
+     * @param id session id
+     * @return engine or null if the session is not live
+     */
+    public GameEngine get(long id) {
+        return engines.get(id);
+    }
+
+    /**
+     * runs an action on the engine of a session while holding that engine's lock
+     *
+     * @param id session id
+     * @param action work to run against the engine
+     * @return result of the action or null if the session is not live
+     *
+     * {@code @pre} action does not block on another session's lock
+     *
+     * {@code @post} no other withEngine call for the same session ran concurrently
+     */
+    public <T> T withEngine(long id, Function<GameEngine, T> action) {
+        GameEngine engine = engines.get(id);
+        if (engine == null) {
+            return null;
+        }
+        synchronized (engine) {
+            return action.apply(engine);
+        }
+    }
+
+    /**
+     * removes a session from the registry
+     *
+     * @param id session id
+     * @return true if the session was live
+     */
+    public boolean close(long id) {
+        return engines.remove(id) != null;
+    }
+
+    /**
+     * returns the ids of all live sessions
+     *
+     * @return live view of the session ids
+     */
+    public Set<Long> ids() {
+        return engines.keySet();
+    }
+
+    public int size() {
+        return engines.size();
+    }
+}
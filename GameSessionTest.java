@@ -0,0 +1,99 @@
+package Test;
+
+import Model.*;
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class GameSessionTest {
+    private static final int SESSIONS = 2000;
+    private static final int DRAW_SIZE = 4;
+
+    private GameSession sessions;
+
+    @Before
+    public void setUp() {
+        sessions = new GameSession();
+    }
+
+    @Test
+    public void testSessionsHaveSeparateBags() {
+        long first = sessions.open(1L);
+        long second = sessions.open(1L);
+
+        List<Tile> drawn = sessions.get(first).drawT(135);
+
+        assertEquals(135, drawn.size());
+        assertEquals(4, sessions.get(second).drawT(4).size());
+    }
+
+    @Test
+    public void testSameSeedSameBag() {
+        List<Tile> first = sessions.get(sessions.open(42L)).drawT(135);
+        List<Tile> second = sessions.get(sessions.open(42L)).drawT(135);
+
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(tileKey(first.get(i)), tileKey(second.get(i)));
+        }
+    }
+
+    @Test
+    public void testCloseRemovesSession() {
+        long id = sessions.open();
+        assertTrue(sessions.close(id));
+        assertNull(sessions.get(id));
+        assertFalse(sessions.close(id));
+    }
+
+    @Test
+    public void testInterleavedGamesNeverShareTiles() throws Exception {
+        Map<String, Integer> fullBag = countTiles(sessions.get(sessions.open()).drawT(135));
+
+        GameSession registry = new GameSession();
+        Map<Long, List<Tile>> drawnPerSession = new ConcurrentHashMap<>();
+        List<Long> draws = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            long id = registry.open(i);
+            drawnPerSession.put(id, new ArrayList<>());
+            for (int j = 0; j < 135 / DRAW_SIZE + 1; j++) {
+                draws.add(id);
+            }
+        }
+        Collections.shuffle(draws, new Random(7));
+
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long id : draws) {
+                futures.add(pool.submit(() -> registry.withEngine(id,
+                        engine -> drawnPerSession.get(id).addAll(engine.drawT(DRAW_SIZE)))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(SESSIONS, registry.size());
+        for (Map.Entry<Long, List<Tile>> entry : drawnPerSession.entrySet()) {
+            assertEquals(135, entry.getValue().size());
+            assertEquals(fullBag, countTiles(entry.getValue()));
+            assertTrue(registry.get(entry.getKey()).drawT(1).isEmpty());
+        }
+    }
+
+    private Map<String, Integer> countTiles(List<Tile> tiles) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Tile tile : tiles) {
+            counts.merge(tileKey(tile), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private String tileKey(Tile tile) {
+        return tile.getClass().getSimpleName() + ":" + tile.getColour();
+    }
+}
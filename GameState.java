@@ -0,0 +1,205 @@
+package Model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * packed immutable snapshot of a full game position
+ * everything lives in one short[] so a copy is a single array copy
+ *
+ * layout:
+ * [turn index] [landslides] [player count]
+ * [bag size] bag codes in draw order...
+ * per area (mosaic, statue, skeleton, amphora): [size] codes in display order...
+ * per player: [colour] [flags: turn state, used cards << 10] [statue points] [tile count] tile codes...
+ *
+ * the random stream of the engine is not part of the position
+ *
+ * {@code @invariant} the array is never exposed or modified after construction
+ */
+public final class GameState {
+    private static final int TURN = 0;
+    private static final int LANDSLIDES = 1;
+    private static final int PLAYERS = 2;
+    private static final int HEADER = 3;
+
+    private static final int CARD_SHIFT = 10;
+    private static final int TURN_STATE = (1 << CARD_SHIFT) - 1;
+
+    private static final int[] AREA_KINDS = {TileCode.MOSAIC, TileCode.STATUE, TileCode.SKELETON, TileCode.AMPHORA};
+
+    private final short[] data;
+
+    private GameState(short[] data) {
+        this.data = data;
+    }
+
+    /**
+     * captures the position of a live game
+     *
+     * @param engine initialized engine
+     * @return snapshot of the engine, board and players
+     *
+     * {@code @pre} engine.initializeGame() was called
+     *
+     * {@code @post} the engine is not modified
+     */
+    public static GameState capture(GameEngine engine) {
+        Board board = engine.getBoard();
+        List<Player> players = engine.getPlayers();
+
+        int length = HEADER + 1 + board.getBagSize() + AREA_KINDS.length;
+        for (int kind : AREA_KINDS) {
+            length += board.getArea(kind).size();
+        }
+        for (Player player : players) {
+            length += 4 + player.tileCount();
+        }
+
+        short[] data = new short[length];
+        data[TURN] = (short) engine.getCurrentTurnIndex();
+        data[LANDSLIDES] = (short) board.getLandslideCount();
+        data[PLAYERS] = (short) players.size();
+
+        int at = HEADER;
+        int bagSize = board.getBag().writeRemaining(data, at + 1);
+        data[at] = (short) bagSize;
+        at += 1 + bagSize;
+
+        for (int kind : AREA_KINDS) {
+            List<Tile> tiles = board.getArea(kind).getTiles();
+            data[at++] = (short) tiles.size();
+            for (Tile tile : tiles) {
+                data[at++] = tile.getCode();
+            }
+        }
+
+        for (Player player : players) {
+            data[at++] = (short) Integer.parseInt(player.getColor());
+            data[at++] = (short) (player.getTurnState() | player.getUsedCardMask() << CARD_SHIFT);
+            data[at++] = (short) player.getStatuePoints();
+            int count = player.writeTileCodes(data, at + 1);
+            data[at] = (short) count;
+            at += 1 + count;
+        }
+
+        return new GameState(data);
+    }
+
+    /**
+     * loads this position into an engine, replacing whatever game it held
+     *
+     * @param engine engine to overwrite
+     *
+     * {@code @post} capture(engine) equals this state
+     */
+    public void restore(GameEngine engine) {
+        Board board = engine.getBoard();
+        int playerCount = data[PLAYERS];
+
+        int at = HEADER;
+        int bagSize = data[at];
+        board.getBag().restore(data, at + 1, bagSize);
+        at += 1 + bagSize;
+
+        for (int kind : AREA_KINDS) {
+            AreaType area = board.getArea(kind);
+            area.clear();
+            int size = data[at++];
+            for (int i = 0; i < size; i++) {
+                area.addTile(TileCode.toTile((byte) data[at++]));
+            }
+        }
+
+        String[] colors = new String[playerCount];
+        int playerAt = at;
+        for (int p = 0; p < playerCount; p++) {
+            colors[p] = String.valueOf(data[playerAt]);
+            playerAt += 4 + data[playerAt + 3];
+        }
+        engine.restoreSeats(colors, data[TURN]);
+        board.restoreTurn(data[LANDSLIDES], data[TURN]);
+
+        for (Player player : engine.getPlayers()) {
+            int flags = data[at + 1];
+            int count = data[at + 3];
+            player.restore(data, at + 4, count, flags >> CARD_SHIFT, data[at + 2], flags & TURN_STATE);
+            at += 4 + count;
+        }
+    }
+
+    /**
+     * builds a new engine positioned at this state
+     *
+     * @param seed seed of the new engine's random stream
+     * @return engine holding this position
+     */
+    public GameEngine toEngine(long seed) {
+        GameEngine engine = new GameEngine(seed);
+        restore(engine);
+        return engine;
+    }
+
+    /**
+     * returns an equal state backed by its own array
+     *
+     * @return copy of this state
+     */
+    public GameState copy() {
+        return new GameState(data.clone());
+    }
+
+    /**
+     * returns the packed layout, for storage or transfer
+     *
+     * @return copy of the backing array
+     */
+    public short[] toArray() {
+        return data.clone();
+    }
+
+    /**
+     * rebuilds a state from a packed layout produced by toArray
+     *
+     * @param packed packed layout
+     * @return state backed by a copy of packed
+     */
+    public static GameState fromArray(short[] packed) {
+        return new GameState(packed.clone());
+    }
+
+    /**
+     * like fromArray without the copy, for readers that just decoded the array and drop it
+     *
+     * {@code @pre} packed is never used again by the caller
+     */
+    static GameState wrap(short[] packed) {
+        return new GameState(packed);
+    }
+
+    public int getCurrentTurnIndex() {
+        return data[TURN];
+    }
+
+    public int getLandslideCount() {
+        return data[LANDSLIDES];
+    }
+
+    public int getPlayerCount() {
+        return data[PLAYERS];
+    }
+
+    public int getBagSize() {
+        return data[HEADER];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof GameState state && Arrays.equals(data, state.data);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(data);
+    }
+}
@@ -0,0 +1,102 @@
+package Test;
+
+import Controller.GameStateDTO;
+import Model.*;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Random;
+
+public class GameStateDTOTest {
+    private GameEngine engine;
+    private ChangeBus changes;
+
+    @Before
+    public void setUp() {
+        engine = new GameEngine(21);
+        engine.initializeGame();
+        changes = engine.getBoard().getChanges();
+        changes.flush();
+    }
+
+    @Test
+    public void testSnapshotCarriesAndKeepsStatuePoints() {
+        Player first = engine.getPlayers().get(0);
+        first.addTileCode(TileCode.SPHINX);
+        engine.calculateStatueScores();
+        int statues = first.getStatuePoints();
+        assertTrue(statues > 0);
+
+        GameStateDTO snapshot = GameStateDTO.of(engine);
+        GameStateDTO.of(engine);
+
+        assertEquals(first.tileScore() + statues, snapshot.getPlayers().get(0).getScore());
+        assertEquals(statues, first.getStatuePoints());
+    }
+
+    @Test
+    public void testNextMatchesAFreshSnapshotAfterEveryMove() {
+        Random random = new Random(3);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        GameStateDTO snapshot = GameStateDTO.of(engine);
+
+        for (int step = 0; step < 400 && !engine.getBoard().isGameOver(); step++) {
+            int n = MoveGenerator.generate(engine, moves);
+            if (n == 0) break;
+            engine.apply(moves[random.nextInt(n)]);
+
+            GameStateDTO previous = snapshot;
+            int dirty = changes.flush();
+            snapshot = previous.next(engine, dirty);
+
+            assertEquals("step " + step, GameStateDTO.of(engine), snapshot);
+            for (Area area : Area.values()) {
+                if ((dirty & ChangeBus.area(area.kind())) == 0) {
+                    assertSame(previous.getArea(area), snapshot.getArea(area));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSnapshotDoesNotFollowTheEngine() {
+        engine.apply(MoveCode.draw());
+        changes.flush();
+        GameStateDTO before = GameStateDTO.of(engine);
+        GameStateDTO copy = GameStateDTO.of(engine);
+
+        AreaType mosaic = engine.getBoard().getArea(Area.MOSAIC);
+        for (byte code = TileCode.MOSAIC_GREEN; code <= TileCode.MOSAIC_YELLOW; code++) {
+            engine.getBoard().placeTileCode(code);
+        }
+        engine.apply(MoveCode.take(TileCode.MOSAIC, 0));
+
+        assertEquals(copy, before);
+        assertNotEquals(mosaic.size(), before.getArea(Area.MOSAIC).size());
+        assertEquals(0, before.getCurrentPlayer().getTileCount());
+    }
+
+    @Test
+    public void testUnchangedPlayersAreShared() {
+        GameStateDTO first = GameStateDTO.of(engine);
+        engine.apply(MoveCode.draw());
+        engine.getBoard().placeTileCode(TileCode.SPHINX);
+        engine.apply(MoveCode.take(TileCode.STATUE, 0));
+
+        GameStateDTO second = first.next(engine, changes.flush());
+
+        assertNotSame(first.getPlayers().get(0), second.getPlayers().get(0));
+        for (int seat = 1; seat < second.getPlayers().size(); seat++) {
+            assertSame(first.getPlayers().get(seat), second.getPlayers().get(seat));
+        }
+        assertEquals(1, second.getPlayers().get(0).getTileCount());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testViewsAreReadOnly() {
+        List<Tile> tiles = GameStateDTO.of(engine).getArea(Area.AMPHORA).getTiles();
+        tiles.add(TileCode.toTile(TileCode.AMPHORA_RED));
+    }
+}
@@ -0,0 +1,62 @@
+package Test;
+
+import Model.*;
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+
+public class GameStateTest {
+    private GameEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new GameEngine(11L);
+        engine.initializeGame();
+        playTurns(engine, 9);
+    }
+
+    @Test
+    public void testRestoreGivesSamePosition() {
+        GameState state = GameState.capture(engine);
+        GameEngine restored = state.toEngine(0L);
+
+        assertEquals(state, GameState.capture(restored));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(engine.getPlayers().get(i).calculateScore(),
+                    restored.getPlayers().get(i).calculateScore());
+        }
+        assertEquals(engine.getCurrentPlayer().getColor(), restored.getCurrentPlayer().getColor());
+    }
+
+    @Test
+    public void testRestoredGameContinuesIdentically() {
+        GameEngine restored = GameState.capture(engine).toEngine(0L);
+
+        playTurns(engine, 12);
+        playTurns(restored, 12);
+
+        assertEquals(GameState.capture(engine), GameState.capture(restored));
+    }
+
+    @Test
+    public void testSnapshotIsIndependentOfLiveGame() {
+        GameState state = GameState.capture(engine);
+        GameState copy = state.copy();
+
+        playTurns(engine, 3);
+
+        assertEquals(state, copy);
+        assertNotEquals(state, GameState.capture(engine));
+        assertEquals(state, GameState.fromArray(state.toArray()));
+    }
+
+    private void playTurns(GameEngine game, int turns) {
+        String[] areas = {"mosaic", "statue", "skeleton", "amphora"};
+        for (int turn = 0; turn < turns && !game.getBoard().isGameOver(); turn++) {
+            game.executePlayerTurn();
+            game.getCurrentPlayer().addTiles(game.getBoard().takeFromArea(areas[turn % 4], 2));
+            game.getCurrentPlayer().markCardAsUsed(turn % 5 == 0 ? "Professor" : "Assistant");
+            game.nextTurn();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package AI;
+
+import Model.Board;
+import Model.GameEngine;
+import Model.Player;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * always takes from the fullest area so that both picks of the turn are used
+ * ties are broken randomly
+ */
+public class GreedyBot implements BotPolicy {
+    private static final String[] AREAS = {"mosaic", "statue", "skeleton", "amphora"};
+
+    @Override
+    public String chooseArea(GameEngine engine, Player player, RandomGenerator random) {
+        Board board = engine.getBoard();
+        String best = null;
+        int bestSize = 0;
+        int ties = 0;
+
+        for (String area : AREAS) {
+            int size = Math.min(2, board.getAreaTiles(area).size());
+            if (size > bestSize) {
+                best = area;
+                bestSize = size;
+                ties = 1;
+            } else if (size == bestSize && size > 0 && random.nextInt(++ties) == 0) {
+                best = area;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public String getName() {
+        return "greedy";
+    }
+}
@@ -0,0 +1,166 @@
+package Metrics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * reads a flight recording of a game and prints where the time of every turn went
+ *
+ * draws and scoring carry their game and turn, player actions and view refreshes are given to the turn
+ * that was running when they started, which is exact for a single game and approximate for a server with many
+ *
+ * usage: JfrReport recording.jfr
+ * record with e.g. java -XX:StartFlightRecording=filename=game.jfr ...
+ */
+public class JfrReport {
+    static final String PREFIX = "amphipolis.";
+
+    /**
+     * time spent in one turn, by kind of event
+     */
+    static final class Turn {
+        final int game;
+        final int turn;
+        String player;
+        Instant start;
+        Duration length = Duration.ZERO;
+        Duration draw = Duration.ZERO;
+        int moves;
+        int refused;
+        Duration moveTime = Duration.ZERO;
+        Duration validation = Duration.ZERO;
+        Duration scoring = Duration.ZERO;
+        int views;
+        Duration viewTime = Duration.ZERO;
+
+        Turn(int game, int turn) {
+            this.game = game;
+            this.turn = turn;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("usage: JfrReport recording.jfr");
+            System.exit(2);
+        }
+        report(Path.of(args[0]), System.out);
+    }
+
+    /**
+     * @param recording .jfr file
+     * @param out where the report goes
+     */
+    public static void report(Path recording, PrintStream out) throws IOException {
+        print(analyze(RecordingFile.readAllEvents(recording)), out);
+    }
+
+    /**
+     * @param events events of a recording, in any order
+     * @return the turns found, ordered by game and turn
+     */
+    static List<Turn> analyze(List<RecordedEvent> events) {
+        Map<Long, Turn> turns = new TreeMap<>();
+        List<RecordedEvent> unowned = new ArrayList<>();
+
+        for (RecordedEvent event : events) {
+            String name = event.getEventType().getName();
+            if (!name.startsWith(PREFIX)) continue;
+            switch (name.substring(PREFIX.length())) {
+                case "TurnStarted" -> {
+                    Turn turn = turn(turns, event);
+                    turn.player = event.getString("player");
+                    turn.start = event.getStartTime();
+                }
+                case "TurnEnded" -> {
+                    Turn turn = turn(turns, event);
+                    turn.player = event.getString("player");
+                    turn.start = event.getStartTime();
+                    turn.length = event.getDuration();
+                }
+                case "TilesDrawn" -> {
+                    Turn turn = turn(turns, event);
+                    turn.draw = turn.draw.plus(event.getDuration());
+                }
+                case "ScoreComputed" -> {
+                    Turn turn = turn(turns, event);
+                    turn.scoring = turn.scoring.plus(event.getDuration());
+                }
+                default -> unowned.add(event);
+            }
+        }
+
+        List<Turn> byStart = new ArrayList<>();
+        for (Turn turn : turns.values()) {
+            if (turn.start != null) byStart.add(turn);
+        }
+        byStart.sort((a, b) -> a.start.compareTo(b.start));
+        Instant[] starts = new Instant[byStart.size()];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = byStart.get(i).start;
+        }
+
+        for (RecordedEvent event : unowned) {
+            int at = Arrays.binarySearch(starts, event.getStartTime());
+            int index = at >= 0 ? at : -at - 2;
+            if (index < 0) continue;
+            Turn turn = byStart.get(index);
+            if (event.getEventType().getName().equals(PREFIX + "MoveExecuted")) {
+                turn.moves++;
+                if (!event.getBoolean("legal")) turn.refused++;
+                turn.moveTime = turn.moveTime.plus(event.getDuration());
+                turn.validation = turn.validation.plus(Duration.ofNanos(event.getLong("validationNanos")));
+            } else if (event.getEventType().getName().equals(PREFIX + "ViewRefresh")) {
+                turn.views++;
+                turn.viewTime = turn.viewTime.plus(event.getDuration());
+            }
+        }
+        return new ArrayList<>(turns.values());
+    }
+
+    private static Turn turn(Map<Long, Turn> turns, RecordedEvent event) {
+        int game = event.getInt("game");
+        int turn = event.getInt("turn");
+        return turns.computeIfAbsent((long) game << 32 | turn, k -> new Turn(game, turn));
+    }
+
+    /**
+     * prints one line per turn, times in microseconds, then the spread of the turn lengths
+     */
+    static void print(List<Turn> turns, PrintStream out) {
+        out.printf("%5s %5s %6s %10s %9s %6s %9s %9s %9s %6s %9s%n",
+                "game", "turn", "player", "turn", "draw", "moves", "moves", "validate", "score", "views", "views");
+        List<Long> lengths = new ArrayList<>();
+        for (Turn turn : turns) {
+            out.printf("%5d %5d %6s %10.1f %9.1f %3d/%-2d %9.1f %9.1f %9.1f %6d %9.1f%n",
+                    turn.game, turn.turn, turn.player, micros(turn.length), micros(turn.draw),
+                    turn.moves - turn.refused, turn.refused, micros(turn.moveTime), micros(turn.validation),
+                    micros(turn.scoring), turn.views, micros(turn.viewTime));
+            if (!turn.length.isZero()) lengths.add(turn.length.toNanos());
+        }
+        if (lengths.isEmpty()) {
+            out.println("no finished turns");
+            return;
+        }
+        lengths.sort(null);
+        out.printf("%d finished turns, length p50 %.1f us, p95 %.1f us, max %.1f us%n", lengths.size(),
+                lengths.get(lengths.size() / 2) / 1e3,
+                lengths.get(Math.min(lengths.size() - 1, lengths.size() * 95 / 100)) / 1e3,
+                lengths.get(lengths.size() - 1) / 1e3);
+    }
+
+    private static double micros(Duration duration) {
+        return duration.toNanos() / 1e3;
+    }
+}
@@ -0,0 +1,55 @@
+package Test;
+
+import Metrics.JfrReport;
+import Model.GameEngine;
+import Model.MoveCode;
+import jdk.jfr.Recording;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class JfrReportTest {
+
+    @Test
+    public void testProfiledTurnsAreReported() throws Exception {
+        Path file = Files.createTempFile("game", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("amphipolis.TurnStarted");
+            recording.enable("amphipolis.TurnEnded");
+            recording.enable("amphipolis.TilesDrawn");
+            recording.enable("amphipolis.ScoreComputed");
+            recording.start();
+
+            GameEngine engine = new GameEngine(5);
+            engine.initializeGame();
+            engine.setProfiled(true);
+            for (int i = 0; i < 3; i++) {
+                engine.executePlayerTurn();
+                engine.apply(MoveCode.endTurn());
+                engine.calculateStatueScores();
+            }
+
+            GameEngine silent = new GameEngine(5);
+            silent.initializeGame();
+            silent.executePlayerTurn();
+            silent.nextTurn();
+
+            recording.stop();
+            recording.dump(file);
+
+            ByteArrayOutputStream text = new ByteArrayOutputStream();
+            JfrReport.report(file, new PrintStream(text, true));
+            String[] lines = text.toString().split("\\R");
+
+            assertEquals(6, lines.length);
+            assertTrue(lines[1].trim().matches("\\d+\\s+1\\s+1\\s.*"));
+            assertTrue(lines[5].startsWith("3 finished turns"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
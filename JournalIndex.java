@@ -0,0 +1,168 @@
+package Model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * random access to the moves of a MoveJournal: seek(n) rebuilds the game after its first n moves
+ * from the nearest keyframe before n, so it costs one keyframe load and at most the keyframe interval of moves
+ *
+ * building the index only walks the entries and decodes the keyframes, nothing is replayed
+ * a keyframe is skipped for a seek whose moves undo past it, undoing needs the moves before it,
+ * so journals with undo entries can cost more than the interval
+ *
+ * {@code @invariant} every seek returns a new engine, the index itself is never modified after build
+ */
+public final class JournalIndex {
+    private final ByteBuffer journal;
+    private final long seed;
+    /** byte position of every move entry */
+    private final int[] moves;
+    /** undo stack depth after every move */
+    private final int[] depths;
+    /** moves played before every keyframe */
+    private final int[] keyframeMoves;
+    /** position stored in every keyframe */
+    private final GameState[] keyframes;
+
+    private JournalIndex(ByteBuffer journal, int[] moves, int[] depths, int[] keyframeMoves, GameState[] keyframes) {
+        this.journal = journal;
+        this.seed = journal.getLong(8);
+        this.moves = moves;
+        this.depths = depths;
+        this.keyframeMoves = keyframeMoves;
+        this.keyframes = keyframes;
+    }
+
+    /**
+     * @param journal bytes of a journal from its header on, the index keeps reading them
+     * @return index over the whole entries of the journal
+     */
+    public static JournalIndex build(ByteBuffer journal) {
+        ByteBuffer in = JournalReplayer.open(journal);
+        int limit = in.limit();
+        int[] moves = new int[256];
+        int[] depths = new int[256];
+        int[] keyframeMoves = new int[16];
+        GameState[] keyframes = new GameState[16];
+        int count = 0;
+        int keyframeCount = 0;
+        int depth = 0;
+
+        int position = MoveJournal.HEADER;
+        while (position < limit) {
+            int length = MoveJournal.entryLength(in, position);
+            if (length == 0 || position + length > limit) {
+                break;
+            }
+            int tag = in.get(position) & 0xF;
+            if (tag == MoveJournal.KEYFRAME) {
+                if (keyframeCount == keyframes.length) {
+                    keyframeMoves = Arrays.copyOf(keyframeMoves, keyframeCount * 2);
+                    keyframes = Arrays.copyOf(keyframes, keyframeCount * 2);
+                }
+                keyframeMoves[keyframeCount] = count;
+                keyframes[keyframeCount++] = MoveJournal.keyframeAt(in, position);
+            } else {
+                if (count == moves.length) {
+                    moves = Arrays.copyOf(moves, count * 2);
+                    depths = Arrays.copyOf(depths, count * 2);
+                }
+                if (tag == MoveJournal.UNDO) {
+                    depth--;
+                } else if (tag != MoveJournal.STATUES) {
+                    depth++;
+                }
+                moves[count] = position;
+                depths[count++] = depth;
+            }
+            position += length;
+        }
+        return new JournalIndex(in, Arrays.copyOf(moves, count), Arrays.copyOf(depths, count),
+                Arrays.copyOf(keyframeMoves, keyframeCount), Arrays.copyOf(keyframes, keyframeCount));
+    }
+
+    /**
+     * @return number of moves in the journal, draws, ends of turn, scorings and undos included
+     */
+    public int size() {
+        return moves.length;
+    }
+
+    public int getKeyframeCount() {
+        return keyframes.length;
+    }
+
+    /**
+     * @param move number of moves to play, 0 to size()
+     * @return the game after those moves
+     */
+    public GameEngine seek(int move) {
+        if (move < 0 || move > moves.length) {
+            throw new IndexOutOfBoundsException("move " + move + " of " + moves.length);
+        }
+        int keyframe = keyframeFor(move);
+        GameEngine engine;
+        int from;
+        if (keyframe < 0) {
+            engine = JournalReplayer.newGame(journal);
+            from = 0;
+        } else {
+            engine = keyframes[keyframe].toEngine(seed);
+            from = keyframeMoves[keyframe];
+        }
+        JournalReplayer replayer = new JournalReplayer(engine);
+        for (int i = from; i < move; i++) {
+            replayer.apply(journal, moves[i]);
+        }
+        return engine;
+    }
+
+    /**
+     * @param move number of moves a seek plays
+     * @return how many of them come before the keyframe the seek starts from, 0 if it starts from the deal
+     */
+    public int keyframeBefore(int move) {
+        int keyframe = keyframeFor(move);
+        return keyframe < 0 ? 0 : keyframeMoves[keyframe];
+    }
+
+    /**
+     * @return the last keyframe at or before move whose following moves never undo past it, -1 for none
+     */
+    private int keyframeFor(int move) {
+        int keyframe = upperBound(move) - 1;
+        while (keyframe >= 0 && undoesPast(keyframe, move)) {
+            keyframe--;
+        }
+        return keyframe;
+    }
+
+    private boolean undoesPast(int keyframe, int move) {
+        int from = keyframeMoves[keyframe];
+        int base = from == 0 ? 0 : depths[from - 1];
+        for (int i = from; i < move; i++) {
+            if (depths[i] < base) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return number of keyframes taken after at most move moves
+     */
+    private int upperBound(int move) {
+        int low = 0;
+        int high = keyframeMoves.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keyframeMoves[middle] <= move) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,195 @@
+package Model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * rebuilds the game of a MoveJournal by replaying every entry through a GameEngine, no ui involved
+ *
+ * the seed deals the same bag again, so every recorded draw is checked against the tiles the replay draws
+ * and every keyframe against the replayed position,
+ * a journal that does not belong to its seed is reported at the first entry where the two part
+ */
+public final class JournalReplayer {
+    private GameEngine engine;
+    private long[] records = new long[64];
+    private int depth;
+    private int entries;
+
+    public JournalReplayer() {
+    }
+
+    /**
+     * continues a game from a position loaded out of a keyframe, moves before it cannot be undone
+     */
+    JournalReplayer(GameEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * replays journals and prints where each game stood, e.g. java Model.JournalReplayer table-42.journal
+     */
+    public static void main(String[] args) throws IOException {
+        for (String arg : args) {
+            JournalReplayer replayer = new JournalReplayer();
+            replayer.run(map(Path.of(arg)));
+            GameEngine engine = replayer.getEngine();
+            StringBuilder scores = new StringBuilder();
+            for (Player player : engine.getPlayers()) {
+                scores.append(' ').append(player.getColor()).append('=').append(player.calculateScore());
+            }
+            System.out.println(arg + ": seed " + engine.getSeed() + ", " + replayer.getEntries() + " entries, "
+                    + (engine.getBoard().isGameOver() ? "finished" : "player " + engine.getCurrentPlayer().getColor() + " to move")
+                    + ", scores" + scores);
+        }
+    }
+
+    /**
+     * @param file journal written by MoveJournal
+     * @return the game as it stood after the last whole entry
+     */
+    public static GameEngine replay(Path file) throws IOException {
+        return replay(map(file));
+    }
+
+    /**
+     * @param journal bytes of a journal from its header on
+     * @return the game as it stood after the last whole entry
+     */
+    public static GameEngine replay(ByteBuffer journal) {
+        JournalReplayer replayer = new JournalReplayer();
+        replayer.run(journal);
+        return replayer.engine;
+    }
+
+    /**
+     * @param file journal written by MoveJournal
+     * @return the whole file mapped read only
+     */
+    public static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * checks the header and returns a little endian view of the journal
+     */
+    static ByteBuffer open(ByteBuffer journal) {
+        ByteBuffer in = journal.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (in.limit() < MoveJournal.HEADER || in.getInt(0) != MoveJournal.MAGIC) {
+            throw new IllegalArgumentException("not a move journal");
+        }
+        if (in.getShort(4) != MoveJournal.VERSION) {
+            throw new IllegalArgumentException("unsupported journal version " + in.getShort(4));
+        }
+        return in;
+    }
+
+    /**
+     * @return a game of the journal's seed, fresh from initializeGame or, for a journal that starts
+     * from a keyframe, in the position of that keyframe
+     */
+    static GameEngine newGame(ByteBuffer in) {
+        if ((in.get(7) & MoveJournal.FROM_KEYFRAME) != 0) {
+            if (in.limit() <= MoveJournal.HEADER || in.get(MoveJournal.HEADER) != MoveJournal.KEYFRAME) {
+                throw new IllegalArgumentException("journal of a resumed game without its starting position");
+            }
+            return MoveJournal.keyframeAt(in, MoveJournal.HEADER).toEngine(in.getLong(8));
+        }
+        GameEngine engine = new GameEngine(in.getLong(8));
+        engine.initializeGame();
+        if (engine.getPlayers().size() != in.get(6)) {
+            throw new IllegalArgumentException("journal of a " + in.get(6) + " player game");
+        }
+        return engine;
+    }
+
+    /**
+     * replays a journal into a new game
+     *
+     * @param journal bytes of a journal from its header on, read from position 0 whatever its position
+     * @return number of entries replayed, keyframes not counted
+     */
+    public int run(ByteBuffer journal) {
+        ByteBuffer in = open(journal);
+        engine = newGame(in);
+        depth = 0;
+        entries = 0;
+
+        int limit = in.limit();
+        int position = MoveJournal.HEADER;
+        while (position < limit) {
+            int length = MoveJournal.entryLength(in, position);
+            if (length == 0 || position + length > limit) {
+                break;
+            }
+            if (in.get(position) == MoveJournal.KEYFRAME) {
+                if (!MoveJournal.keyframeAt(in, position).equals(GameState.capture(engine))) {
+                    throw new IllegalStateException("journal keyframe at byte " + position
+                            + " does not match the replayed game, turn of player " + engine.getCurrentTurnIndex());
+                }
+            } else {
+                apply(in, position);
+                entries++;
+            }
+            position += length;
+        }
+        return entries;
+    }
+
+    /**
+     * plays the move, draw, end of turn, scoring or undo entry at position
+     */
+    void apply(ByteBuffer in, int position) {
+        int head = in.get(position) & 0xFF;
+        switch (head & 0xF) {
+            case MoveJournal.MOVE -> push(engine.apply(MoveJournal.moveAt(in, position)));
+            case MoveJournal.DRAW -> draw(in, position, head >>> 4);
+            case MoveJournal.END_TURN -> push(engine.apply(MoveCode.endTurn()));
+            case MoveJournal.STATUES -> engine.calculateStatueScores();
+            case MoveJournal.UNDO -> {
+                if (depth == 0) {
+                    throw new IllegalStateException("journal entry at byte " + position + " undoes nothing");
+                }
+                engine.undo(records[--depth]);
+            }
+            default -> throw new IllegalStateException("unknown journal entry " + head + " at byte " + position);
+        }
+    }
+
+    private void draw(ByteBuffer in, int position, int count) {
+        long record = engine.apply(MoveCode.draw());
+        push(record);
+        TileBag bag = engine.getBoard().getBag();
+        int drawn = (int) (record >>> 26) & 7;
+        boolean same = drawn == count;
+        for (int i = 0; same && i < count; i++) {
+            int code = in.get(position + 1 + i / 2) >>> 4 * (i & 1) & 0xF;
+            same = bag.drawnAgo(drawn - 1 - i) == code;
+        }
+        if (!same) {
+            throw new IllegalStateException("journal entry at byte " + position
+                    + " records a draw the seed does not deal, turn of player " + engine.getCurrentTurnIndex());
+        }
+    }
+
+    private void push(long record) {
+        if (depth == records.length) {
+            records = Arrays.copyOf(records, depth * 2);
+        }
+        records[depth++] = record;
+    }
+
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+}
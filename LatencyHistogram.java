@@ -0,0 +1,110 @@
+package Metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * latency histogram with log-linear buckets in the style of HdrHistogram,
+ * every power of two is split into 16 buckets so any value is kept to within 1/16 of itself
+ * values below 32 ns are exact, values above about 68 s land in the last bucket
+ *
+ * recording is wait free, the buckets are striped by thread so the search threads of a bot
+ * do not fight over the same counter
+ *
+ * {@code @invariant} getCount() is the number of values recorded
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAX_SHIFT = 32;
+    static final int BUCKETS = (MAX_SHIFT + 2) * SUB_COUNT;
+    private static final int STRIPES = 4;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS * STRIPES);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param nanos measured time, negative values count as 0
+     *
+     * {@code @post} the value is counted in its bucket, the sum and the maximum
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        int stripe = (int) Thread.currentThread().threadId() & (STRIPES - 1);
+        buckets.getAndIncrement(stripe * BUCKETS + bucketOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param quantile between 0 and 1
+     * @return the highest value of the bucket that holds that quantile, 0 if nothing was recorded
+     */
+    public long getValueAtQuantile(double quantile) {
+        long[] counts = snapshot();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @return counts of every bucket, summed over the stripes
+     */
+    long[] snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS * STRIPES; i++) {
+            counts[i % BUCKETS] += buckets.get(i);
+        }
+        return counts;
+    }
+
+    static int bucketOf(long value) {
+        if (value < 2 * SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = Math.min(63 - Long.numberOfLeadingZeros(value) - SUB_BITS, MAX_SHIFT);
+        long mantissa = Math.min(value >>> shift, 2 * SUB_COUNT - 1);
+        return shift * SUB_COUNT + (int) mantissa;
+    }
+
+    static long lowestValueIn(int bucket) {
+        if (bucket < 2 * SUB_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_COUNT - 1;
+        return (long) (bucket % SUB_COUNT + SUB_COUNT) << shift;
+    }
+
+    static long highestValueIn(int bucket) {
+        return bucket + 1 == BUCKETS ? Long.MAX_VALUE : lowestValueIn(bucket + 1) - 1;
+    }
+}
@@ -0,0 +1,333 @@
+package AI;
+
+import Model.Board;
+import Model.GameEngine;
+import Model.GameState;
+import Model.Player;
+import Model.RandomStreams;
+import Model.TileCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * monte carlo tree search opponent
+ * every worker grows its own open loop tree from the current position until its budget runs out,
+ * sampling the unseen bag order on every iteration, then the root visit counts of all workers are summed
+ * the budget is thinking time, or a number of iterations per worker, which makes every move a function of
+ * the position and the random stream only, whatever the machine's speed
+ *
+ * the bot owns the threads of its workers, close it when it is done playing
+ *
+ * {@code @invariant} the searched engine is never modified, workers only touch their own scratch engines
+ */
+public class MctsBot implements BotPolicy, AutoCloseable {
+    private static final int[] AREA_KINDS = {TileCode.MOSAIC, TileCode.STATUE, TileCode.SKELETON, TileCode.AMPHORA};
+    private static final String[] AREA_NAMES = {"mosaic", "statue", "skeleton", "amphora"};
+    private static final int PASS = 4;
+    private static final int ACTIONS = 5;
+    private static final double EXPLORATION = 1.4;
+
+    private final long budgetNanos;
+    private final long iterationBudget;
+    private final int workers;
+    private final ForkJoinPool pool;
+
+    private final LongAdder totalRollouts = new LongAdder();
+    private final LongAdder totalSearchNanos = new LongAdder();
+    private volatile double lastRolloutsPerSecond;
+
+    public MctsBot(long budgetMillis) {
+        this(budgetMillis, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param budgetMillis thinking time per move
+     * @param workers number of threads searching in parallel
+     */
+    public MctsBot(long budgetMillis, int workers) {
+        this(budgetMillis * 1_000_000L, 0, workers);
+    }
+
+    /**
+     * a bot that thinks for a fixed number of iterations instead of a fixed time
+     *
+     * @param iterations iterations of every worker per move
+     * @param workers number of threads searching in parallel
+     */
+    public static MctsBot withIterations(long iterations, int workers) {
+        return new MctsBot(0, iterations, workers);
+    }
+
+    /**
+     * scores the statue majorities of a finished rollout and picks the seat with the most points
+     *
+     * @param game the rollout's game, its statue points are set
+     * @return seat of the winner, the earliest seat on a tie
+     */
+    public static int rolloutWinner(GameEngine game) {
+        List<Player> players = game.getPlayers();
+        game.calculateStatueScores();
+
+        int winner = 0;
+        int best = Integer.MIN_VALUE;
+        for (int p = 0; p < players.size(); p++) {
+            int points = players.get(p).calculateScore();
+            if (points > best) {
+                best = points;
+                winner = p;
+            }
+        }
+        return winner;
+    }
+
+    private MctsBot(long budgetNanos, long iterationBudget, int workers) {
+        if (budgetNanos + iterationBudget <= 0 || budgetNanos < 0 || iterationBudget < 0 || workers <= 0) {
+            throw new IllegalArgumentException("budget and workers must be positive");
+        }
+        this.budgetNanos = budgetNanos;
+        this.iterationBudget = iterationBudget;
+        this.workers = workers;
+        this.pool = new ForkJoinPool(workers);
+    }
+
+    @Override
+    public String chooseArea(GameEngine engine, Player player, RandomGenerator random) {
+        GameState root = GameState.capture(engine);
+        int me = engine.getCurrentTurnIndex();
+        RandomStreams streams = new RandomStreams(random.nextLong());
+        long start = System.nanoTime();
+        long deadline = iterationBudget > 0 ? Long.MAX_VALUE : start + budgetNanos;
+        long iterations = iterationBudget > 0 ? iterationBudget : Long.MAX_VALUE;
+
+        List<Callable<long[]>> searches = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            SplittableRandom stream = streams.stream(w);
+            searches.add(() -> new Search(root, me, stream).run(deadline, iterations));
+        }
+
+        long[] visits = new long[ACTIONS + 1];
+        try {
+            for (Future<long[]> result : pool.invokeAll(searches)) {
+                long[] workerVisits = result.get();
+                for (int i = 0; i < visits.length; i++) {
+                    visits[i] += workerVisits[i];
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("search worker failed", e.getCause());
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long rollouts = visits[ACTIONS];
+        totalRollouts.add(rollouts);
+        totalSearchNanos.add(elapsed);
+        lastRolloutsPerSecond = rollouts * 1e9 / Math.max(1, elapsed);
+
+        int best = PASS;
+        for (int action = 0; action < PASS; action++) {
+            if (visits[action] > 0 && (best == PASS || visits[action] > visits[best])) {
+                best = action;
+            }
+        }
+        return best == PASS ? null : AREA_NAMES[best];
+    }
+
+    @Override
+    public String getName() {
+        return iterationBudget > 0 ? "mcts-" + iterationBudget + "it" : "mcts-" + budgetNanos / 1_000_000L + "ms";
+    }
+
+    /**
+     * stops the worker threads, a move searched after closing fails
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * returns the rollout rate of the most recent move over all workers
+     *
+     * @return rollouts per second
+     */
+    public double getLastRolloutsPerSecond() {
+        return lastRolloutsPerSecond;
+    }
+
+    /**
+     * returns the rollout rate over every move this bot has searched
+     *
+     * @return rollouts per second
+     */
+    public double getRolloutsPerSecond() {
+        long nanos = totalSearchNanos.sum();
+        return nanos == 0 ? 0 : totalRollouts.sum() * 1e9 / nanos;
+    }
+
+    public long getTotalRollouts() {
+        return totalRollouts.sum();
+    }
+
+    private static final class Node {
+        final Node[] children = new Node[ACTIONS];
+        final int mover;
+        int visits;
+        double reward;
+
+        Node(int mover) {
+            this.mover = mover;
+        }
+    }
+
+    /**
+     * one worker's tree, scratch engine and random stream
+     */
+    private static final class Search {
+        private final GameState root;
+        private final Node rootNode;
+        private final SplittableRandom random;
+        private final GameEngine scratch;
+        private final byte[] drawn = new byte[4];
+        private final double[] rewards = new double[4];
+        private final List<Node> path = new ArrayList<>();
+
+        Search(GameState root, int me, SplittableRandom random) {
+            this.root = root;
+            this.rootNode = new Node(me);
+            this.random = random;
+            this.scratch = root.toEngine(random.nextLong());
+        }
+
+        /**
+         * @return root visits per action, with the number of iterations in the last slot
+         */
+        long[] run(long deadline, long budget) {
+            long iterations = 0;
+            do {
+                iterate();
+                iterations++;
+            } while (iterations < budget && System.nanoTime() < deadline);
+
+            long[] visits = new long[ACTIONS + 1];
+            for (int action = 0; action < ACTIONS; action++) {
+                Node child = rootNode.children[action];
+                visits[action] = child == null ? 0 : child.visits;
+            }
+            visits[ACTIONS] = iterations;
+            return visits;
+        }
+
+        private void iterate() {
+            root.restore(scratch);
+            Board board = scratch.getBoard();
+            board.shuffleRemaining(random);
+
+            path.clear();
+            Node node = rootNode;
+            boolean over = board.isGameOver();
+
+            while (!over) {
+                int legal = legalActions(board);
+                int action = select(node, legal);
+                Node child = node.children[action];
+                boolean expanded = child == null;
+                if (expanded) {
+                    child = new Node(scratch.getCurrentTurnIndex());
+                    node.children[action] = child;
+                }
+                path.add(child);
+                over = apply(action);
+                node = child;
+                if (expanded) {
+                    break;
+                }
+            }
+
+            while (!over) {
+                over = apply(randomAction(legalActions(board)));
+            }
+
+            score();
+            for (Node visited : path) {
+                visited.visits++;
+                visited.reward += rewards[visited.mover];
+            }
+            rootNode.visits++;
+        }
+
+        private int select(Node node, int legal) {
+            int best = PASS;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            double logVisits = Math.log(Math.max(1, node.visits));
+
+            for (int action = 0; action < ACTIONS; action++) {
+                if ((legal & (1 << action)) == 0) {
+                    continue;
+                }
+                Node child = node.children[action];
+                if (child == null || child.visits == 0) {
+                    return action;
+                }
+                double value = child.reward / child.visits
+                        + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = action;
+                }
+            }
+            return best;
+        }
+
+        private int legalActions(Board board) {
+            int legal = 0;
+            for (int i = 0; i < AREA_KINDS.length; i++) {
+                if (board.getArea(AREA_KINDS[i]).size() > 0) {
+                    legal |= 1 << i;
+                }
+            }
+            return legal == 0 ? 1 << PASS : legal;
+        }
+
+        private int randomAction(int legal) {
+            int pick = random.nextInt(Integer.bitCount(legal));
+            for (int action = 0; action < ACTIONS; action++) {
+                if ((legal & (1 << action)) != 0 && pick-- == 0) {
+                    return action;
+                }
+            }
+            return PASS;
+        }
+
+        /**
+         * takes the chosen area, ends the turn and draws for the next player
+         *
+         * @return true when the game is over
+         */
+        private boolean apply(int action) {
+            Board board = scratch.getBoard();
+            if (action != PASS) {
+                scratch.getCurrentPlayer().addTiles(board.takeFromArea(AREA_NAMES[action], 2));
+            }
+            scratch.nextTurn();
+            return scratch.executePlayerTurn(drawn) == 0 || board.isGameOver();
+        }
+
+        private void score() {
+            int winner = rolloutWinner(scratch);
+            for (int p = 0; p < scratch.getPlayers().size(); p++) {
+                rewards[p] = 0;
+            }
+            rewards[winner] = 1;
+        }
+    }
+}
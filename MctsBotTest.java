@@ -0,0 +1,61 @@
+package Test;
+
+import AI.*;
+import Controller.SimulationResult;
+import Controller.SimulationRunner;
+import Model.*;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.Random;
+
+public class MctsBotTest {
+    private static final int ITERATIONS = 200;
+
+    @Test
+    public void testSearchLeavesGameUntouched() {
+        GameEngine engine = new GameEngine(3L);
+        engine.initializeGame();
+        engine.executePlayerTurn();
+        GameState before = GameState.capture(engine);
+
+        try (MctsBot bot = MctsBot.withIterations(500, 2)) {
+            String area = bot.chooseArea(engine, engine.getCurrentPlayer(), new Random(1));
+
+            assertEquals(before, GameState.capture(engine));
+            assertNotNull(area);
+            assertFalse(engine.getBoard().getAreaTiles(area).isEmpty());
+            assertEquals(1000, bot.getTotalRollouts());
+            assertTrue(bot.getLastRolloutsPerSecond() > 0);
+        }
+    }
+
+    @Test
+    public void testStatueMajorityDecidesTheRollout() {
+        GameEngine engine = new GameEngine(4L);
+        engine.initializeGame();
+        Player tiles = engine.getPlayers().get(0);
+        for (byte code = TileCode.firstCode(TileCode.AMPHORA); code < TileCode.firstCode(TileCode.AMPHORA) + 5; code++) {
+            tiles.addTileCode(code);
+        }
+        Player statues = engine.getPlayers().get(1);
+        for (byte code : new byte[]{TileCode.CARYATID, TileCode.CARYATID, TileCode.SPHINX, TileCode.SPHINX}) {
+            statues.addTileCode(code);
+        }
+        assertTrue(tiles.tileScore() > statues.tileScore());
+
+        assertEquals(1, MctsBot.rolloutWinner(engine));
+        assertEquals(12, statues.getStatuePoints());
+    }
+
+    @Test
+    public void testBeatsRandomPlayers() {
+        try (MctsBot bot = MctsBot.withIterations(ITERATIONS, 1)) {
+            BotPolicy[] seats = {new RandomBot(), bot, new RandomBot(), new RandomBot()};
+
+            SimulationResult result = new SimulationRunner(seats).run(20, 8L);
+
+            assertTrue("won " + result.getWins(1) + " of 20", result.getWins(1) > 10);
+            assertTrue(bot.getTotalRollouts() > 0);
+        }
+    }
+}
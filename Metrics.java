@@ -0,0 +1,97 @@
+package Metrics;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * registry of the counters and timers of the game, written out in the prometheus text format
+ *
+ * instrumentation is on by default, -Damphipolis.metrics=false turns it off for the whole run,
+ * the switch is a constant so disabled timers and counters cost nothing once compiled
+ *
+ * every metric name gets the amphipolis_ prefix, timers are written in seconds
+ *
+ * {@code @invariant} a name is registered at most once
+ */
+public final class Metrics {
+    public static final boolean ENABLED =
+            !"false".equalsIgnoreCase(System.getProperty("amphipolis.metrics", "true"));
+
+    static final String PREFIX = "amphipolis_";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private static final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * @param name metric name without prefix, e.g. engine_tiles_drawn
+     * @param help one line description
+     * @return the counter with that name, registered by the first caller
+     */
+    public static Counter counter(String name, String help) {
+        return counters.computeIfAbsent(name, n -> new Counter(n, help));
+    }
+
+    /**
+     * @param name metric name without prefix, e.g. engine_draw
+     * @param help one line description
+     * @return the timer with that name, registered by the first caller
+     */
+    public static Timer timer(String name, String help) {
+        return timers.computeIfAbsent(name, n -> new Timer(n, help));
+    }
+
+    /**
+     * writes every metric in the prometheus text exposition format,
+     * counters as name_total, timers as summaries name_seconds with quantiles, _sum, _count and a _max gauge
+     *
+     * @param out where the text goes
+     */
+    public static void write(Appendable out) throws IOException {
+        for (Counter counter : counters.values()) {
+            String name = PREFIX + counter.getName() + "_total";
+            header(out, name, counter.getHelp(), "counter");
+            out.append(name).append(' ').append(Long.toString(counter.get())).append('\n');
+        }
+        for (Timer timer : timers.values()) {
+            LatencyHistogram histogram = timer.getHistogram();
+            String name = PREFIX + timer.getName() + "_seconds";
+            header(out, name, timer.getHelp(), "summary");
+            for (double quantile : QUANTILES) {
+                out.append(name).append("{quantile=\"").append(Double.toString(quantile)).append("\"} ")
+                        .append(seconds(histogram.getValueAtQuantile(quantile))).append('\n');
+            }
+            out.append(name).append("_sum ").append(seconds(histogram.getSum())).append('\n');
+            out.append(name).append("_count ").append(Long.toString(histogram.getCount())).append('\n');
+            header(out, name + "_max", "longest " + timer.getHelp(), "gauge");
+            out.append(name).append("_max ").append(seconds(histogram.getMax())).append('\n');
+        }
+    }
+
+    /**
+     * @return the text write() produces
+     */
+    public static String text() {
+        StringBuilder text = new StringBuilder();
+        try {
+            write(text);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return text.toString();
+    }
+
+    private static void header(Appendable out, String name, String help, String type) throws IOException {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+}
@@ -0,0 +1,70 @@
+package Metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * writes Metrics.text() to a file every period, a scraper or a text editor always finds a whole dump,
+ * each one is written next to the file and moved over it
+ */
+public final class MetricsDump implements AutoCloseable {
+    private final Path file;
+    private final ScheduledExecutorService thread;
+
+    /**
+     * @param file file to keep up to date
+     * @param periodMillis time between two dumps
+     *
+     * {@code @post} a daemon thread dumps the metrics until close()
+     */
+    public MetricsDump(Path file, long periodMillis) {
+        this.file = file;
+        this.thread = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread t = new Thread(task, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        thread.scheduleAtFixedRate(this::dumpQuietly, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * writes the current metrics right away
+     */
+    public void dump() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            Metrics.write(out);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    private void dumpQuietly() {
+        try {
+            dump();
+        } catch (IOException e) {
+            System.err.println("metrics dump to " + file + " failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * stops the periodic dumps and writes one last time
+     */
+    @Override
+    public void close() throws IOException {
+        thread.shutdownNow();
+        dump();
+    }
+}
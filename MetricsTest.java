@@ -0,0 +1,105 @@
+package Test;
+
+import Metrics.Counter;
+import Metrics.LatencyHistogram;
+import Metrics.Metrics;
+import Metrics.MetricsDump;
+import Metrics.Timer;
+import Model.GameEngine;
+import Model.MoveCode;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MetricsTest {
+
+    @Test
+    public void testQuantilesStayWithinOneSixteenth() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v * 1000);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000_000, histogram.getMax());
+        long median = histogram.getValueAtQuantile(0.5);
+        assertTrue(median >= 50_000_000 && median <= 50_000_000 + 50_000_000 / 16);
+        long p99 = histogram.getValueAtQuantile(0.99);
+        assertTrue(p99 >= 99_000_000 && p99 <= 100_000_000);
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(7);
+        histogram.record(7);
+        histogram.record(20);
+
+        assertEquals(7, histogram.getValueAtQuantile(0.5));
+        assertEquals(20, histogram.getValueAtQuantile(1));
+        assertEquals(34, histogram.getSum());
+    }
+
+    @Test
+    public void testEngineTimersAppearInTheTextFormat() {
+        GameEngine engine = new GameEngine(3);
+        engine.initializeGame();
+        engine.setProfiled(true);
+        Timer draw = Metrics.timer("engine_draw", "");
+        Counter drawn = Metrics.counter("engine_tiles_drawn", "");
+        long draws = draw.getHistogram().getCount();
+        long tiles = drawn.get();
+
+        engine.executePlayerTurn();
+
+        if (Metrics.ENABLED) {
+            assertEquals(draws + 1, draw.getHistogram().getCount());
+            assertEquals(tiles + 4, drawn.get());
+        }
+        engine.nextTurn();
+        draws = draw.getHistogram().getCount();
+        tiles = drawn.get();
+        engine.apply(MoveCode.draw());
+
+        if (Metrics.ENABLED) {
+            assertEquals(draws + 1, draw.getHistogram().getCount());
+            assertEquals(tiles + 4, drawn.get());
+        }
+        String text = Metrics.text();
+        assertTrue(text.contains("# TYPE amphipolis_engine_draw_seconds summary"));
+        assertTrue(text.contains("amphipolis_engine_draw_seconds{quantile=\"0.99\"} "));
+        assertTrue(text.contains("amphipolis_engine_tiles_drawn_total "));
+    }
+
+    @Test
+    public void testScratchEnginesRecordNothing() {
+        GameEngine engine = new GameEngine(4);
+        engine.initializeGame();
+        Timer draw = Metrics.timer("engine_draw", "");
+        Counter drawn = Metrics.counter("engine_tiles_drawn", "");
+        long draws = draw.getHistogram().getCount();
+        long tiles = drawn.get();
+
+        engine.executePlayerTurn();
+        engine.nextTurn();
+        engine.apply(MoveCode.draw());
+
+        assertEquals(draws, draw.getHistogram().getCount());
+        assertEquals(tiles, drawn.get());
+    }
+
+    @Test
+    public void testDumpWritesTheWholeText() throws Exception {
+        Path file = Files.createTempFile("metrics", ".prom");
+        Metrics.counter("test_dump", "counted by MetricsTest").increment();
+
+        try (MetricsDump dump = new MetricsDump(file, 60_000)) {
+            dump.dump();
+            assertTrue(Files.readString(file).contains("# TYPE amphipolis_test_dump_total counter"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package Model;
+
+/**
+ * receives the regions of a game that changed since the last ChangeBus.flush
+ */
+public interface ModelListener {
+
+    /**
+     * @param dirty ChangeBus bits of everything that changed
+     *
+     * {@code @pre} dirty != 0
+     */
+    void onModelChange(int dirty);
+}
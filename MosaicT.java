@@ -3,5 +3,6 @@ package Model;
 public class AmphoraT extends Tile {
     public AmphoraT(Tile tile){
         this.colour = tile.colour;
+        this.code = TileCode.encode(TileCode.AMPHORA, colour);
     }
 }
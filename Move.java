@@ -0,0 +1,101 @@
+package Model;
+
+/**
+ * typed move of the current player
+ * every move packs into one int with MoveCode, so the same value can be validated, played,
+ * stored or sent without going through strings
+ *
+ * {@code @invariant} decode(move.encode()) equals move for every valid move
+ */
+public sealed interface Move permits Move.Draw, Move.Take, Move.SelectArea, Move.EndTurn, Move.UseCard {
+    Draw DRAW = new Draw();
+    EndTurn END_TURN = new EndTurn();
+
+    /**
+     * @return the packed MoveCode form of this move
+     */
+    int encode();
+
+    /**
+     * rebuilds a move from its packed form
+     *
+     * @param move value built with MoveCode
+     * @return the typed move
+     *
+     * {@code @pre} move has a known MoveCode type
+     */
+    static Move decode(int move) {
+        return switch (MoveCode.type(move)) {
+            case MoveCode.DRAW -> DRAW;
+            case MoveCode.TAKE -> new Take(MoveCode.area(move), MoveCode.index(move));
+            case MoveCode.SELECT -> new SelectArea(MoveCode.area(move), MoveCode.count(move));
+            case MoveCode.END_TURN -> END_TURN;
+            case MoveCode.USE_CARD -> new UseCard(MoveCode.card(move), MoveCode.area(move), MoveCode.index(move));
+            default -> throw new IllegalArgumentException("unknown move " + move);
+        };
+    }
+
+    /**
+     * draws four tiles from the bag into the areas
+     */
+    record Draw() implements Move {
+        @Override
+        public int encode() {
+            return MoveCode.draw();
+        }
+    }
+
+    /**
+     * takes one tile of an area by its position
+     *
+     * @param area area kind from TileCode
+     * @param index position of the tile inside the area
+     */
+    record Take(int area, int index) implements Move {
+        @Override
+        public int encode() {
+            return MoveCode.take(area, index);
+        }
+    }
+
+    /**
+     * takes the first count tiles of an area
+     *
+     * @param area area kind from TileCode
+     * @param count 1 or 2
+     */
+    record SelectArea(int area, int count) implements Move {
+        @Override
+        public int encode() {
+            return MoveCode.select(area, count);
+        }
+    }
+
+    /**
+     * hands the turn to the next player
+     */
+    record EndTurn() implements Move {
+        @Override
+        public int encode() {
+            return MoveCode.endTurn();
+        }
+    }
+
+    /**
+     * plays a character card
+     *
+     * @param card one of the MoveCode.CARD constants
+     * @param area area the card works on, 0 when the card needs none
+     * @param arg tile index for the Assistant, tile count for the Archaeologist and Excavator, otherwise 0
+     */
+    record UseCard(int card, int area, int arg) implements Move {
+        public UseCard(int card) {
+            this(card, 0, 0);
+        }
+
+        @Override
+        public int encode() {
+            return MoveCode.useCard(card, area, arg);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package Model;
+
+/**
+ * packs a move of the current player into one int, so search code can pass moves around without objects
+ *
+ * layout: bits 0-3 type, bits 4-7 area kind, bits 8-15 tile index or tile count, bits 16-19 card
+ *
+ * {@code @invariant} every packed move is a positive int, 0 is never a valid move
+ */
+public final class MoveCode {
+    public static final int DRAW = 1;
+    public static final int TAKE = 2;
+    public static final int END_TURN = 3;
+    public static final int USE_CARD = 4;
+    public static final int SELECT = 5;
+
+    public static final int CARD_ASSISTANT = 0;
+    public static final int CARD_ARCHAEOLOGIST = 1;
+    public static final int CARD_EXCAVATOR = 2;
+    public static final int CARD_PROFESSOR = 3;
+    public static final int CARD_PROGRAMMER = 4;
+
+    private MoveCode() {
+    }
+
+    public static int draw() {
+        return DRAW;
+    }
+
+    /**
+     * @param kind area kind from TileCode
+     * @param index position of the tile inside the area
+     */
+    public static int take(int kind, int index) {
+        return TAKE | kind << 4 | index << 8;
+    }
+
+    /**
+     * takes the first count tiles of an area, like the select_area move of the ui
+     *
+     * @param kind area kind from TileCode
+     * @param count 1 or 2
+     */
+    public static int select(int kind, int count) {
+        return SELECT | kind << 4 | count << 8;
+    }
+
+    public static int endTurn() {
+        return END_TURN;
+    }
+
+    /**
+     * @param card one of the CARD constants, in the order of the character cards
+     */
+    public static int useCard(int card) {
+        return USE_CARD | card << 16;
+    }
+
+    /**
+     * @param card one of the CARD constants
+     * @param kind area the card works on, 0 when the card needs none
+     * @param arg tile index for the Assistant, tile count for the Archaeologist and Excavator, otherwise 0
+     */
+    public static int useCard(int card, int kind, int arg) {
+        return USE_CARD | kind << 4 | arg << 8 | card << 16;
+    }
+
+    public static int type(int move) {
+        return move & 0xF;
+    }
+
+    public static int area(int move) {
+        return (move >>> 4) & 0xF;
+    }
+
+    public static int index(int move) {
+        return (move >>> 8) & 0xFF;
+    }
+
+    public static int card(int move) {
+        return (move >>> 16) & 0xF;
+    }
+
+    public static int count(int move) {
+        return (move >>> 8) & 0xFF;
+    }
+
+    /**
+     * @param kind area kind from TileCode
+     * @return name of the area as used by Board and the ui, or null
+     */
+    public static String areaName(int kind) {
+        return kind >= 0 && kind < Area.COUNT ? Area.of(kind).label() : null;
+    }
+
+    /**
+     * @param name area name as used by Board and the ui
+     * @return area kind or -1 if there is no such area
+     */
+    public static int areaKind(String name) {
+        Area area = Area.of(name);
+        return area == null ? -1 : area.kind();
+    }
+
+    /**
+     * @param card one of the CARD constants
+     * @return name of the character card, or null
+     */
+    public static String cardName(int card) {
+        return card >= 0 && card < Player.CARD_NAMES.length ? Player.CARD_NAMES[card] : null;
+    }
+
+    /**
+     * @param name character card name
+     * @return one of the CARD constants or -1 if there is no such card
+     */
+    public static int card(String name) {
+        for (int card = 0; card < Player.CARD_NAMES.length; card++) {
+            if (Player.CARD_NAMES[card].equals(name)) {
+                return card;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,35 @@
+package Metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * one player action handled by GameController, the validation time is part of its duration
+ */
+@Name("amphipolis.MoveExecuted")
+@Label("Move Executed")
+@Category({"Amphipolis", "Game"})
+@StackTrace(false)
+public final class MoveExecutedEvent extends Event {
+    @Label("Type")
+    @Description("draw, take, end turn or the card name")
+    public String type;
+
+    @Label("Player")
+    @Description("colour of the player")
+    public String player;
+
+    @Label("Legal")
+    @Description("false if the action was refused")
+    public boolean legal;
+
+    @Label("Validation Time")
+    @Description("nanoseconds spent checking legality")
+    @Timespan(Timespan.NANOSECONDS)
+    public long validationNanos;
+}
@@ -0,0 +1,154 @@
+package Model;
+
+/**
+ * writes every legal move of the current player into a caller owned buffer, without allocating
+ *
+ * turn order: a player first draws, then may take up to two tiles one by one from a single area,
+ * may play one unused character card per turn and ends the turn whenever they like after drawing
+ *
+ * tiles of the same code in one area are interchangeable, so only the first tile of every code is offered
+ *
+ * {@code @invariant} every generated move is accepted by GameEngine.apply and undone exactly by GameEngine.undo
+ */
+public final class MoveGenerator {
+    /** no position has more legal moves than this, buffers of this size never overflow */
+    public static final int MAX_MOVES = 64;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * lists the legal moves of the current player
+     *
+     * @param engine game to look at
+     * @param out buffer with at least MAX_MOVES entries
+     * @return number of moves written, 0 when the game is over
+     *
+     * {@code @post} the engine is not modified
+     */
+    public static int generate(GameEngine engine, int[] out) {
+        Board board = engine.getBoard();
+        Player player = engine.getCurrentPlayer();
+        if (player == null || board.isGameOver()) {
+            return 0;
+        }
+        if (!player.hasDrawnThisTurn()) {
+            out[0] = MoveCode.draw();
+            return 1;
+        }
+
+        int n = 0;
+        out[n++] = MoveCode.endTurn();
+
+        int chosen = player.getChosenArea();
+        if (player.getPicksThisTurn() < 2) {
+            for (int kind = TileCode.MOSAIC; kind <= TileCode.AMPHORA; kind++) {
+                if (chosen < 0 || kind == chosen) {
+                    n = takeEachCode(board.getArea(kind), kind, MoveCode.TAKE, out, n);
+                }
+            }
+        }
+
+        if (!player.hasUsedCardThisTurn()) {
+            n = cardMoves(board, player, chosen, out, n);
+        }
+        return n;
+    }
+
+    /**
+     * checks one packed move against the legal moves of the current player
+     *
+     * @param engine game to look at
+     * @param move packed move
+     * @param buffer scratch buffer with at least MAX_MOVES entries
+     * @return true if generate would list the move
+     */
+    public static boolean isLegal(GameEngine engine, int move, int[] buffer) {
+        int n = generate(engine, buffer);
+        for (int i = 0; i < n; i++) {
+            if (buffer[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * the move generator offers only the first tile of each code in an area,
+     * any other tile with the same code is the same move
+     *
+     * @return the move as generate lists it, or move itself if it points at no tile
+     */
+    public static int canonical(GameEngine engine, int move) {
+        int type = MoveCode.type(move);
+        boolean assistant = type == MoveCode.USE_CARD && MoveCode.card(move) == MoveCode.CARD_ASSISTANT;
+        if (type != MoveCode.TAKE && !assistant) {
+            return move;
+        }
+        int kind = MoveCode.area(move);
+        int index = MoveCode.index(move);
+        if (kind >= Area.COUNT) {
+            return move;
+        }
+        AreaType area = engine.getBoard().getArea(kind);
+        if (index >= area.size()) {
+            return move;
+        }
+        int first = area.indexOf(area.codeAt(index));
+        return assistant ? MoveCode.useCard(MoveCode.CARD_ASSISTANT, kind, first) : MoveCode.take(kind, first);
+    }
+
+    private static int cardMoves(Board board, Player player, int chosen, int[] out, int n) {
+        boolean otherArea = false;
+        for (int kind = TileCode.MOSAIC; kind <= TileCode.AMPHORA; kind++) {
+            int size = board.getArea(kind).size();
+            if (!player.isCardUsed(MoveCode.CARD_ASSISTANT)) {
+                n = takeEachCode(board.getArea(kind), kind, MoveCode.USE_CARD, out, n);
+            }
+            if (kind != chosen && size > 0) {
+                otherArea = true;
+                if (!player.isCardUsed(MoveCode.CARD_ARCHAEOLOGIST)) {
+                    out[n++] = MoveCode.useCard(MoveCode.CARD_ARCHAEOLOGIST, kind, 1);
+                    if (size > 1) {
+                        out[n++] = MoveCode.useCard(MoveCode.CARD_ARCHAEOLOGIST, kind, 2);
+                    }
+                }
+            }
+            if (!player.isCardUsed(MoveCode.CARD_PROGRAMMER) && player.getProgrammerArea() < 0) {
+                out[n++] = MoveCode.useCard(MoveCode.CARD_PROGRAMMER, kind, 0);
+            }
+        }
+
+        if (chosen >= 0 && !player.isCardUsed(MoveCode.CARD_EXCAVATOR)) {
+            int size = board.getArea(chosen).size();
+            if (size > 0) {
+                out[n++] = MoveCode.useCard(MoveCode.CARD_EXCAVATOR, 0, 1);
+            }
+            if (size > 1) {
+                out[n++] = MoveCode.useCard(MoveCode.CARD_EXCAVATOR, 0, 2);
+            }
+        }
+        if (otherArea && !player.isCardUsed(MoveCode.CARD_PROFESSOR)) {
+            out[n++] = MoveCode.useCard(MoveCode.CARD_PROFESSOR);
+        }
+        return n;
+    }
+
+    /**
+     * adds one move per distinct tile code of an area, a normal TAKE or an Assistant card move
+     */
+    private static int takeEachCode(AreaType area, int kind, int type, int[] out, int n) {
+        if (area.size() == 0) {
+            return n;
+        }
+        for (byte code = TileCode.firstCode(kind); code < TileCode.firstCode(kind + 1); code++) {
+            int index = area.indexOf(code);
+            if (index >= 0) {
+                out[n++] = type == MoveCode.TAKE
+                        ? MoveCode.take(kind, index)
+                        : MoveCode.useCard(MoveCode.CARD_ASSISTANT, kind, index);
+            }
+        }
+        return n;
+    }
+}
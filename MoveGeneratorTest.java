@@ -0,0 +1,155 @@
+package Test;
+
+import Model.*;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+public class MoveGeneratorTest {
+    private GameEngine engine;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    @Before
+    public void setUp() {
+        engine = new GameEngine(21);
+        engine.initializeGame();
+    }
+
+    private boolean generates(int move) {
+        return MoveGenerator.isLegal(engine, move, moves);
+    }
+
+    private int firstNonEmptyArea() {
+        int kind = TileCode.MOSAIC;
+        while (engine.getBoard().getArea(kind).size() == 0) {
+            kind++;
+        }
+        return kind;
+    }
+
+    @Test
+    public void testOnlyDrawBeforeDrawing() {
+        assertEquals(1, MoveGenerator.generate(engine, moves));
+        assertEquals(MoveCode.draw(), moves[0]);
+    }
+
+    @Test
+    public void testPicksStayInTheChosenAreaAndStopAfterTwo() {
+        engine.apply(MoveCode.draw());
+        int kind = firstNonEmptyArea();
+        assertTrue(generates(MoveCode.endTurn()));
+
+        engine.apply(MoveCode.take(kind, 0));
+        int n = MoveGenerator.generate(engine, moves);
+        for (int i = 0; i < n; i++) {
+            if (MoveCode.type(moves[i]) == MoveCode.TAKE) {
+                assertEquals(kind, MoveCode.area(moves[i]));
+            }
+        }
+
+        engine.apply(MoveCode.select(kind, 1));
+        n = MoveGenerator.generate(engine, moves);
+        for (int i = 0; i < n; i++) {
+            assertNotEquals(MoveCode.TAKE, MoveCode.type(moves[i]));
+        }
+    }
+
+    @Test
+    public void testOneCardPerTurnAndEachCardOnce() {
+        engine.apply(MoveCode.draw());
+        int kind = firstNonEmptyArea();
+        int programmer = MoveCode.useCard(MoveCode.CARD_PROGRAMMER, kind, 0);
+        assertTrue(generates(programmer));
+
+        engine.apply(programmer);
+        int n = MoveGenerator.generate(engine, moves);
+        for (int i = 0; i < n; i++) {
+            assertNotEquals(MoveCode.USE_CARD, MoveCode.type(moves[i]));
+        }
+
+        for (int p = 0; p < 4; p++) {
+            engine.apply(MoveCode.endTurn());
+            engine.apply(MoveCode.draw());
+        }
+        assertTrue(engine.getCurrentPlayer().isCardUsed(MoveCode.CARD_PROGRAMMER));
+        assertFalse(generates(programmer));
+    }
+
+    @Test
+    public void testProfessorTakesOneTileFromEveryOtherArea() {
+        engine.apply(MoveCode.draw());
+        int chosen = firstNonEmptyArea();
+        engine.apply(MoveCode.take(chosen, 0));
+
+        int[] before = new int[4];
+        for (int kind = 0; kind < 4; kind++) {
+            before[kind] = engine.getBoard().getArea(kind).size();
+        }
+        engine.apply(MoveCode.useCard(MoveCode.CARD_PROFESSOR));
+
+        for (int kind = 0; kind < 4; kind++) {
+            int expected = kind == chosen ? before[kind] : Math.max(0, before[kind] - 1);
+            assertEquals(expected, engine.getBoard().getArea(kind).size());
+        }
+        assertTrue(engine.getCurrentPlayer().isCardUsed("Professor"));
+    }
+
+    @Test
+    public void testArchaeologistSkipsAndExcavatorUsesTheChosenArea() {
+        engine.apply(MoveCode.draw());
+        int chosen = firstNonEmptyArea();
+        engine.apply(MoveCode.take(chosen, 0));
+
+        assertFalse(generates(MoveCode.useCard(MoveCode.CARD_ARCHAEOLOGIST, chosen, 1)));
+        if (engine.getBoard().getArea(chosen).size() > 0) {
+            int before = engine.getBoard().getArea(chosen).size();
+            engine.apply(MoveCode.useCard(MoveCode.CARD_EXCAVATOR, 0, 1));
+            assertEquals(before - 1, engine.getBoard().getArea(chosen).size());
+        }
+    }
+
+    @Test
+    public void testProgrammerBonusComesWithTheNextDraw() {
+        engine.apply(MoveCode.draw());
+        int kind = firstNonEmptyArea();
+        engine.apply(MoveCode.useCard(MoveCode.CARD_PROGRAMMER, kind, 0));
+        assertEquals(kind, engine.getCurrentPlayer().getProgrammerArea());
+
+        Player programmer = engine.getCurrentPlayer();
+        for (int p = 0; p < 4; p++) {
+            engine.apply(MoveCode.endTurn());
+            if (p < 3) {
+                engine.apply(MoveCode.draw());
+            }
+        }
+
+        GameState before = GameState.capture(engine);
+        int areaBefore = engine.getBoard().getArea(kind).size();
+        long record = engine.apply(MoveCode.draw());
+
+        assertEquals(-1, programmer.getProgrammerArea());
+        assertTrue(engine.getBoard().getArea(kind).size() < areaBefore + 4);
+        engine.undo(record);
+        assertEquals(before, GameState.capture(engine));
+        assertEquals(kind, programmer.getProgrammerArea());
+    }
+
+    @Test
+    public void testRandomPlayoutsOnlyMakeLegalMoves() {
+        Random random = new Random(3);
+        for (int game = 0; game < 300; game++) {
+            GameEngine playout = new GameEngine(game);
+            playout.initializeGame();
+            int n;
+            while ((n = MoveGenerator.generate(playout, moves)) > 0 && playout.getBoard().getBagSize() > 0) {
+                assertTrue(n <= MoveGenerator.MAX_MOVES);
+                playout.apply(moves[random.nextInt(n)]);
+            }
+            for (Player player : playout.getPlayers()) {
+                assertEquals(player.recalculateScore(), player.calculateScore());
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package Model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * append-only record of one game, the file is memory-mapped so an entry costs a few stores and no system call
+ *
+ * layout, little endian: a header of HEADER bytes holding MAGIC, VERSION, the player count, the flags and
+ * the seed, then the entries, the low nibble of an entry's first byte tells what it is:
+ * MOVE and the three low bytes of a MoveCode (a pick or a card), DRAW with the tile count in the high nibble
+ * and the drawn codes two to a byte, END_TURN, STATUES when statue points were handed out,
+ * UNDO when the latest move was taken back
+ * a turn of a draw, two picks and its end takes 3 + 4 + 4 + 1 = 12 bytes
+ *
+ * every keyframeInterval of those entries a KEYFRAME follows: its byte length in two bytes, then the
+ * GameState of the game at that point as varints, about 200 bytes, so a reader can start there (see JournalIndex)
+ * keyframes are not moves, they are skipped when entries are counted
+ * a game that was not fresh from its seed's deal, e.g. a loaded save, is flagged FROM_KEYFRAME and its journal
+ * opens with a keyframe of the position it was in, a replay starts there instead of at the deal
+ *
+ * the file grows by GROW bytes at a time and its unwritten tail is zero, a reader stops at the first zero byte,
+ * an entry's first byte is written last, so a journal cut short by a crash still replays up to its last whole entry
+ *
+ * {@code @invariant} only the thread that plays the game appends
+ */
+public final class MoveJournal extends MoveLog implements Closeable {
+    /** "AMPJ" */
+    public static final int MAGIC = 0x4A504D41;
+    /** 3 since the bag is shuffled by Fisher–Yates, older journals name seeds that dealt differently */
+    public static final int VERSION = 3;
+    public static final int HEADER = 16;
+    public static final int KEYFRAME_INTERVAL = 64;
+
+    static final int MOVE = 1;
+    static final int DRAW = 2;
+    static final int END_TURN = 3;
+    static final int STATUES = 4;
+    static final int UNDO = 5;
+    static final int KEYFRAME = 6;
+
+    /** header flag: the game starts at the keyframe right after the header */
+    static final int FROM_KEYFRAME = 1;
+
+    private static final int GROW = 1 << 16;
+
+    private final FileChannel channel;
+    private final GameEngine engine;
+    private final int keyframeInterval;
+    private MappedByteBuffer map;
+    private int position;
+    private int moves;
+
+    /**
+     * starts a journal of a game with a keyframe every KEYFRAME_INTERVAL moves, the file is replaced
+     *
+     * @param file where to write
+     * @param engine game to record, its seed and players go into the header, a game that is not fresh from
+     *               initializeGame is recorded from a keyframe of its current position
+     *
+     * {@code @post} the engine records into this journal
+     */
+    public MoveJournal(Path file, GameEngine engine) throws IOException {
+        this(file, engine, KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * @param keyframeInterval moves between two keyframes, a seek replays at most this many
+     */
+    public MoveJournal(Path file, GameEngine engine, int keyframeInterval) throws IOException {
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("keyframe interval must be positive");
+        }
+        this.engine = engine;
+        this.keyframeInterval = keyframeInterval;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map(GROW);
+        map.putInt(0, MAGIC);
+        map.putShort(4, (short) VERSION);
+        map.put(6, (byte) engine.getPlayers().size());
+        map.putLong(8, engine.getSeed());
+        position = HEADER;
+        GameEngine dealt = new GameEngine(engine.getSeed());
+        dealt.initializeGame();
+        if (!GameState.capture(engine).equals(GameState.capture(dealt))) {
+            map.put(7, (byte) FROM_KEYFRAME);
+            keyframe();
+        }
+        engine.setJournal(this);
+    }
+
+    private void map(long size) throws IOException {
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        map.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * makes room for an entry, a full mapping is replaced by a bigger one over the same file
+     */
+    private void reserve(int bytes) {
+        if (position + bytes <= map.capacity()) {
+            return;
+        }
+        try {
+            map(map.capacity() + GROW);
+        } catch (IOException e) {
+            throw new IllegalStateException("journal cannot grow", e);
+        }
+    }
+
+    @Override
+    void move(int move) {
+        reserve(4);
+        map.put(position + 1, (byte) move);
+        map.put(position + 2, (byte) (move >>> 8));
+        map.put(position + 3, (byte) (move >>> 16));
+        map.put(position, (byte) MOVE);
+        position += 4;
+        moved();
+    }
+
+    @Override
+    void draw(byte[] codes, int count) {
+        reserve(3);
+        int entry = drawEntry(codes, count);
+        for (int i = 1; i < drawLength(count); i++) {
+            map.put(position + i, (byte) (entry >>> 8 * i));
+        }
+        map.put(position, (byte) entry);
+        position += drawLength(count);
+        moved();
+    }
+
+    @Override
+    void endTurn() {
+        tag(END_TURN);
+    }
+
+    @Override
+    void statues() {
+        tag(STATUES);
+    }
+
+    @Override
+    void undo() {
+        tag(UNDO);
+    }
+
+    /**
+     * @return the bytes of a DRAW entry packed little endian into an int, drawLength(count) of them
+     */
+    static int drawEntry(byte[] codes, int count) {
+        int entry = DRAW | count << 4;
+        for (int i = 0; i < count; i++) {
+            entry |= codes[i] << 8 + 4 * i;
+        }
+        return entry;
+    }
+
+    static int drawLength(int count) {
+        return 1 + (count + 1) / 2;
+    }
+
+    private void tag(int tag) {
+        reserve(1);
+        map.put(position++, (byte) tag);
+        moved();
+    }
+
+    /**
+     * counts the entry just written and follows every keyframeInterval-th one with a keyframe
+     *
+     * {@code @pre} the engine has finished the action of that entry
+     */
+    private void moved() {
+        if (++moves % keyframeInterval == 0) {
+            keyframe();
+        }
+    }
+
+    /**
+     * writes the position of the game as a KEYFRAME entry
+     */
+    private void keyframe() {
+        short[] state = GameState.capture(engine).toArray();
+        reserve(3 + 3 * state.length);
+        int start = position;
+        position += 3;
+        for (short value : state) {
+            int v = value & 0xFFFF;
+            while (v >= 0x80) {
+                map.put(position++, (byte) (v | 0x80));
+                v >>>= 7;
+            }
+            map.put(position++, (byte) v);
+        }
+        map.putShort(start + 1, (short) (position - start - 3));
+        map.put(start, (byte) KEYFRAME);
+    }
+
+    /**
+     * @return length in bytes of the entry at position, 0 at the end of the journal
+     */
+    static int entryLength(ByteBuffer in, int position) {
+        int head = in.get(position) & 0xFF;
+        return switch (head & 0xF) {
+            case 0 -> 0;
+            case MOVE -> 4;
+            case DRAW -> drawLength(head >>> 4);
+            case KEYFRAME -> position + 3 <= in.limit() ? 3 + (in.getShort(position + 1) & 0xFFFF) : 3;
+            default -> 1;
+        };
+    }
+
+    /**
+     * @return the MoveCode of the MOVE entry at position
+     */
+    static int moveAt(ByteBuffer in, int position) {
+        return in.get(position + 1) & 0xFF | (in.get(position + 2) & 0xFF) << 8 | (in.get(position + 3) & 0xFF) << 16;
+    }
+
+    /**
+     * @return the position stored in the KEYFRAME entry at position
+     */
+    static GameState keyframeAt(ByteBuffer in, int position) {
+        int end = position + entryLength(in, position);
+        short[] state = new short[end - position];
+        int count = 0;
+        for (int at = position + 3; at < end; ) {
+            int v = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = in.get(at++);
+                v |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            state[count++] = (short) v;
+        }
+        return GameState.wrap(Arrays.copyOf(state, count));
+    }
+
+    /**
+     * @return bytes written so far, header included
+     */
+    public int size() {
+        return position;
+    }
+
+    /**
+     * writes the journal through to the disk, the page cache already has it after every entry
+     */
+    public void force() {
+        map.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        map.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,176 @@
+package Test;
+
+import Model.*;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class MoveJournalTest {
+
+    private static GameEngine play(Path file, long seed) throws Exception {
+        return play(file, seed, MoveJournal.KEYFRAME_INTERVAL, true);
+    }
+
+    /**
+     * plays a seeded game with random legal moves, some taken back if undo is set, a statue scoring
+     * after every turn and every other draw through the simulation path
+     */
+    private static GameEngine play(Path file, long seed, int keyframeInterval, boolean undo) throws Exception {
+        GameEngine engine = new GameEngine(seed);
+        engine.initializeGame();
+        Random random = new Random(seed);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        byte[] drawn = new byte[4];
+        try (MoveJournal journal = new MoveJournal(file, engine, keyframeInterval)) {
+            int n;
+            while ((n = MoveGenerator.generate(engine, moves)) > 0 && engine.getBoard().getBagSize() > 0) {
+                int move = moves[random.nextInt(n)];
+                if (MoveCode.type(move) == MoveCode.DRAW && random.nextBoolean()) {
+                    engine.getCurrentPlayer().setDrawnThisTurn(true);
+                    engine.executePlayerTurn(drawn);
+                    continue;
+                }
+                long record = engine.apply(move);
+                if (undo && random.nextInt(8) == 0) {
+                    engine.undo(record);
+                } else if (MoveCode.type(move) == MoveCode.END_TURN) {
+                    engine.calculateStatueScores();
+                }
+            }
+            assertTrue(journal.size() > MoveJournal.HEADER);
+        }
+        return engine;
+    }
+
+    private static void playRandom(GameEngine engine, Random random, int count) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int n;
+        for (int i = 0; i < count && (n = MoveGenerator.generate(engine, moves)) > 0; i++) {
+            engine.apply(moves[random.nextInt(n)]);
+        }
+    }
+
+    @Test
+    public void testJournalOfAResumedGameStartsFromItsPosition() throws Exception {
+        Path file = Files.createTempFile("game", ".journal");
+        try {
+            GameEngine saved = new GameEngine(12);
+            saved.initializeGame();
+            Random random = new Random(12);
+            playRandom(saved, random, 40);
+            GameEngine resumed = GameSave.read(GameSave.write(saved));
+            GameState start = GameState.capture(resumed);
+
+            try (MoveJournal journal = new MoveJournal(file, resumed, 16)) {
+                playRandom(resumed, random, 40);
+            }
+
+            assertEquals(GameState.capture(resumed), GameState.capture(JournalReplayer.replay(file)));
+            assertEquals(start, GameState.capture(JournalIndex.build(JournalReplayer.map(file)).seek(0)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testReplayRebuildsTheGame() throws Exception {
+        Path file = Files.createTempFile("game", ".journal");
+        try {
+            GameEngine played = play(file, 5);
+            GameEngine replayed = JournalReplayer.replay(file);
+
+            assertEquals(GameState.capture(played), GameState.capture(replayed));
+            for (int seat = 0; seat < played.getPlayers().size(); seat++) {
+                assertEquals(played.getPlayers().get(seat).calculateScore(),
+                        replayed.getPlayers().get(seat).calculateScore());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testJournalCutShortReplaysItsWholeEntries() throws Exception {
+        Path file = Files.createTempFile("game", ".journal");
+        try {
+            play(file, 6);
+            byte[] bytes = Files.readAllBytes(file);
+            JournalReplayer whole = new JournalReplayer();
+            int entries = whole.run(ByteBuffer.wrap(bytes));
+
+            JournalReplayer cut = new JournalReplayer();
+            int kept = cut.run(ByteBuffer.wrap(bytes, 0, MoveJournal.HEADER + 301));
+            assertTrue(kept > 0);
+            assertTrue(kept < entries);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testJournalOfAnotherSeedIsRejected() throws Exception {
+        Path file = Files.createTempFile("game", ".journal");
+        try {
+            play(file, 7);
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+            bytes.putLong(8, 8);
+            try {
+                JournalReplayer.replay(bytes);
+                fail("the draws of seed 7 replayed on seed 8");
+            } catch (IllegalStateException expected) {
+                assertTrue(expected.getMessage().contains("draw"));
+            }
+
+            bytes.putInt(0, 0);
+            try {
+                JournalReplayer.replay(bytes);
+                fail("a file without the journal header replayed");
+            } catch (IllegalArgumentException expected) {
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testSeekMatchesAReplayFromTheDeal() throws Exception {
+        Path keyed = Files.createTempFile("keyed", ".journal");
+        Path plain = Files.createTempFile("plain", ".journal");
+        try {
+            play(keyed, 10, 16, true);
+            play(plain, 10, Integer.MAX_VALUE, true);
+            JournalIndex index = JournalIndex.build(JournalReplayer.map(keyed));
+            JournalIndex fromDeal = JournalIndex.build(JournalReplayer.map(plain));
+
+            assertEquals(fromDeal.size(), index.size());
+            assertEquals(0, fromDeal.getKeyframeCount());
+            assertEquals(index.size() / 16, index.getKeyframeCount());
+            for (int move = 0; move <= index.size(); move++) {
+                assertEquals(GameState.capture(fromDeal.seek(move)), GameState.capture(index.seek(move)));
+            }
+            assertEquals(GameState.capture(JournalReplayer.replay(keyed)), GameState.capture(index.seek(index.size())));
+        } finally {
+            Files.delete(keyed);
+            Files.delete(plain);
+        }
+    }
+
+    @Test
+    public void testSeekStartsFromTheLastKeyframe() throws Exception {
+        Path file = Files.createTempFile("game", ".journal");
+        try {
+            play(file, 11, 16, false);
+            JournalIndex index = JournalIndex.build(JournalReplayer.map(file));
+            assertTrue(index.size() > 64);
+            for (int move = 0; move <= index.size(); move++) {
+                assertEquals(move / 16 * 16, index.keyframeBefore(move));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
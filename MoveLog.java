@@ -0,0 +1,33 @@
+package Model;
+
+/**
+ * receives everything that changes a game, in the order it happens, see GameEngine.setJournal
+ * the per-game MoveJournal and the shared WriteAheadLog both store the entries the same way,
+ * so one JournalReplayer rebuilds a game from either
+ *
+ * only the engine calls these, right after it finished the change
+ */
+public abstract class MoveLog {
+    /**
+     * a pick or a card, as a MoveCode
+     */
+    abstract void move(int move);
+
+    /**
+     * @param codes the drawn tile codes in draw order
+     * @param count how many, 0 to 4
+     */
+    abstract void draw(byte[] codes, int count);
+
+    abstract void endTurn();
+
+    /**
+     * statue points were handed out
+     */
+    abstract void statues();
+
+    /**
+     * the latest move was taken back
+     */
+    abstract void undo();
+}
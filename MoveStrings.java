@@ -0,0 +1,114 @@
+package Controller;
+
+import Model.Move;
+import Model.MoveCode;
+
+/**
+ * adapter between typed moves and the text form used by the ui:
+ * "draw_tiles", "select_area:mosaic:2", "take_tile:statue:3", "use_card:Professor",
+ * "use_card:Assistant:amphora:1", "end_turn"
+ *
+ * only the ui edge goes through here, the controller validates and plays typed moves
+ */
+public final class MoveStrings {
+    private static final String DRAW = "draw_tiles";
+    private static final String SELECT = "select_area:";
+    private static final String TAKE = "take_tile:";
+    private static final String USE_CARD = "use_card:";
+    private static final String END_TURN = "end_turn";
+
+    private MoveStrings() {
+    }
+
+    /**
+     * reads the text form of a move
+     *
+     * @param text move text
+     * @return the typed move or null if the text is not a well formed move
+     */
+    public static Move parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        if (text.equals(DRAW)) {
+            return Move.DRAW;
+        }
+        if (text.equals(END_TURN)) {
+            return Move.END_TURN;
+        }
+        if (text.startsWith(USE_CARD)) {
+            return parseCard(text);
+        }
+
+        boolean select = text.startsWith(SELECT);
+        if (!select && !text.startsWith(TAKE)) {
+            return null;
+        }
+        int start = select ? SELECT.length() : TAKE.length();
+        int colon = text.indexOf(':', start);
+        if (colon < 0) {
+            return null;
+        }
+        int area = MoveCode.areaKind(text.substring(start, colon));
+        int number = parseNumber(text, colon + 1);
+        if (area < 0 || number < 0) {
+            return null;
+        }
+        return select ? new Move.SelectArea(area, number) : new Move.Take(area, number);
+    }
+
+    /**
+     * writes the text form of a move
+     *
+     * @param move typed move
+     * @return text that parse reads back to an equal move
+     */
+    public static String format(Move move) {
+        return switch (move) {
+            case Move.Draw draw -> DRAW;
+            case Move.EndTurn endTurn -> END_TURN;
+            case Move.UseCard use -> use.area() == 0 && use.arg() == 0
+                    ? USE_CARD + MoveCode.cardName(use.card())
+                    : USE_CARD + MoveCode.cardName(use.card()) + ":" + MoveCode.areaName(use.area()) + ":" + use.arg();
+            case Move.SelectArea select -> SELECT + MoveCode.areaName(select.area()) + ":" + select.count();
+            case Move.Take take -> TAKE + MoveCode.areaName(take.area()) + ":" + take.index();
+        };
+    }
+
+    private static Move parseCard(String text) {
+        int start = USE_CARD.length();
+        int colon = text.indexOf(':', start);
+        int card = MoveCode.card(colon < 0 ? text.substring(start) : text.substring(start, colon));
+        if (card < 0) {
+            return null;
+        }
+        if (colon < 0) {
+            return new Move.UseCard(card);
+        }
+        int second = text.indexOf(':', colon + 1);
+        if (second < 0) {
+            return null;
+        }
+        int area = MoveCode.areaKind(text.substring(colon + 1, second));
+        int arg = parseNumber(text, second + 1);
+        return area < 0 || arg < 0 ? null : new Move.UseCard(card, area, arg);
+    }
+
+    /**
+     * @return the non negative number from position from to the end of text, or -1
+     */
+    private static int parseNumber(String text, int from) {
+        if (from >= text.length() || text.length() - from > 3) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,159 @@
+package Test;
+
+import Controller.GameController;
+import Controller.MoveStrings;
+import Model.*;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MoveTest {
+    private GameEngine engine;
+    private GameController controller;
+
+    @Before
+    public void setUp() {
+        engine = new GameEngine(5);
+        engine.initializeGame();
+        controller = new GameController();
+        controller.setGameEngine(engine);
+    }
+
+    private static List<Move> allMoves() {
+        List<Move> moves = new ArrayList<>();
+        moves.add(Move.DRAW);
+        moves.add(Move.END_TURN);
+        for (int area = TileCode.MOSAIC; area <= TileCode.AMPHORA; area++) {
+            moves.add(new Move.SelectArea(area, 1));
+            moves.add(new Move.SelectArea(area, 2));
+            moves.add(new Move.Take(area, 0));
+            moves.add(new Move.Take(area, 17));
+        }
+        for (int card = MoveCode.CARD_ASSISTANT; card <= MoveCode.CARD_PROGRAMMER; card++) {
+            moves.add(new Move.UseCard(card));
+        }
+        moves.add(new Move.UseCard(MoveCode.CARD_ASSISTANT, TileCode.AMPHORA, 3));
+        moves.add(new Move.UseCard(MoveCode.CARD_ARCHAEOLOGIST, TileCode.STATUE, 2));
+        return moves;
+    }
+
+    @Test
+    public void testBinaryEncodingRoundTrips() {
+        for (Move move : allMoves()) {
+            assertTrue(move.encode() > 0);
+            assertEquals(move, Move.decode(move.encode()));
+        }
+    }
+
+    @Test
+    public void testStringAdapterRoundTrips() {
+        for (Move move : allMoves()) {
+            assertEquals(move, MoveStrings.parse(MoveStrings.format(move)));
+        }
+        assertEquals(new Move.SelectArea(TileCode.STATUE, 2), MoveStrings.parse("select_area:statue:2"));
+        assertEquals(new Move.UseCard(MoveCode.CARD_PROFESSOR), MoveStrings.parse("use_card:Professor"));
+    }
+
+    @Test
+    public void testMalformedStringsAreRejected() {
+        String[] bad = {"", "draw", "select_area:", "select_area:mosaic", "select_area:garden:1",
+                "select_area:mosaic:x", "select_area:mosaic:-1", "use_card:Wizard", "take_tile:amphora:"};
+        for (String text : bad) {
+            assertNull(text, MoveStrings.parse(text));
+            assertFalse(text, controller.checkMoveValidity(text));
+        }
+    }
+
+    @Test
+    public void testValidity() {
+        assertTrue(controller.checkMoveValidity(Move.DRAW));
+        assertFalse("a pick needs a draw first", controller.checkMoveValidity("select_area:mosaic:1"));
+        assertFalse(controller.checkMoveValidity(Move.END_TURN));
+        assertFalse(controller.checkMoveValidity(new Move.Take(TileCode.MOSAIC, 0)));
+
+        int kind = drawUntilFilled(2);
+        assertFalse(controller.checkMoveValidity(Move.DRAW));
+        assertTrue(controller.checkMoveValidity(Move.END_TURN));
+        assertTrue(controller.checkMoveValidity(new Move.SelectArea(kind, 2)));
+        assertFalse(controller.checkMoveValidity(new Move.SelectArea(kind, 3)));
+        assertFalse(controller.checkMoveValidity(new Move.SelectArea(TileCode.LANDSLIDE, 1)));
+        assertFalse(controller.checkMoveValidity(new Move.Take(kind, -1)));
+        assertFalse(controller.checkMoveValidity(new Move.Take(kind, engine.getBoard().getArea(kind).size())));
+    }
+
+    @Test
+    public void testPicksFollowTheTurnRules() {
+        int kind = drawUntilFilled(3);
+        controller.executeMove(new Move.Take(kind, 0));
+
+        for (int other = TileCode.MOSAIC; other <= TileCode.AMPHORA; other++) {
+            if (other != kind && engine.getBoard().getArea(other).size() > 0) {
+                assertFalse("second pick from another area", controller.checkMoveValidity(new Move.Take(other, 0)));
+            }
+        }
+        assertFalse(controller.checkMoveValidity(new Move.SelectArea(kind, 2)));
+        assertTrue(controller.checkMoveValidity(new Move.Take(kind, 0)));
+        controller.executeMove(new Move.Take(kind, 0));
+        assertFalse("two picks a turn", controller.checkMoveValidity(new Move.Take(kind, 0)));
+        assertTrue(controller.checkMoveValidity(Move.END_TURN));
+    }
+
+    /**
+     * draws and passes until an area holds count tiles
+     *
+     * @return that area, the current player has drawn and picked nothing yet
+     */
+    private int drawUntilFilled(int count) {
+        for (int turn = 0; turn < 20; turn++) {
+            controller.executeMove(Move.DRAW);
+            for (int kind = TileCode.MOSAIC; kind <= TileCode.AMPHORA; kind++) {
+                if (engine.getBoard().getArea(kind).size() >= count) {
+                    return kind;
+                }
+            }
+            controller.executeMove(Move.END_TURN);
+        }
+        throw new AssertionError("no area holds " + count + " tiles");
+    }
+
+    @Test
+    public void testTypedAndStringMovesPlayTheSame() {
+        GameEngine other = new GameEngine(5);
+        other.initializeGame();
+        GameController stringController = new GameController();
+        stringController.setGameEngine(other);
+
+        Move[] moves = {Move.DRAW, new Move.SelectArea(TileCode.STATUE, 2), new Move.SelectArea(TileCode.MOSAIC, 1),
+                Move.END_TURN, Move.DRAW, new Move.UseCard(MoveCode.CARD_ASSISTANT)};
+        for (Move move : moves) {
+            controller.executeMove(move);
+            stringController.executeMove(MoveStrings.format(move));
+        }
+
+        assertEquals(GameState.capture(other), GameState.capture(engine));
+        assertEquals(1, engine.getCurrentTurnIndex());
+    }
+
+    @Test
+    public void testTakePlaysLikeTheEngineMove() {
+        GameEngine other = new GameEngine(5);
+        other.initializeGame();
+        controller.executeMove(Move.DRAW);
+        other.executePlayerTurn(new byte[4]);
+
+        int kind = TileCode.MOSAIC;
+        while (engine.getBoard().getArea(kind).size() == 0) {
+            kind++;
+        }
+        int before = engine.getBoard().getArea(kind).size();
+
+        controller.executeMove(new Move.Take(kind, before - 1));
+        other.apply(MoveCode.take(kind, before - 1));
+
+        assertEquals(before - 1, engine.getBoard().getArea(kind).size());
+        assertEquals(GameState.capture(other), GameState.capture(engine));
+    }
+}
@@ -8,6 +8,7 @@ package Model;
 public class MosaicT extends Tile{
     public MosaicT(Tile tile){
         this.colour = tile.colour;
+        this.code = TileCode.encode(TileCode.MOSAIC, colour);
 
     }
 }
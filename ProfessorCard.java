@@ -1,45 +1,283 @@
 package Model;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
 * will be used for the special areas
+*
+* the tiles of an area are kept as their codes in a ring buffer in the order they arrived, index 0 is the oldest
+* tile at head, so taking from the front or putting a tile back there only moves head
+* next to it every code of the area has a bit mask of the indices its tiles lie at, which gives counts,
+* the first and the last tile of a code without a scan, an area holds at most the 30 tiles of its kind
+* so the ring has a fixed 64 slots and a mask fits in a long
+* a tile taken from the middle closes the gap from the shorter side
+*
+* {@code @invariant} 0 <= size <= CAPACITY
+* {@code @invariant} bit i of positions[code] is set iff codeAt(i) == code, for 0 <= i < size
+* {@code @invariant} every code in the ring belongs to the kind of the area
 * */
 public class AreaType {
-    private List<Tile> tiles;
+    private static final int CAPACITY = Long.SIZE;
+    private static final int MASK = CAPACITY - 1;
+
+    private final long[] positions = new long[TileCode.COUNT];
+    private final byte[] ring = new byte[CAPACITY];
+    private final byte firstCode;
+    private final byte endCode;
+    private final List<Tile> view = new TileView();
+    private int head;
+    private int size;
+    private long hash;
+    private ChangeBus changes;
+    private int changeBit;
     private int x;
     private int y;
 
-    public AreaType(int x, int y) {
+    /**
+     * creates the board area of one kind
+     *
+     * @param area which area of the board
+     */
+    public AreaType(Area area) {
+        this(area.getX(), area.getY(), TileCode.firstCode(area.kind()), TileCode.firstCode(area.kind() + 1));
+    }
+
+    private AreaType(int x, int y, int firstCode, int endCode) {
         this.x = x;
         this.y = y;
-        this.tiles = new ArrayList<>();
+        this.firstCode = (byte) firstCode;
+        this.endCode = (byte) endCode;
     }
 
     public void addTile(Tile tile) {
-        tiles.add(tile);
+        addCode(tile.getCode());
+    }
+
+    /**
+     * puts a tile behind the others
+     *
+     * @param code tile code of this area
+     */
+    public void addCode(byte code) {
+        insertCode(size, code);
     }
 
     public List<Tile> removeTiles(int count) {
         List<Tile> removed = new ArrayList<>();
-        int toRemove = Math.min(count, tiles.size());
+        int toRemove = Math.min(count, size);
         for (int i = 0; i < toRemove; i++) {
-            removed.add(tiles.remove(0));
+            removed.add(TileCode.toTile(removeFirst()));
         }
         return removed;
     }
 
+    /**
+     * returns how many tiles of one code lie in this area
+     *
+     * @param code tile code
+     * @return number of tiles with that code
+     */
+    public int count(byte code) {
+        return Long.bitCount(positions[code]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param code tile code
+     * @return position of the first tile with that code, or -1
+     */
+    public int indexOf(byte code) {
+        return positions[code] == 0 ? -1 : Long.numberOfTrailingZeros(positions[code]);
+    }
+
+    /**
+     * @param index position, 0 is the oldest tile
+     * @return code of the tile at that position
+     *
+     * {@code @pre} 0 <= index < size()
+     */
+    public byte codeAt(int index) {
+        return index >= 0 && index < size ? ring[head + index & MASK] : TileCode.NONE;
+    }
+
+    /**
+     * @return code of the oldest tile, or TileCode.NONE if the area is empty
+     */
+    public byte peek() {
+        return size == 0 ? TileCode.NONE : ring[head];
+    }
+
+    /**
+     * takes the oldest tile
+     *
+     * @return its code, or TileCode.NONE if the area is empty
+     */
+    public byte removeFirst() {
+        return size == 0 ? TileCode.NONE : removeAt(0);
+    }
+
+    /**
+     * takes the oldest tile of a code
+     *
+     * @param code tile code
+     * @return true if the area held such a tile
+     */
+    public boolean removeCode(byte code) {
+        if (positions[code] == 0) {
+            return false;
+        }
+        removeAt(Long.numberOfTrailingZeros(positions[code]));
+        return true;
+    }
+
+    /**
+     * takes the newest tile of a code back, reverts addCode
+     *
+     * @return true if the area held such a tile
+     */
+    boolean removeLastCode(byte code) {
+        if (positions[code] == 0) {
+            return false;
+        }
+        removeAt(MASK - Long.numberOfLeadingZeros(positions[code]));
+        return true;
+    }
+
+    /**
+     * puts a tile back where it was taken from
+     *
+     * @param index its old position, 0 <= index <= size()
+     * @throws IndexOutOfBoundsException if the area cannot hold a tile at index
+     */
+    void insertTile(int index, Tile tile) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        insertCode(index, tile.getCode());
+    }
+
+    private void insertCode(int index, byte code) {
+        if (code < firstCode || code >= endCode) {
+            throw new IllegalArgumentException("tile code " + code + " does not belong in this area");
+        }
+        if (size == CAPACITY) {
+            throw new IllegalStateException("area already holds " + CAPACITY + " tiles");
+        }
+        if (index < size / 2) {
+            head = head - 1 & MASK;
+            for (int i = 0; i < index; i++) {
+                ring[head + i & MASK] = ring[head + i + 1 & MASK];
+            }
+        } else {
+            for (int i = size; i > index; i--) {
+                ring[head + i & MASK] = ring[head + i - 1 & MASK];
+            }
+        }
+        ring[head + index & MASK] = code;
+
+        long below = (1L << index) - 1;
+        for (int other = firstCode; other < endCode; other++) {
+            positions[other] = positions[other] & below | (positions[other] & ~below) << 1;
+        }
+        int count = Long.bitCount(positions[code]);
+        positions[code] |= 1L << index;
+        hash ^= Zobrist.AREA[code][count] ^ Zobrist.AREA[code][count + 1];
+        size++;
+        changed();
+    }
+
+    private byte removeAt(int index) {
+        byte code = ring[head + index & MASK];
+        if (index < size / 2) {
+            for (int i = index; i > 0; i--) {
+                ring[head + i & MASK] = ring[head + i - 1 & MASK];
+            }
+            head = head + 1 & MASK;
+        } else {
+            for (int i = index; i < size - 1; i++) {
+                ring[head + i & MASK] = ring[head + i + 1 & MASK];
+            }
+        }
+
+        int count = Long.bitCount(positions[code]);
+        long below = (1L << index) - 1;
+        for (int other = firstCode; other < endCode; other++) {
+            positions[other] = positions[other] & below | positions[other] >>> 1 & ~below;
+        }
+        hash ^= Zobrist.AREA[code][count] ^ Zobrist.AREA[code][count - 1];
+        size--;
+        changed();
+        return code;
+    }
+
+    void clear() {
+        Arrays.fill(positions, 0);
+        head = 0;
+        size = 0;
+        hash = 0;
+        changed();
+    }
+
+    /**
+     * the hash covers the counts and not the order: the move generator takes a tile by its code,
+     * so two areas with the same tiles in another order offer the same moves and lead to the same searches
+     *
+     * @return Zobrist hash of the tile counts, kept up to date by every change
+     */
+    long getHash() {
+        return hash;
+    }
+
+    /**
+     * reports every later change of this area to a bus
+     */
+    void attach(ChangeBus changes, int changeBit) {
+        this.changes = changes;
+        this.changeBit = changeBit;
+    }
+
+    private void changed() {
+        if (changes != null) {
+            changes.mark(changeBit);
+        }
+    }
+
+    /**
+     * returns a read only live view of the tiles in the order they arrived, for the Swing view
+     *
+     * @return list backed by this area
+     */
     public List<Tile> getTiles() {
-        return tiles;
+        return view;
     }
 
     public int getX() { return x; }
     public int getY() { return y; }
 
     public Tile removeTileByIndex(int index) {
-        if (index >= 0 && index < tiles.size()) {
-            return tiles.remove(index);
+        if (index >= 0 && index < size) {
+            return TileCode.toTile(removeAt(index));
         }
         return null;
     }
+
+    private final class TileView extends AbstractList<Tile> {
+        @Override
+        public Tile get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return TileCode.toTile(ring[head + index & MASK]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
 }
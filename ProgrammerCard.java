@@ -2,7 +2,6 @@ package Model;
 
 public class AssistantCard implements Charactercard{
     private String cardName="Assistant";
-    private boolean used = false;
 
     @Override
     /**
@@ -12,20 +11,12 @@ public class AssistantCard implements Charactercard{
      *
      * @pre player is not null and it is the current player's turn
      * @pre board is not null
-     * @pre !isUsed() (the ability has not been used this game)
+     * @pre the player has not used the card this game
      *
-     * @post isUsed is true
+     * @post the chosen tile is in the player's collection
      */
-    public void useAbility(Player player, Board board) {
-        if (used) {
-            return;
-        }
-        used = true;
-    }
-
-    @Override
-    public boolean isUsed() {
-        return used;
+    public long useAbility(Player player, Board board, int move) {
+        return TakenTiles.take(player, board, MoveCode.area(move), MoveCode.index(move), TakenTiles.NONE);
     }
 
     @Override
@@ -0,0 +1,116 @@
+package Network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * the wire format between TableServer and TableClient
+ * every frame is [length: unsigned short] [type: byte] [payload], length counts type and payload,
+ * numbers are big endian and moves travel as packed MoveCode ints
+ *
+ * client to server:
+ * JOIN   [table: int]          sit at the first free seat of a table, or watch if it is full
+ * MOVE   [move: int]           play a move for the seat of this connection
+ * RESYNC                       send a keyframe now, a receiver that missed a version asks for one
+ *
+ * server to client:
+ * WELCOME  [table: int] [seat: byte]     seat -1 means spectator
+ * STATE    [update]                      a DeltaEncoder keyframe or delta, a receiver starts at a keyframe
+ * REJECTED [move: int] [reason: byte]    one of the REASON constants
+ */
+public final class Protocol {
+    public static final byte JOIN = 1;
+    public static final byte MOVE = 2;
+    public static final byte RESYNC = 3;
+
+    public static final byte WELCOME = 10;
+    public static final byte STATE = 11;
+    public static final byte REJECTED = 12;
+
+    public static final int REASON_NOT_SEATED = 1;
+    public static final int REASON_NOT_YOUR_TURN = 2;
+    public static final int REASON_ILLEGAL = 3;
+    public static final int REASON_NO_TABLE = 4;
+
+    /** bytes of the length prefix */
+    public static final int HEADER = 2;
+    public static final int MAX_FRAME = 0xFFFF;
+
+    private Protocol() {
+    }
+
+    public static ByteBuffer join(int table) {
+        return frame(JOIN, 4).putInt(table).flip();
+    }
+
+    public static ByteBuffer move(int move) {
+        return frame(MOVE, 4).putInt(move).flip();
+    }
+
+    public static ByteBuffer resync() {
+        return frame(RESYNC, 0).flip();
+    }
+
+    public static ByteBuffer welcome(int table, int seat) {
+        return frame(WELCOME, 5).putInt(table).put((byte) seat).flip();
+    }
+
+    public static ByteBuffer rejected(int move, int reason) {
+        return frame(REJECTED, 5).putInt(move).put((byte) reason).flip();
+    }
+
+    /**
+     * @param update keyframe or delta from a DeltaEncoder, read from its position to its limit
+     * @return the frame, a read only buffer may be duplicated for every receiver
+     */
+    public static ByteBuffer state(ByteBuffer update) {
+        return frame(STATE, update.remaining()).put(update).flip();
+    }
+
+    /**
+     * checks whether a whole frame has arrived
+     *
+     * @param in buffer in read mode, positioned at the start of a frame
+     * @return length of the frame after the prefix, or -1 if more bytes are needed
+     */
+    public static int completeFrame(ByteBuffer in) {
+        if (in.remaining() < HEADER) {
+            return -1;
+        }
+        int length = in.getShort(in.position()) & 0xFFFF;
+        return in.remaining() - HEADER >= length ? length : -1;
+    }
+
+    /**
+     * reads the type of a complete frame and checks that its length is the one of that type
+     * a frame of unknown type only has to hold its type byte
+     *
+     * @param in buffer positioned at the prefix of a frame, left at its payload
+     * @param length length completeFrame returned for it
+     * @return the type
+     * @throws IOException if the frame is empty or too short or too long for its type
+     */
+    public static byte openFrame(ByteBuffer in, int length) throws IOException {
+        if (length < 1) {
+            throw new IOException("empty frame");
+        }
+        in.position(in.position() + HEADER);
+        byte type = in.get();
+        int payload = switch (type) {
+            case RESYNC -> 0;
+            case JOIN, MOVE -> 4;
+            case WELCOME, REJECTED -> 5;
+            default -> length - 1;
+        };
+        if (length - 1 != payload) {
+            throw new IOException("frame of type " + type + " with " + (length - 1) + " bytes instead of " + payload);
+        }
+        return type;
+    }
+
+    private static ByteBuffer frame(byte type, int payload) {
+        ByteBuffer out = ByteBuffer.allocate(HEADER + 1 + payload);
+        out.putShort((short) (1 + payload)).put(type);
+        return out;
+    }
+}
@@ -0,0 +1,41 @@
+package AI;
+
+import Model.Board;
+import Model.GameEngine;
+import Model.Player;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * picks uniformly among the areas that currently hold tiles
+ */
+public class RandomBot implements BotPolicy {
+    private static final String[] AREAS = {"mosaic", "statue", "skeleton", "amphora"};
+
+    @Override
+    public String chooseArea(GameEngine engine, Player player, RandomGenerator random) {
+        Board board = engine.getBoard();
+        int available = 0;
+        for (String area : AREAS) {
+            if (!board.getAreaTiles(area).isEmpty()) {
+                available++;
+            }
+        }
+        if (available == 0) {
+            return null;
+        }
+
+        int pick = random.nextInt(available);
+        for (String area : AREAS) {
+            if (!board.getAreaTiles(area).isEmpty() && pick-- == 0) {
+                return area;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String getName() {
+        return "random";
+    }
+}
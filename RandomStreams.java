@@ -0,0 +1,87 @@
+package Model;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * hands out the random streams of a batch of games from one master seed
+ *
+ * a stream is named by the work it drives, the game's number, never by the thread that happens to run it,
+ * so a master seed plays the same games bit for bit on one worker or on all of them
+ * neighbouring numbers are scrambled apart, game 7 and game 8 share nothing
+ *
+ * every game then splits into two streams of its own seed: the bag, which GameEngine shuffles with,
+ * and the bots' choices, so a change in how bots pick never changes what the bag deals
+ *
+ * {@code @invariant} the same master seed and number always give the same seed
+ */
+public final class RandomStreams {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long masterSeed;
+
+    public RandomStreams(long masterSeed) {
+        this.masterSeed = masterSeed;
+    }
+
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+
+    /**
+     * @param game number of the game in the batch, from 0
+     * @return the seed of that game, the seed to build its GameEngine with
+     */
+    public long gameSeed(long game) {
+        return mix(masterSeed + (game + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * @param stream number of a worker's stream, e.g. one per search tree
+     * @return a generator of its own, not shared with any game of this master seed
+     */
+    public SplittableRandom stream(long stream) {
+        return new SplittableRandom(mix(~masterSeed + (stream + 1) * GOLDEN_GAMMA));
+    }
+
+    /**
+     * @param gameSeed seed of a game
+     * @return the stream its bag is shuffled with
+     */
+    public static SplittableRandom bag(long gameSeed) {
+        return new SplittableRandom(gameSeed);
+    }
+
+    /**
+     * @param gameSeed seed of a game
+     * @return the stream its bots choose with, apart from the bag
+     */
+    public static SplittableRandom bots(long gameSeed) {
+        return new SplittableRandom(~gameSeed);
+    }
+
+    /**
+     * Fisher–Yates: every order of values[from, to) is equally likely
+     * each slot from the end down takes a uniform pick of the slots not yet fixed, so n values cost n - 1 draws
+     *
+     * @param random stream of whoever shuffles, advanced by to - from - 1 draws
+     */
+    public static void shuffle(byte[] values, int from, int to, RandomGenerator random) {
+        for (int i = to - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            byte value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+
+    /**
+     * SplitMix64's finalizer, spreads neighbouring inputs over the whole range
+     * one to one and 0 only for 0, the Zobrist keys and the transposition table use it too
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
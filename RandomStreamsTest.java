@@ -0,0 +1,57 @@
+package Test;
+
+import Model.*;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+public class RandomStreamsTest {
+
+    @Test
+    public void testShuffleGivesEveryOrderEqually() {
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[6];
+        int trials = 60_000;
+        byte[] values = new byte[5];
+        for (int t = 0; t < trials; t++) {
+            values[0] = 9;
+            values[1] = 0;
+            values[2] = 1;
+            values[3] = 2;
+            values[4] = 9;
+            RandomStreams.shuffle(values, 1, 4, random);
+            assertEquals(9, values[0]);
+            assertEquals(9, values[4]);
+            counts[values[1] * 2 + (values[2] > values[3] ? 1 : 0)]++;
+        }
+        // swapping every slot with any slot would give 3 of the orders 8889 times and the other 3 11111 times
+        for (int count : counts) {
+            assertEquals(trials / 6.0, count, 400);
+        }
+    }
+
+    @Test
+    public void testSameSeedDealsTheSameBag() {
+        GameEngine first = new GameEngine(31);
+        GameEngine second = new GameEngine(31);
+        first.initializeGame();
+        second.initializeGame();
+
+        assertEquals(GameState.capture(first), GameState.capture(second));
+    }
+
+    @Test
+    public void testGameSeedsAreStableAndApart() {
+        RandomStreams streams = new RandomStreams(2024);
+        Set<Long> seeds = new HashSet<>();
+        for (int game = 0; game < 10_000; game++) {
+            assertTrue(seeds.add(streams.gameSeed(game)));
+        }
+        assertEquals(streams.gameSeed(77), new RandomStreams(2024).gameSeed(77));
+        assertEquals(streams.stream(3).nextLong(), new RandomStreams(2024).stream(3).nextLong());
+        assertNotEquals(streams.stream(3).nextLong(), streams.stream(4).nextLong());
+    }
+}
@@ -0,0 +1,100 @@
+package Network;
+
+import Controller.GameController;
+import Controller.GameStateDTO;
+import Model.Area;
+import Model.Move;
+import Model.MoveCode;
+import View.Screen;
+
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+
+/**
+ * the controller the Screen talks to when the game runs on a TableServer
+ * every click becomes a move sent to the table, the server checks it and answers with the new position
+ */
+public class RemoteController extends GameController {
+    private final TableClient client;
+
+    /**
+     * @param screen the window of this seat
+     * @param client connection to the table
+     */
+    public RemoteController(Screen screen, TableClient client) {
+        super(screen);
+        this.client = client;
+        client.addRejectionListener(this::onRejected);
+    }
+
+    @Override
+    public void handleDrawTiles() {
+        send(Move.DRAW);
+    }
+
+    @Override
+    public void handleEndTurn() {
+        send(Move.END_TURN);
+    }
+
+    @Override
+    public void handleTileSelection(String areaType, int tileNumber) {
+        int kind = MoveCode.areaKind(areaType);
+        if (kind >= 0 && tileNumber >= 1) {
+            send(new Move.Take(kind, tileNumber - 1));
+        }
+    }
+
+    @Override
+    public void handleCharacterPower(String cardName, String areaType, int tileNumber) {
+        int card = MoveCode.card(cardName);
+        int kind = MoveCode.areaKind(areaType);
+        if (card < 0 || (cardTargetsArea(cardName) && kind < 0)) {
+            return;
+        }
+
+        switch (card) {
+            case MoveCode.CARD_ASSISTANT -> send(new Move.UseCard(card, kind, tileNumber - 1));
+            case MoveCode.CARD_ARCHAEOLOGIST -> send(new Move.UseCard(card, kind, Math.max(1, Math.min(2, areaSize(kind)))));
+            case MoveCode.CARD_EXCAVATOR -> send(new Move.UseCard(card, 0, 2));
+            case MoveCode.CARD_PROGRAMMER -> send(new Move.UseCard(card, kind, 0));
+            default -> send(new Move.UseCard(card));
+        }
+    }
+
+    private int areaSize(int kind) {
+        GameStateDTO latest = client.getLatest();
+        return latest == null ? 0 : latest.getArea(Area.of(kind)).size();
+    }
+
+    /**
+     * the chosen area may hold a single tile, which only the client of the Excavator cannot see,
+     * so a refused two tile Excavator is retried with one
+     */
+    private void onRejected(int move, int reason) {
+        if (reason == Protocol.REASON_ILLEGAL && MoveCode.type(move) == MoveCode.USE_CARD
+                && MoveCode.card(move) == MoveCode.CARD_EXCAVATOR && MoveCode.count(move) == 2) {
+            send(new Move.UseCard(MoveCode.CARD_EXCAVATOR, 0, 1));
+            return;
+        }
+        String why = switch (reason) {
+            case Protocol.REASON_NOT_YOUR_TURN -> "It is not your turn";
+            case Protocol.REASON_NOT_SEATED -> "You are watching this table";
+            case Protocol.REASON_NO_TABLE -> "Not at a table";
+            default -> "That move is not allowed now";
+        };
+        if (screen != null) {
+            screen.showMessage(why);
+        }
+    }
+
+    private void send(Move move) {
+        try {
+            client.send(move);
+        } catch (IOException e) {
+            if (screen != null) {
+                SwingUtilities.invokeLater(() -> screen.showMessage("connection lost: " + e.getMessage()));
+            }
+        }
+    }
+}
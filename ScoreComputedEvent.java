@@ -0,0 +1,29 @@
+package Metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * statue scoring, or the final scoring when the winner is checked
+ */
+@Name("amphipolis.ScoreComputed")
+@Label("Score Computed")
+@Category({"Amphipolis", "Game"})
+@StackTrace(false)
+public final class ScoreComputedEvent extends Event {
+    @Label("Game")
+    @Description("id of the profiled game")
+    public int game;
+
+    @Label("Turn")
+    @Description("turns started so far in this game")
+    public int turn;
+
+    @Label("Phase")
+    @Description("statues or final")
+    public String phase;
+}
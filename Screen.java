@@ -1,5 +1,6 @@
 package Model;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,14 +15,29 @@ public class Player {
     private final List<SkeletonT> skeletonTiles;
     private final List<AmphoraT> amphoraTiles;
     private String card;
-    private int score;
     private final List<String> usedCards = new ArrayList<>();
+    private int usedCardMask;
+    private ChangeBus changes;
+    private int changeBit;
+
+    // running score counters, updated on every added tile so the score is read without rescanning
+    private int mosaicScore;
+    private int mosaicGroupSize;
+    private byte mosaicGroupColour;
+    private boolean mosaicGroupSame;
+    private final int[] skeletonParts = new int[4];
+    private final int[] amphoraColours = new int[6];
+    // tiles held per code and their Zobrist hash
+    private final int[] held = new int[TileCode.COUNT];
+    private long heldHash;
+    private int amphoraDistinct;
+    private int caryatids;
+    private int sphinxes;
 
 
 
     public Player(String color) {
         this.color = color;
-        this.score = 0;
 
         this.characterCards = new ArrayList<>();
         this.mosaicTiles = new ArrayList<>();
@@ -46,11 +62,11 @@ public class Player {
         return color;
     }
     /**0
-     * uses game egnine to draw tiles for the player then add it into his List
+     * uses the game engine of this match to draw tiles for the player then add it into his List
 
      * */
-    public void drawTiles(int count) {
-        List<Tile> drawnTiles = GameEngine.drawT(count);
+    public void drawTiles(GameEngine engine, int count) {
+        List<Tile> drawnTiles = engine.drawT(count);
         addTiles(drawnTiles);
     }
 
@@ -60,20 +76,145 @@ public class Player {
      * */
     public void addTiles(List<Tile> tiles) {
         for (Tile tile : tiles) {
-            if (tile instanceof MosaicT) {
+            addTile(tile);
+        }
+    }
+
+    /**
+     * adds the shared tile of a code to the player's collection
+     *
+     * @param code tile code
+     */
+    public void addTileCode(byte code) {
+        addTile(TileCode.toTile(code));
+    }
+
+    private void addTile(Tile tile) {
+        if (tile.getCode() == TileCode.NONE) {
+            return;
+        }
+        changed();
+        byte code = tile.getCode();
+        hold(code, 1);
+        switch (TileCode.kindOf(code)) {
+            case TileCode.MOSAIC -> {
                 mosaicTiles.add((MosaicT) tile);
-            } else if (tile instanceof StatueT) {
+                countMosaic(code);
+            }
+            case TileCode.STATUE -> {
                 statueTiles.add((StatueT) tile);
-            } else if (tile instanceof SkeletonT) {
+                if (code == TileCode.CARYATID) {
+                    caryatids++;
+                } else {
+                    sphinxes++;
+                }
+            }
+            case TileCode.SKELETON -> {
                 skeletonTiles.add((SkeletonT) tile);
-            } else if (tile instanceof AmphoraT) {
+                skeletonParts[code - TileCode.ADULT_TOP]++;
+            }
+            case TileCode.AMPHORA -> {
                 amphoraTiles.add((AmphoraT) tile);
+                if (amphoraColours[code - TileCode.AMPHORA_BLUE]++ == 0) {
+                    amphoraDistinct++;
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * mosaics score in consecutive groups of four in the order they were taken
+     * only the group that is still open has to be remembered
+     */
+    private void countMosaic(byte code) {
+        if (mosaicGroupSize == 0) {
+            mosaicGroupColour = code;
+            mosaicGroupSame = true;
+        } else if (code != mosaicGroupColour) {
+            mosaicGroupSame = false;
+        }
+
+        if (++mosaicGroupSize == 4) {
+            mosaicScore += mosaicGroupSame ? 4 : 2;
+            mosaicGroupSize = 0;
+        }
+    }
+
+    /**
+     * takes back the most recently added tile of a kind, reverting the running counters
+     *
+     * @param kind TileCode kind of the tile to take back
+     *
+     * {@code @pre} the player holds at least one tile of that kind
+     */
+    void removeLastTile(int kind) {
+        changed();
+        switch (kind) {
+            case TileCode.MOSAIC -> {
+                int last = mosaicTiles.size() - 1;
+                hold(mosaicTiles.get(last).getCode(), -1);
+                if (mosaicGroupSize == 0) {
+                    mosaicScore -= sameMosaicColour(last - 3, 4) ? 4 : 2;
+                }
+                mosaicTiles.remove(last);
+                mosaicGroupSize = last % 4;
+                if (mosaicGroupSize > 0) {
+                    int start = last - mosaicGroupSize;
+                    mosaicGroupColour = mosaicTiles.get(start).getCode();
+                    mosaicGroupSame = sameMosaicColour(start, mosaicGroupSize);
+                }
+            }
+            case TileCode.STATUE -> {
+                byte code = statueTiles.remove(statueTiles.size() - 1).getCode();
+                hold(code, -1);
+                if (code == TileCode.CARYATID) {
+                    caryatids--;
+                } else {
+                    sphinxes--;
+                }
+            }
+            case TileCode.SKELETON -> {
+                byte code = skeletonTiles.remove(skeletonTiles.size() - 1).getCode();
+                hold(code, -1);
+                skeletonParts[code - TileCode.ADULT_TOP]--;
+            }
+            case TileCode.AMPHORA -> {
+                byte code = amphoraTiles.remove(amphoraTiles.size() - 1).getCode();
+                hold(code, -1);
+                if (--amphoraColours[code - TileCode.AMPHORA_BLUE] == 0) {
+                    amphoraDistinct--;
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void hold(byte code, int change) {
+        heldHash ^= Zobrist.HELD[code][held[code]] ^ Zobrist.HELD[code][held[code] + change];
+        held[code] += change;
+    }
+
+    private boolean sameMosaicColour(int from, int count) {
+        byte first = mosaicTiles.get(from).getCode();
+        for (int i = from + 1; i < from + count; i++) {
+            if (mosaicTiles.get(i).getCode() != first) {
+                return false;
             }
         }
+        return true;
     }
 
     private boolean drawnThisTurn = false;
 
+    // what the player did so far this turn, read by the character cards and MoveGenerator
+    private int picksThisTurn;
+    private int chosenArea = -1;
+    private boolean cardThisTurn;
+    private int programmerArea = -1;
+
     public boolean hasDrawnThisTurn() {
         return drawnThisTurn;
     }
@@ -83,21 +224,130 @@ public class Player {
     }
 
     /**
-     * calculates and returns the player's current score
+     * records a normal pick of one tile from an area
+     *
+     * @param kind area kind from TileCode
+     */
+    void notePick(int kind) {
+        picksThisTurn = Math.min(picksThisTurn + 1, 3);
+        chosenArea = kind;
+    }
+
+    public int getPicksThisTurn() {
+        return picksThisTurn;
+    }
+
+    /**
+     * returns the area of this turn's normal pick, the one the Archaeologist, Excavator and Professor refer to
+     *
+     * @return area kind or -1 if the player has not picked yet
+     */
+    public int getChosenArea() {
+        return chosenArea;
+    }
+
+    public boolean hasUsedCardThisTurn() {
+        return cardThisTurn;
+    }
+
+    /**
+     * returns the area the Programmer will take from on the player's next draw
+     *
+     * @return area kind or -1 if no Programmer bonus is pending
+     */
+    public int getProgrammerArea() {
+        return programmerArea;
+    }
+
+    void setProgrammerArea(int kind) {
+        programmerArea = kind;
+    }
+
+    /**
+     * clears what the player did this turn, a pending Programmer bonus stays
      *
+     * {@code @post} the player can draw again
+     */
+    public void resetTurn() {
+        drawnThisTurn = false;
+        picksThisTurn = 0;
+        chosenArea = -1;
+        cardThisTurn = false;
+    }
+
+    /**
+     * packs the per turn fields into 10 bits:
+     * bit 0 drawn, bits 1-2 picks, bits 3-5 chosen area + 1, bit 6 card played, bits 7-9 programmer area + 1
+     */
+    int getTurnState() {
+        return (drawnThisTurn ? 1 : 0) | picksThisTurn << 1 | (chosenArea + 1) << 3
+                | (cardThisTurn ? 1 << 6 : 0) | (programmerArea + 1) << 7;
+    }
+
+    void setTurnState(int state) {
+        drawnThisTurn = (state & 1) != 0;
+        picksThisTurn = (state >>> 1) & 3;
+        chosenArea = ((state >>> 3) & 7) - 1;
+        cardThisTurn = (state & 1 << 6) != 0;
+        programmerArea = ((state >>> 7) & 7) - 1;
+    }
+
+    /**
+     * calculates and returns the player's current score, the held tiles and the statue majorities
+     * reads the running counters, so it costs the same no matter how many tiles the player holds
+     *
+     * {@code @post} no field of the player is modified
      */
     public int calculateScore() {
-        int totalScore = 0;
-        statuePoints = 0;
+        return tileScore() + statuePoints;
+    }
 
-        totalScore += calculateMosaicScore();
-        totalScore += calculateSkeletonScore();
-        totalScore += calculateAmphoraScore();
-        totalScore += statuePoints;
+    /**
+     * score of the held tiles from the running counters, statue majorities are not part of it
+     *
+     * {@code @post} no field of the player is modified
+     */
+    public int tileScore() {
+        return mosaicScore + skeletonScore() + amphoraScore(amphoraDistinct);
+    }
 
+    /**
+     * Zobrist hash of everything the player holds and did this turn, the same for any order of the same picks
+     * except where the order matters, the open mosaic group
+     */
+    long hash() {
+        long word = usedCardMask | (long) getTurnState() << 5 | (long) mosaicScore << 15
+                | (long) mosaicGroupSize << 23 | (long) (mosaicGroupSize == 0 ? 0 : mosaicGroupColour + 1) << 26
+                | (mosaicGroupSize > 0 && mosaicGroupSame ? 1L : 0) << 29;
+        return heldHash ^ Zobrist.field(Zobrist.PLAYER, word);
+    }
 
-        this.score = totalScore;
-        return totalScore;
+    /**
+     * recomputes the score from the tile lists instead of the running counters
+     * kept as the reference the counters are checked against
+     *
+     * {@code @post} no field of the player is modified
+     */
+    public int recalculateScore() {
+        return calculateMosaicScore() + calculateSkeletonScore() + calculateAmphoraScore() + statuePoints;
+    }
+
+    private int skeletonScore() {
+        int completeAdults = Math.min(skeletonParts[0], skeletonParts[1]);
+        int completeChildren = Math.min(skeletonParts[2], skeletonParts[3]);
+
+        int families = Math.min(completeAdults / 2, completeChildren);
+        return families * 6 + (completeAdults - families * 2) + (completeChildren - families);
+    }
+
+    private static int amphoraScore(int uniqueColors) {
+        return switch (uniqueColors) {
+            case 6 -> 6;
+            case 5 -> 4;
+            case 4 -> 2;
+            case 3 -> 1;
+            default -> 0;
+        };
     }
 
     private int calculateMosaicScore() {
@@ -172,19 +422,33 @@ public class Player {
         int uniqueColors;
         uniqueColors = colorCounts.size();
 
-        return switch (uniqueColors) {
-            case 6 -> 6;
-            case 5 -> 4;
-            case 4 -> 2;
-            case 3 -> 1;
-            default -> 0;
-        };
+        return amphoraScore(uniqueColors);
     }
 
     private int statuePoints = 0;
 
-    public void addStatuePoints(int points) {
-        this.statuePoints += points;
+    /**
+     * @param points statue majority points as the last statue scoring gave them, replacing any earlier ones
+     */
+    public void setStatuePoints(int points) {
+        if (points != statuePoints) {
+            this.statuePoints = points;
+            changed();
+        }
+    }
+
+    /**
+     * reports every later change of this player to a bus
+     */
+    void attach(ChangeBus changes, int changeBit) {
+        this.changes = changes;
+        this.changeBit = changeBit;
+    }
+
+    private void changed() {
+        if (changes != null) {
+            changes.mark(changeBit);
+        }
     }
 
     public int getStatuePoints() {
@@ -192,24 +456,169 @@ public class Player {
     }
 
 
+    /**
+     * returns the character card object that implements an ability
+     *
+     * @param card one of the MoveCode.CARD constants
+     * @return the card
+     */
+    public Charactercard getCharacterCard(int card) {
+        return characterCards.get(card);
+    }
+
     /**
      * activates a character card's special ability
+     *
+     * @param board board of the game
+     * @param move packed MoveCode.USE_CARD move
+     * @return the tiles the ability moved to the player, packed by TakenTiles
+     *
+     * {@code @pre} the move is legal for the player
+     *
+     * {@code @post} the card is marked as used and counts as this turn's card
      */
-    public void useCharacterPower(Charactercard card) {
-        // Implement each character's special power
+    long useCharacterPower(Board board, int move) {
+        int card = MoveCode.card(move);
+        long taken = getCharacterCard(card).useAbility(this, board, move);
+        markCardAsUsed(CARD_NAMES[card]);
+        cardThisTurn = true;
+        return taken;
     }
 
     public void markCardAsUsed(String cardName) {
         if (!usedCards.contains(cardName)) {
             usedCards.add(cardName);
+            usedCardMask |= cardBit(cardName);
+            changed();
         }
     }
 
+    void unmarkCardAsUsed(String cardName) {
+        usedCards.remove(cardName);
+        usedCardMask &= ~cardBit(cardName);
+        changed();
+    }
+
     public List<StatueT> getStatueTiles() {
         return statueTiles;
     }
 
+    /**
+     * returns how many statues of one kind the player holds
+     *
+     * @param code TileCode.CARYATID or TileCode.SPHINX
+     * @return number of held statues with that code
+     */
+    public int getStatueCount(byte code) {
+        return code == TileCode.CARYATID ? caryatids : code == TileCode.SPHINX ? sphinxes : 0;
+    }
+
     public boolean isCardUsed(String cardName) {
         return usedCards.contains(cardName);
     }
+
+    /**
+     * @param card one of the MoveCode.CARD constants
+     * @return true if that card was used this game
+     */
+    public boolean isCardUsed(int card) {
+        return (usedCardMask & (1 << card)) != 0;
+    }
+
+    private static int cardBit(String cardName) {
+        for (int i = 0; i < CARD_NAMES.length; i++) {
+            if (CARD_NAMES[i].equals(cardName)) {
+                return 1 << i;
+            }
+        }
+        return 0;
+    }
+
+    /** names of the character cards in the bit order of getUsedCardMask */
+    static final String[] CARD_NAMES = {"Assistant", "Archaeologist", "Excavator", "Professor", "Programmer"};
+
+    /**
+     * returns the used character cards as a bit mask in CARD_NAMES order
+     *
+     * @return bit i is set when CARD_NAMES[i] was used
+     */
+    public int getUsedCardMask() {
+        return usedCardMask;
+    }
+
+    int tileCount() {
+        return mosaicTiles.size() + statueTiles.size() + skeletonTiles.size() + amphoraTiles.size();
+    }
+
+    /**
+     * returns the codes of every held tile, kind by kind and in the order they were taken
+     *
+     * @return a new array the caller may keep
+     */
+    public byte[] getTileCodes() {
+        byte[] codes = new byte[tileCount()];
+        int at = 0;
+        for (List<? extends Tile> tiles : List.of(mosaicTiles, statueTiles, skeletonTiles, amphoraTiles)) {
+            for (Tile tile : tiles) {
+                codes[at++] = tile.getCode();
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * writes the codes of every held tile, kind by kind and in the order they were taken
+     *
+     * @return number of codes written
+     */
+    int writeTileCodes(short[] out, int at) {
+        int start = at;
+        for (Tile tile : mosaicTiles) {
+            out[at++] = tile.getCode();
+        }
+        for (Tile tile : statueTiles) {
+            out[at++] = tile.getCode();
+        }
+        for (Tile tile : skeletonTiles) {
+            out[at++] = tile.getCode();
+        }
+        for (Tile tile : amphoraTiles) {
+            out[at++] = tile.getCode();
+        }
+        return at - start;
+    }
+
+    /**
+     * replaces everything the player holds, used when a saved position is loaded
+     */
+    void restore(short[] codes, int from, int count, int usedCardMask, int statuePoints, int turnState) {
+        mosaicTiles.clear();
+        statueTiles.clear();
+        skeletonTiles.clear();
+        amphoraTiles.clear();
+        mosaicScore = 0;
+        mosaicGroupSize = 0;
+        Arrays.fill(skeletonParts, 0);
+        Arrays.fill(amphoraColours, 0);
+        amphoraDistinct = 0;
+        caryatids = 0;
+        sphinxes = 0;
+        Arrays.fill(held, 0);
+        heldHash = 0;
+
+        for (int i = 0; i < count; i++) {
+            addTileCode((byte) codes[from + i]);
+        }
+
+        usedCards.clear();
+        for (int i = 0; i < CARD_NAMES.length; i++) {
+            if ((usedCardMask & (1 << i)) != 0) {
+                usedCards.add(CARD_NAMES[i]);
+            }
+        }
+        this.usedCardMask = usedCardMask;
+        this.statuePoints = statuePoints;
+        setTurnState(turnState);
+        changed();
+    }
 }
\ No newline at end of file
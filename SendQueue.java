@@ -0,0 +1,110 @@
+package Network;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+/**
+ * frames waiting for the socket of one connection, bounded by the bytes they hold
+ *
+ * a receiver that reads slower than its table plays would make the queue grow without end,
+ * so once a frame would pass the limit every STATE frame not yet started on is dropped and one fresh keyframe
+ * takes their place, the receiver skips the versions it missed and carries on from there
+ * the other frames are answers to this connection only and are kept, when they alone pass the limit
+ * the receiver is not reading at all and add tells the caller to disconnect it
+ *
+ * {@code @invariant} bytes() is the sum of the sizes of the queued frames
+ * {@code @invariant} a frame the socket has started on is never dropped, the stream stays whole
+ */
+public final class SendQueue {
+    private final ArrayDeque<ByteBuffer> frames = new ArrayDeque<>();
+    private final int limit;
+    private int bytes;
+
+    /**
+     * @param limit bytes the queue may hold
+     */
+    public SendQueue(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        this.limit = limit;
+    }
+
+    /**
+     * queues a frame behind the others
+     *
+     * @param frame whole frame in read mode, starting at position 0
+     * @param keyframe makes a STATE frame of the latest version, null if the connection has no table
+     * @return false when the queue stays over its limit even without the STATE frames
+     *
+     * {@code @post} a STATE frame is queued or covered by the keyframe that replaced the queued ones
+     */
+    public boolean add(ByteBuffer frame, Supplier<ByteBuffer> keyframe) {
+        boolean state = isState(frame);
+        if (bytes + frame.limit() > limit && keyframe != null && (dropStates() | state)) {
+            push(keyframe.get());
+            if (state) {
+                return bytes <= limit;
+            }
+        }
+        push(frame);
+        return bytes <= limit;
+    }
+
+    /**
+     * @return the oldest frame, possibly written in part, or null if the queue is empty
+     */
+    public ByteBuffer peek() {
+        return frames.peek();
+    }
+
+    /**
+     * forgets the oldest frame once the socket took all of it
+     */
+    public void poll() {
+        ByteBuffer sent = frames.poll();
+        if (sent != null) {
+            bytes -= sent.limit();
+        }
+    }
+
+    public boolean isEmpty() {
+        return frames.isEmpty();
+    }
+
+    public int size() {
+        return frames.size();
+    }
+
+    public int bytes() {
+        return bytes;
+    }
+
+    private void push(ByteBuffer frame) {
+        frames.add(frame);
+        bytes += frame.limit();
+    }
+
+    /**
+     * @return true if any STATE frame was dropped
+     */
+    private boolean dropStates() {
+        boolean dropped = false;
+        Iterator<ByteBuffer> queued = frames.iterator();
+        while (queued.hasNext()) {
+            ByteBuffer frame = queued.next();
+            if (frame.position() == 0 && isState(frame)) {
+                queued.remove();
+                bytes -= frame.limit();
+                dropped = true;
+            }
+        }
+        return dropped;
+    }
+
+    private static boolean isState(ByteBuffer frame) {
+        return frame.get(Protocol.HEADER) == Protocol.STATE;
+    }
+}
@@ -0,0 +1,73 @@
+package Test;
+
+import Network.Protocol;
+import Network.SendQueue;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+public class SendQueueTest {
+    private static final ByteBuffer KEYFRAME = Protocol.state(ByteBuffer.wrap(new byte[]{0, 0, 0, 0, 9}));
+    private final Supplier<ByteBuffer> keyframe = KEYFRAME::duplicate;
+
+    private static ByteBuffer delta(int version) {
+        return Protocol.state(ByteBuffer.allocate(5).put((byte) 1).putInt(version).flip());
+    }
+
+    private static int type(ByteBuffer frame) {
+        return frame.get(Protocol.HEADER);
+    }
+
+    @Test
+    public void testFramesWithinTheLimitKeepTheirOrder() {
+        SendQueue queue = new SendQueue(1000);
+        assertTrue(queue.add(Protocol.welcome(1, 0), keyframe));
+        for (int version = 1; version <= 10; version++) {
+            assertTrue(queue.add(delta(version), keyframe));
+        }
+
+        assertEquals(11, queue.size());
+        assertEquals(Protocol.WELCOME, type(queue.peek()));
+        queue.poll();
+        assertEquals(1, queue.peek().getInt(Protocol.HEADER + 2));
+        assertEquals(10 * delta(0).limit(), queue.bytes());
+    }
+
+    @Test
+    public void testOverflowReplacesWaitingDeltasWithOneKeyframe() {
+        int size = delta(0).limit();
+        SendQueue queue = new SendQueue(10 * size);
+        for (int version = 1; version <= 10; version++) {
+            assertTrue(queue.add(delta(version), keyframe));
+        }
+        queue.peek().position(3);
+        assertTrue(queue.add(Protocol.rejected(5, Protocol.REASON_ILLEGAL), keyframe));
+        assertTrue(queue.add(delta(11), keyframe));
+
+        assertEquals(4, queue.size());
+        assertEquals(2 * size + Protocol.rejected(0, 0).limit() + KEYFRAME.limit(), queue.bytes());
+        assertEquals(1, queue.peek().getInt(Protocol.HEADER + 2));
+        queue.poll();
+        assertEquals(KEYFRAME, queue.peek());
+        queue.poll();
+        assertEquals(Protocol.REJECTED, type(queue.peek()));
+        queue.poll();
+        assertEquals(11, queue.peek().getInt(Protocol.HEADER + 2));
+        queue.poll();
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.bytes());
+    }
+
+    @Test
+    public void testReceiverThatStopsReadingIsReported() {
+        SendQueue queue = new SendQueue(64);
+        boolean kept = true;
+        for (int i = 0; i < 20 && kept; i++) {
+            kept = queue.add(Protocol.welcome(1, -1), keyframe);
+        }
+        assertFalse(kept);
+        assertFalse(new SendQueue(4).add(delta(1), null));
+    }
+}
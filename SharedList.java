@@ -0,0 +1,54 @@
+package Controller;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * persistent list: never changes after construction, with() returns a new list
+ * that shares every element except the replaced one
+ * the lists in a game snapshot have at most one entry per area or seat, so copying the spine is
+ * a handful of references while the elements, the expensive part, are shared between snapshots
+ *
+ * {@code @invariant} no element array is written after the constructor returns
+ */
+final class SharedList<T> extends AbstractList<T> implements RandomAccess {
+    private final Object[] elements;
+
+    private SharedList(Object[] elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * @param elements entries of the list, the array is copied
+     * @return list of those entries
+     */
+    @SafeVarargs
+    static <T> SharedList<T> of(T... elements) {
+        return new SharedList<>(elements.clone());
+    }
+
+    /**
+     * @param index position to replace
+     * @param element the new entry
+     * @return this list if the entry is already there, otherwise a list sharing every other entry
+     */
+    SharedList<T> with(int index, T element) {
+        if (elements[index] == element) {
+            return this;
+        }
+        Object[] copy = elements.clone();
+        copy[index] = element;
+        return new SharedList<>(copy);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+}
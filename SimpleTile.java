@@ -1,188 +1,161 @@
 package Model;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public class Board {
-    private List<Tile> bag;
-    private List<Tile> landslideTiles;
-    private AreaType mosaicArea;
-    private AreaType statueArea;
-    private AreaType skeletonArea;
-    private AreaType amphoraArea;
+    private final TileBag bag;
+    private int landslideCount;
+    private final AreaType[] areas = new AreaType[Area.COUNT];
+    private final ChangeBus changes = new ChangeBus();
     private List<Player> players;
     private int currentPlayer;
-    private Random random;
+    private RandomGenerator random;
 
     public Board() {
-        this.bag = new ArrayList<>();
-        this.landslideTiles = new ArrayList<>();
+        this(new SplittableRandom());
+    }
+
+    /**
+     * creates a board that shuffles with the random stream of its game
+     *
+     * @param random random stream owned by the game
+     */
+    public Board(RandomGenerator random) {
+        this.bag = new TileBag();
         this.players = new ArrayList<>();
-        this.random = new Random();
+        this.random = random;
         this.currentPlayer = 0;
 
-        this.mosaicArea = new AreaType(100, 100);
-        this.statueArea = new AreaType(200, 100);
-        this.skeletonArea = new AreaType(300, 100);
-        this.amphoraArea = new AreaType(400, 100);
+        for (Area area : Area.values()) {
+            areas[area.ordinal()] = new AreaType(area);
+            areas[area.ordinal()].attach(changes, ChangeBus.area(area.kind()));
+        }
     }
 
     public void initializeTiles() {
-        addMosaicTiles();
-        addStatueTiles();
-        addSkeletonTiles();
-        addAmphoraTiles();
-        addLandslideTiles();
+        bag.fill();
         shuffleBag();
     }
 
-    private void addMosaicTiles() {
-        for (int i = 0; i < 9; i++) {
-            SimpleTile genericTile = new SimpleTile("green");
-            MosaicT mosaic = new MosaicT(genericTile);
-            bag.add(mosaic);
-        }
-        for (int i = 0; i < 9; i++) {
-            SimpleTile genericTile = new SimpleTile("red");
-            MosaicT mosaic = new MosaicT(genericTile);
-            bag.add(mosaic);
-        }
-        for (int i = 0; i < 9; i++) {
-            SimpleTile genericTile = new SimpleTile("yellow");
-            MosaicT mosaic = new MosaicT(genericTile);
-            bag.add(mosaic);
-        }
+    private void shuffleBag() {
+        bag.shuffle(random);
     }
 
-    private void addStatueTiles() {
-        for (int i = 0; i < 12; i++) {
-            SimpleTile genericTile = new SimpleTile("caryatid");
-            StatueT statue = new StatueT(genericTile);
-            bag.add(statue);
-        }
-        for (int i = 0; i < 12; i++) {
-            SimpleTile genericTile = new SimpleTile("sphinx");
-            StatueT statue = new StatueT(genericTile);
-            bag.add(statue);
-        }
+    /**
+     * reorders the tiles still in the bag, used by search bots to sample unseen draws
+     *
+     * @param random random stream of the sampler
+     */
+    public void shuffleRemaining(RandomGenerator random) {
+        bag.shuffle(random);
     }
 
-    private void addSkeletonTiles() {
-        for (int i = 0; i < 10; i++) {
-            SimpleTile genericTile = new SimpleTile("adult_top");
-            SkeletonT skeleton = new SkeletonT(genericTile);
-            bag.add(skeleton);
-        }
-        for (int i = 0; i < 10; i++) {
-            SimpleTile genericTile = new SimpleTile("adult_bottom");
-            SkeletonT skeleton = new SkeletonT(genericTile);
-            bag.add(skeleton);
-        }
-        for (int i = 0; i < 5; i++) {
-            SimpleTile genericTile = new SimpleTile("child_top");
-            SkeletonT skeleton = new SkeletonT(genericTile);
-            bag.add(skeleton);
-        }
-        for (int i = 0; i < 5; i++) {
-            SimpleTile genericTile = new SimpleTile("child_bottom");
-            SkeletonT skeleton = new SkeletonT(genericTile);
-            bag.add(skeleton);
+    public List<Tile> drawFromBag(int count) {
+        List<Tile> drawn = new ArrayList<>();
+        for (int i = 0; i < count && !bag.isEmpty(); i++) {
+            drawn.add(TileCode.toTile(bag.draw()));
         }
+        return drawn;
     }
 
-    private void addAmphoraTiles() {
-        String[] colors = {"blue", "brown", "red", "green", "yellow", "purple"};
-        for (String color : colors) {
-            for (int i = 0; i < 5; i++) {
-                SimpleTile genericTile = new SimpleTile(color);
-                AmphoraT amphora = new AmphoraT(genericTile);
-                bag.add(amphora);
-            }
-        }
+    /**
+     * draws one tile code from the bag without creating any object
+     *
+     * @return the code or TileCode.NONE if the bag is empty
+     */
+    public byte drawCode() {
+        return bag.draw();
     }
 
-    private void addLandslideTiles() {
-        for (int i = 0; i < 24; i++) {
-            SimpleTile genericTile = new SimpleTile("landslide");
-            LandslideT landslide = new LandslideT(genericTile);
-            bag.add(landslide);
-        }
+    public int getBagSize() {
+        return bag.remaining();
     }
 
-    private void shuffleBag() {
-        for (int i = 0; i < bag.size(); i++) {
-            int j = random.nextInt(bag.size());
-            Tile temp = bag.get(i);
-            bag.set(i, bag.get(j));
-            bag.set(j, temp);
+    public void placeTileInArea(Tile tile) {
+        if (tile.getCode() == TileCode.NONE) {
+            return;
+        }
+        if (TileCode.kindOf(tile.getCode()) == TileCode.LANDSLIDE) {
+            placeLandslide();
+        } else {
+            areas[TileCode.kindOf(tile.getCode())].addCode(tile.getCode());
         }
     }
 
-    public List<Tile> drawFromBag(int count) {
-        List<Tile> drawn = new ArrayList<>();
-        for (int i = 0; i < count && !bag.isEmpty(); i++) {
-            drawn.add(bag.removeFirst());
+    /**
+     * places a drawn tile in the area of its kind
+     *
+     * @param code tile code
+     *
+     * {@code @pre} code is a valid tile code
+     *
+     * {@code @post} the tile is in its area or counted as a landslide
+     */
+    public void placeTileCode(byte code) {
+        if (TileCode.kindOf(code) == TileCode.LANDSLIDE) {
+            placeLandslide();
+        } else {
+            areas[TileCode.kindOf(code)].addCode(code);
         }
-        return drawn;
     }
 
-    public void placeTileInArea(Tile tile) {
-        if (tile instanceof MosaicT) {
-            mosaicArea.addTile(tile);
-        } else if (tile instanceof StatueT) {
-            statueArea.addTile(tile);
-        } else if (tile instanceof SkeletonT) {
-            skeletonArea.addTile(tile);
-        } else if (tile instanceof AmphoraT) {
-            amphoraArea.addTile(tile);
-        } else if (tile instanceof LandslideT) {
-            if (landslideTiles.size() < 16) {
-                landslideTiles.add(tile);
-            }
+    private void placeLandslide() {
+        if (landslideCount < 16) {
+            landslideCount++;
+            changes.mark(ChangeBus.LANDSLIDES);
         }
     }
 
+    /**
+     * returns the area that collects one kind of tile
+     *
+     * @param kind TileCode.MOSAIC, STATUE, SKELETON or AMPHORA
+     * @return the matching area
+     */
+    public AreaType getArea(int kind) {
+        return areas[kind];
+    }
+
+    public AreaType getArea(Area area) {
+        return areas[area.ordinal()];
+    }
+
     public List<Tile> getAreaTiles(String areaType) {
-        return switch (areaType.toLowerCase()) {
-            case "mosaic" -> mosaicArea.getTiles();
-            case "statue" -> statueArea.getTiles();
-            case "skeleton" -> skeletonArea.getTiles();
-            case "amphora" -> amphoraArea.getTiles();
-            default -> new ArrayList<>();
-        };
+        Area area = Area.of(areaType);
+        return area == null ? List.of() : areas[area.ordinal()].getTiles();
     }
 
     public List<Tile> getLandslideTiles() {
-        return new ArrayList<>(landslideTiles);
+        List<Tile> landslides = new ArrayList<>(landslideCount);
+        for (int i = 0; i < landslideCount; i++) {
+            landslides.add(TileCode.toTile(TileCode.LANDSLIDE_TILE));
+        }
+        return landslides;
+    }
+
+    public int getLandslideCount() {
+        return landslideCount;
     }
 
     public Tile takeTileByIndex(String areaType, int index) {
-        AreaType targetArea = switch (areaType.toLowerCase()) {
-            case "mosaic" -> mosaicArea;
-            case "statue" -> statueArea;
-            case "skeleton" -> skeletonArea;
-            case "amphora" -> amphoraArea;
-            default -> null;
-        };
-
-        if (targetArea != null) {
-            return targetArea.removeTileByIndex(index);
+        Area area = Area.of(areaType);
+
+        if (area != null) {
+            return areas[area.ordinal()].removeTileByIndex(index);
         }
 
         return null;
     }
 
     public List<Tile> takeFromArea(String areaType, int count) {
-        return switch (areaType) {
-            case "mosaic" -> mosaicArea.removeTiles(count);
-            case "statue" -> statueArea.removeTiles(count);
-            case "skeleton" -> skeletonArea.removeTiles(count);
-            case "amphora" -> amphoraArea.removeTiles(count);
-            default -> new ArrayList<>();
-        };
+        Area area = Area.of(areaType);
+        return area == null ? new ArrayList<>() : areas[area.ordinal()].removeTiles(count);
     }
 
     public void addPlayer(Player player) {
+        player.attach(changes, ChangeBus.player(players.size()));
         players.add(player);
     }
 //
@@ -193,9 +166,72 @@ public class Board {
 
     public void nextPlayer() {
         currentPlayer = (currentPlayer + 1) % players.size();
+        changes.mark(ChangeBus.TURN);
+    }
+
+    /**
+     * returns the bus that reports what changed in this game, for views
+     *
+     * @return change bus of this board
+     */
+    public ChangeBus getChanges() {
+        return changes;
+    }
+
+    TileBag getBag() {
+        return bag;
+    }
+
+    /**
+     * hash of what the next draws will deal, which the position hash of GameEngine does not cover
+     *
+     * @param count how many tiles from the top of the bag
+     * @return hash of their codes in draw order
+     */
+    public long bagHash(int count) {
+        return bag.hashAhead(count);
+    }
+
+    void restoreTurn(int landslideCount, int currentPlayer) {
+        this.landslideCount = landslideCount;
+        this.currentPlayer = currentPlayer;
+        changes.mark(ChangeBus.LANDSLIDES | ChangeBus.TURN);
+    }
+
+    void clearPlayers() {
+        players.clear();
+    }
+
+    /**
+     * reverts placeTileCode for one tile of a code
+     */
+    void unplaceTileCode(byte code, boolean countedLandslide) {
+        if (TileCode.kindOf(code) == TileCode.LANDSLIDE) {
+            if (countedLandslide) {
+                landslideCount--;
+                changes.mark(ChangeBus.LANDSLIDES);
+            }
+        } else {
+            areas[TileCode.kindOf(code)].removeLastCode(code);
+        }
+    }
+
+    int getCurrentPlayerIndex() {
+        return currentPlayer;
+    }
+
+    /**
+     * @return Zobrist hash of the areas and the landslides
+     */
+    long hash() {
+        long hash = Zobrist.field(Zobrist.LANDSLIDES, landslideCount);
+        for (AreaType area : areas) {
+            hash ^= area.getHash();
+        }
+        return hash;
     }
 
     public boolean isGameOver() {
-        return landslideTiles.size() >= 16;
+        return landslideCount >= 16;
     }
 }
\ No newline at end of file
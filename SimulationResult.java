@@ -0,0 +1,54 @@
+package Controller;
+
+/**
+ * totals and throughput of one simulation batch
+ */
+public class SimulationResult {
+    private final long games;
+    private final long turns;
+    private final long[] winsPerSeat;
+    private final long elapsedNanos;
+
+    public SimulationResult(long games, long turns, long[] winsPerSeat, long elapsedNanos) {
+        this.games = games;
+        this.turns = turns;
+        this.winsPerSeat = winsPerSeat.clone();
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getTurns() {
+        return turns;
+    }
+
+    public long getWins(int seat) {
+        return winsPerSeat[seat];
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    public double turnsPerSecond() {
+        return elapsedNanos == 0 ? 0 : turns * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("games: %d, turns: %d, time: %.3f s%n", games, turns, elapsedNanos / 1e9));
+        report.append(String.format("games/sec: %.0f, turns/sec: %.0f%n", gamesPerSecond(), turnsPerSecond()));
+        for (int seat = 0; seat < winsPerSeat.length; seat++) {
+            report.append(String.format("seat %d wins: %d (%.1f%%)%n", seat + 1, winsPerSeat[seat],
+                    games == 0 ? 0 : 100.0 * winsPerSeat[seat] / games));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,169 @@
+package Controller;
+
+import AI.BotPolicy;
+import AI.GreedyBot;
+import AI.RandomBot;
+import Model.Board;
+import Model.GameEngine;
+import Model.Player;
+import Model.RandomStreams;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator;
+
+/**
+ * plays complete games without any user interface, one bot policy per seat
+ * games are split across all cores with fork/join, every game gets its own engine and seed
+ * a game's seed only depends on the master seed and its number, so the results do not depend on the pool
+ *
+ * {@code @invariant} no Swing or View class is referenced, so headless runs never load the toolkit
+ */
+public class SimulationRunner {
+    private static final int SPLIT_THRESHOLD = 64;
+    private static final int TALLY_GAMES = 0;
+    private static final int TALLY_TURNS = 1;
+    private static final int TALLY_WINS = 2;
+
+    private final BotPolicy[] seats;
+    private final ForkJoinPool pool;
+
+    public SimulationRunner(BotPolicy[] seats) {
+        this(seats, ForkJoinPool.commonPool());
+    }
+
+    public SimulationRunner(BotPolicy[] seats, ForkJoinPool pool) {
+        if (seats.length != 4) {
+            throw new IllegalArgumentException("a game needs exactly 4 seats");
+        }
+        this.seats = seats.clone();
+        this.pool = pool;
+    }
+
+    /**
+     * plays a batch of games in parallel
+     *
+     * @param games number of games to play
+     * @param masterSeed seed the per-game seeds are derived from
+     * @return totals and throughput of the batch
+     *
+     * {@code @pre} games is not negative
+     *
+     * {@code @post} every game was played from initializeGame until the board reported game over
+     */
+    public SimulationResult run(int games, long masterSeed) {
+        long start = System.nanoTime();
+        long[] tally = pool.invoke(new Batch(0, games, new RandomStreams(masterSeed)));
+        long elapsed = System.nanoTime() - start;
+
+        long[] wins = new long[seats.length];
+        System.arraycopy(tally, TALLY_WINS, wins, 0, wins.length);
+        return new SimulationResult(tally[TALLY_GAMES], tally[TALLY_TURNS], wins, elapsed);
+    }
+
+    /**
+     * plays one full game on the calling thread
+     *
+     * @param seed seed of the game's bag and of the bots' choices
+     * @param tally counters the game adds its turns and winner to
+     */
+    void playGame(long seed, long[] tally) {
+        GameEngine engine = new GameEngine(seed);
+        engine.initializeGame();
+        int turns = play(engine, seats, RandomStreams.bots(seed));
+        Player winner = engine.checkWinner();
+
+        tally[TALLY_GAMES]++;
+        tally[TALLY_TURNS] += turns;
+        if (winner != null) {
+            tally[TALLY_WINS + engine.getPlayers().indexOf(winner)]++;
+        }
+    }
+
+    /**
+     * plays an initialized game to its end, one bot policy per seat
+     *
+     * @param engine game to play, from now on owned by the caller's thread
+     * @param seats policy of every seat, in GameEngine.getPlayers() order
+     * @param random random stream of the bots' choices
+     * @return number of turns played
+     *
+     * {@code @post} the board reports game over and the statues are scored, checkWinner() gives the winner
+     */
+    public static int play(GameEngine engine, BotPolicy[] seats, RandomGenerator random) {
+        Board board = engine.getBoard();
+        byte[] drawn = new byte[4];
+
+        int turns = 0;
+        while (!board.isGameOver()) {
+            Player current = engine.getCurrentPlayer();
+            if (engine.executePlayerTurn(drawn) == 0) {
+                break;
+            }
+
+            if (!board.isGameOver()) {
+                BotPolicy policy = seats[engine.getPlayers().indexOf(current)];
+                String area = policy.chooseArea(engine, current, random);
+                if (area != null) {
+                    current.addTiles(board.takeFromArea(area, 2));
+                }
+            }
+
+            engine.nextTurn();
+            turns++;
+        }
+
+        engine.calculateStatueScores();
+        return turns;
+    }
+
+    private class Batch extends RecursiveTask<long[]> {
+        private final int from;
+        private final int to;
+        private final RandomStreams streams;
+
+        Batch(int from, int to, RandomStreams streams) {
+            this.from = from;
+            this.to = to;
+            this.streams = streams;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                long[] tally = new long[TALLY_WINS + seats.length];
+                for (int i = from; i < to; i++) {
+                    playGame(streams.gameSeed(i), tally);
+                }
+                return tally;
+            }
+
+            int mid = (from + to) >>> 1;
+            Batch left = new Batch(from, mid, streams);
+            left.fork();
+            long[] right = new Batch(mid, to, streams).compute();
+            long[] tally = left.join();
+            for (int i = 0; i < tally.length; i++) {
+                tally[i] += right[i];
+            }
+            return tally;
+        }
+    }
+
+    /**
+     * command line entry for balance runs: [games] [seed]
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+
+        BotPolicy[] seats = {new GreedyBot(), new RandomBot(), new GreedyBot(), new RandomBot()};
+        SimulationRunner runner = new SimulationRunner(seats);
+
+        runner.run(Math.min(games, 10_000), seed);
+        SimulationResult result = runner.run(games, seed);
+
+        System.out.println("=== Simulation on " + runner.pool.getParallelism() + " workers, seed " + seed + " ===");
+        System.out.println(result);
+    }
+}
@@ -0,0 +1,85 @@
+package Test;
+
+import AI.*;
+import Controller.SimulationResult;
+import Controller.SimulationRunner;
+import Model.GameEngine;
+import Model.Player;
+import Model.RandomStreams;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class SimulationRunnerTest {
+    private final BotPolicy[] seats = {new GreedyBot(), new RandomBot(), new GreedyBot(), new RandomBot()};
+
+    @Test
+    public void testAllGamesFinish() {
+        SimulationResult result = new SimulationRunner(seats).run(500, 1L);
+
+        assertEquals(500, result.getGames());
+        assertTrue(result.getTurns() >= 500);
+        long wins = 0;
+        for (int seat = 0; seat < 4; seat++) {
+            wins += result.getWins(seat);
+        }
+        assertEquals(500, wins);
+    }
+
+    @Test
+    public void testSameSeedSameOutcome() {
+        SimulationResult first = new SimulationRunner(seats).run(300, 99L);
+        SimulationResult second = new SimulationRunner(seats).run(300, 99L);
+
+        assertEquals(first.getTurns(), second.getTurns());
+        for (int seat = 0; seat < 4; seat++) {
+            assertEquals(first.getWins(seat), second.getWins(seat));
+        }
+    }
+
+    @Test
+    public void testStatuePointsReachTheWinner() {
+        boolean statuesDecided = false;
+        for (long seed = 0; seed < 200 && !statuesDecided; seed++) {
+            GameEngine engine = new GameEngine(seed);
+            engine.initializeGame();
+            SimulationRunner.play(engine, seats, RandomStreams.bots(seed));
+            List<Player> players = engine.getPlayers();
+            int[] statues = new int[players.size()];
+            int tileLeader = 0;
+            for (int seat = 0; seat < players.size(); seat++) {
+                statues[seat] = players.get(seat).getStatuePoints();
+                if (players.get(seat).tileScore() > players.get(tileLeader).tileScore()) {
+                    tileLeader = seat;
+                }
+            }
+
+            Player winner = engine.checkWinner();
+            if (winner == null) continue;
+            for (int seat = 0; seat < players.size(); seat++) {
+                Player player = players.get(seat);
+                assertEquals(statues[seat], player.getStatuePoints());
+                assertTrue(winner.calculateScore() >= player.tileScore() + statues[seat]);
+            }
+            statuesDecided = players.indexOf(winner) != tileLeader;
+        }
+        assertTrue("no game of 200 was decided by the statues", statuesDecided);
+    }
+
+    @Test
+    public void testWorkerCountDoesNotChangeTheOutcome() {
+        SimulationResult one;
+        SimulationResult four;
+        try (ForkJoinPool single = new ForkJoinPool(1); ForkJoinPool pool = new ForkJoinPool(4)) {
+            one = new SimulationRunner(seats, single).run(300, 5L);
+            four = new SimulationRunner(seats, pool).run(300, 5L);
+        }
+
+        assertEquals(one.getTurns(), four.getTurns());
+        for (int seat = 0; seat < 4; seat++) {
+            assertEquals(one.getWins(seat), four.getWins(seat));
+        }
+    }
+}
@@ -3,8 +3,8 @@ package Model;
 /**
  * interface that represents a character card
  * character cards give the player a unique, single-use ability
- *
- * @invariant isUsed() is true if the card has been used exactly once.
+ * the cards hold no state of their own, Player.isCardUsed records which ones were played
+ * so a game can be copied, restored and undone without touching the card objects
  */
 public interface Charactercard {
 
@@ -13,25 +13,15 @@ public interface Charactercard {
      *
      * @param player the player who uses the ability
      * @param board the game board that may be affected
+     * @param move packed MoveCode.USE_CARD move carrying the chosen area and tile index or count
+     * @return the tiles the ability moved to the player, packed by TakenTiles
      *
 
-     * @pre !isUsed() (the card must be unused).
+     * @pre the move is legal for the player, see MoveGenerator
      *
-     * @post isUsed() is true (the card is now marked as used).
      * @post the game state (player or board) is updated according to the ability rules
      */
-    void useAbility(Player player, Board board);
-
-    /**
-     * checks if the ability of this card has already been used in the game
-     *
-     * @return boolean true if used, false otherwise
-     *
-     * @pre true (no special pre-conditions)
-     *
-     * @post returns the internal usage status of the card
-     */
-    boolean isUsed();
+    long useAbility(Player player, Board board, int move);
 
     /**
      * returns the name of the character card
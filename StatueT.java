@@ -2,7 +2,6 @@ package Model;
 
 public class ExcavatorCard implements Charactercard{
     private String cardName="Excavator";
-    private boolean used = false;
 
     @Override
     /*
@@ -12,21 +11,16 @@ public class ExcavatorCard implements Charactercard{
 
       @pre player is not null and it is the current player's turn
      * @pre board is not null
-     * @pre !isUsed() (the ability has not been used this game)
+     * @pre the player has not used the card this game
      *
-     * @post isUsed is true
-     * @post the player is marked with a delayed action, targeting a selected area on the board
+     * @post up to count tiles of the area chosen this turn are in the player's collection
      */
-    public void useAbility(Player player, Board board) {
-        if (used) {
-            return;
+    public long useAbility(Player player, Board board, int move) {
+        long taken = TakenTiles.NONE;
+        for (int i = 0; i < MoveCode.count(move); i++) {
+            taken = TakenTiles.take(player, board, player.getChosenArea(), 0, taken);
         }
-        used = true;
-    }
-
-    @Override
-    public boolean isUsed() {
-        return used;
+        return taken;
     }
 
     @Override
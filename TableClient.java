@@ -0,0 +1,182 @@
+package Network;
+
+import Controller.DeltaDecoder;
+import Controller.GameStateDTO;
+import Model.Move;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * one seat or spectator at a remote table
+ * a reader thread rebuilds the position from keyframes and deltas and hands the views a GameStateDTO for every update,
+ * just like a GameLoop does for a local game, so the Screen shows either without knowing which it is
+ * a delta that does not follow the last version makes it ask the server for a keyframe, once until one arrives
+ *
+ * {@code @invariant} the decoder and resyncing are only touched by the reader thread
+ */
+public final class TableClient implements Closeable {
+
+    /**
+     * hears about moves the server turned down
+     */
+    public interface RejectionListener {
+        /**
+         * @param move the packed move that was sent
+         * @param reason one of the Protocol.REASON constants
+         */
+        void onRejected(int move, int reason);
+    }
+
+    private final SocketChannel channel;
+    private final Executor publisher;
+    private final List<Consumer<GameStateDTO>> views = new CopyOnWriteArrayList<>();
+    private final List<RejectionListener> rejectionListeners = new CopyOnWriteArrayList<>();
+    private final ByteBuffer in = ByteBuffer.allocate(Protocol.HEADER + Protocol.MAX_FRAME);
+    private final Thread reader;
+    private final DeltaDecoder decoder = new DeltaDecoder();
+    private volatile GameStateDTO latest;
+    private volatile int table;
+    private volatile int seat = -1;
+    private boolean resyncing;
+
+    private TableClient(SocketChannel channel, Executor publisher) {
+        this.channel = channel;
+        this.publisher = publisher;
+        this.reader = new Thread(this::readLoop, "table-client");
+        reader.setDaemon(true);
+    }
+
+    /**
+     * connects and joins a table
+     *
+     * @param address the server
+     * @param table id of the table, it is created if nobody sits there yet
+     * @param publisher runs view updates on the views' thread, e.g. SwingUtilities::invokeLater
+     * @return the connected client
+     */
+    public static TableClient connect(InetSocketAddress address, int table, Executor publisher) throws IOException {
+        SocketChannel channel = SocketChannel.open(address);
+        channel.socket().setTcpNoDelay(true);
+        TableClient client = new TableClient(channel, publisher);
+        client.reader.start();
+        client.write(Protocol.join(table));
+        return client;
+    }
+
+    public void addView(Consumer<GameStateDTO> view) {
+        views.add(view);
+        GameStateDTO current = latest;
+        if (current != null) {
+            publisher.execute(() -> view.accept(current));
+        }
+    }
+
+    public void removeView(Consumer<GameStateDTO> view) {
+        views.remove(view);
+    }
+
+    public void addRejectionListener(RejectionListener listener) {
+        rejectionListeners.add(listener);
+    }
+
+    /**
+     * sends a move for this client's seat, the answer arrives as a new state or a rejection
+     *
+     * @param move typed move
+     */
+    public void send(Move move) throws IOException {
+        write(Protocol.move(move.encode()));
+    }
+
+    /**
+     * @return the seat given by the server, -1 while watching or before the welcome arrived
+     */
+    public int getSeat() {
+        return seat;
+    }
+
+    public int getTable() {
+        return table;
+    }
+
+    /**
+     * @return the last position received, null before the first one
+     */
+    public GameStateDTO getLatest() {
+        return latest;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private synchronized void write(ByteBuffer frame) throws IOException {
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+    }
+
+    private void readLoop() {
+        try {
+            while (channel.read(in) >= 0) {
+                in.flip();
+                int length;
+                while ((length = Protocol.completeFrame(in)) >= 0) {
+                    int end = in.position() + Protocol.HEADER + length;
+                    int limit = in.limit();
+                    byte type = Protocol.openFrame(in, length);
+                    in.limit(end);
+                    handle(type);
+                    in.limit(limit).position(end);
+                }
+                in.compact();
+            }
+        } catch (IOException e) {
+            if (channel.isOpen()) {
+                System.err.println("table client: " + e.getMessage());
+            }
+        }
+    }
+
+    private void handle(byte type) throws IOException {
+        switch (type) {
+            case Protocol.WELCOME -> {
+                table = in.getInt();
+                seat = in.get();
+            }
+            case Protocol.STATE -> {
+                GameStateDTO next = decoder.apply(in);
+                if (next == null) {
+                    if (!resyncing) {
+                        resyncing = true;
+                        write(Protocol.resync());
+                    }
+                    return;
+                }
+                resyncing = false;
+                latest = next;
+                for (Consumer<GameStateDTO> view : views) {
+                    publisher.execute(() -> view.accept(next));
+                }
+            }
+            case Protocol.REJECTED -> {
+                int move = in.getInt();
+                int reason = in.get();
+                for (RejectionListener listener : rejectionListeners) {
+                    publisher.execute(() -> listener.onRejected(move, reason));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package Network;
+
+import Controller.DeltaEncoder;
+import Controller.GameStateDTO;
+import Model.GameEngine;
+import Model.MoveCode;
+import Model.MoveGenerator;
+import Model.MoveJournal;
+import Model.WriteAheadLog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * hosts many tables over non blocking sockets, one selector thread does all the work
+ * every table owns its own GameEngine, a move costs a legality check and one make,
+ * so a single thread keeps up with thousands of tables
+ *
+ * a table is created by the first JOIN that names it and lives until the server closes
+ * seats are handed out in join order, later connections watch
+ * with a WriteAheadLog a move reaches the table only once it is durable, and a restart resumes every
+ * unfinished table
+ * every connection queues at most sendLimit bytes, see SendQueue, a receiver that falls behind gets one keyframe
+ * instead of the deltas it missed and one that stops reading altogether is dropped
+ *
+ * {@code @invariant} tables and connections are only touched by the selector thread
+ */
+public final class TableServer implements Closeable {
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    /** versions between two whole snapshots, for receivers that lost their place and do not ask with RESYNC */
+    static final int KEYFRAME_INTERVAL = 64;
+    /** bytes queued for one connection by default, a few hundred deltas */
+    static final int SEND_LIMIT = 1 << 16;
+
+    private final Map<Integer, Table> tables = new HashMap<>();
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile int tableCount;
+    private volatile Path journalDirectory;
+    private WriteAheadLog writeAheadLog;
+    /** tables whose moves the log has made durable since, handed over by the log's writer */
+    private final ConcurrentLinkedQueue<Table> durableTables = new ConcurrentLinkedQueue<>();
+    /** connections whose queue overflowed, dropped once the frames of this round are handed out */
+    private final List<Connection> stalled = new ArrayList<>();
+    private volatile int sendLimit = SEND_LIMIT;
+
+    /**
+     * opens the listening socket
+     *
+     * @param address where to listen, port 0 picks a free port
+     */
+    public TableServer(InetSocketAddress address) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(address, 1024);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        thread = new Thread(this::run, "table-server");
+        thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    /**
+     * keeps a MoveJournal of every table created from now on, named table-id.journal
+     *
+     * @param directory existing directory for the journals, or null to stop journaling new tables
+     */
+    public void setJournalDirectory(Path directory) {
+        this.journalDirectory = directory;
+    }
+
+    /**
+     * bounds the frames queued for every connection opened from now on
+     *
+     * @param bytes how many bytes one connection may have waiting for its socket
+     */
+    public void setSendLimit(int bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("send limit must be positive");
+        }
+        this.sendLimit = bytes;
+    }
+
+    /**
+     * logs every table created from now on to one shared log and reopens the unfinished tables it recovered,
+     * the log stays open when the server closes
+     *
+     * {@code @pre} the server is not started yet
+     */
+    public void setWriteAheadLog(WriteAheadLog log) {
+        this.writeAheadLog = log;
+        for (Map.Entry<Long, GameEngine> game : log.getRecovered().entrySet()) {
+            int id = (int) (long) game.getKey();
+            tables.put(id, new Table(game.getValue(), log.resume(id, game.getValue())));
+        }
+        tableCount = tables.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+        // the selector thread has stopped, so the tables are ours now
+        for (Table table : tables.values()) {
+            if (table.journal != null) {
+                table.journal.close();
+            }
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+                publishDurable();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    try {
+                        if (key.isReadable()) read(key);
+                        if (key.isValid() && key.isWritable()) ((Connection) key.attachment()).flush();
+                    } catch (IOException | RuntimeException e) {
+                        drop(key);
+                    }
+                }
+                dropStalled();
+            } catch (IOException e) {
+                System.err.println("table server: " + e.getMessage());
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(key, sendLimit));
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        ByteBuffer in = connection.in;
+        if (((SocketChannel) key.channel()).read(in) < 0) {
+            drop(key);
+            return;
+        }
+        in.flip();
+        int length;
+        while ((length = Protocol.completeFrame(in)) >= 0) {
+            int end = in.position() + Protocol.HEADER + length;
+            int limit = in.limit();
+            byte type = Protocol.openFrame(in, length);
+            handle(connection, type, in.limit(end));
+            in.limit(limit).position(end);
+        }
+        in.compact();
+    }
+
+    private void handle(Connection connection, byte type, ByteBuffer in) {
+        switch (type) {
+            case Protocol.JOIN -> join(connection, in.getInt());
+            case Protocol.MOVE -> play(connection, in.getInt());
+            case Protocol.RESYNC -> {
+                if (connection.table != null) connection.send(connection.table.keyframe.get());
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void join(Connection connection, int id) {
+        if (connection.table != null) {
+            connection.table.leave(connection);
+        }
+        Table table = tables.computeIfAbsent(id, key -> new Table(key, journalDirectory, writeAheadLog));
+        tableCount = tables.size();
+        connection.table = table;
+        connection.seat = table.sit(connection);
+        connection.send(Protocol.welcome(id, connection.seat));
+        connection.send(Protocol.state(table.encoder.keyframe()));
+    }
+
+    private void play(Connection connection, int move) {
+        Table table = connection.table;
+        int reason = table == null ? Protocol.REASON_NO_TABLE
+                : connection.seat < 0 ? Protocol.REASON_NOT_SEATED
+                : connection.seat != table.engine.getCurrentTurnIndex() ? Protocol.REASON_NOT_YOUR_TURN
+                : MoveGenerator.isLegal(table.engine, MoveGenerator.canonical(table.engine, move), moveBuffer) ? 0
+                : Protocol.REASON_ILLEGAL;
+        if (reason != 0) {
+            connection.send(Protocol.rejected(move, reason));
+            return;
+        }
+        table.engine.apply(move);
+        if (table.log == null) {
+            table.publish();
+            return;
+        }
+        if (table.engine.getBoard().isGameOver()) {
+            table.log.end();
+        }
+        table.dirty = true;
+        table.log.durable().thenRun(() -> {
+            durableTables.offer(table);
+            selector.wakeup();
+        });
+    }
+
+    /**
+     * publishes the tables whose every logged move is durable, a later move still in flight waits for its own turn
+     */
+    private void publishDurable() {
+        Table table;
+        while ((table = durableTables.poll()) != null) {
+            if (table.dirty && table.log.isDurable()) {
+                table.dirty = false;
+                table.publish();
+            }
+        }
+    }
+
+    /**
+     * drops outside of the loops over a table's connections, leaving a table changes its lists
+     */
+    private void dropStalled() {
+        for (Connection connection : stalled) {
+            drop(connection.key);
+        }
+        stalled.clear();
+    }
+
+    private void drop(SelectionKey key) {
+        Connection connection = (Connection) key.attachment();
+        if (connection != null && connection.table != null) {
+            connection.table.leave(connection);
+        }
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * one game and the connections at it
+     * everyone at a table receives every update, so one delta encoded per move serves them all
+     */
+    private static final class Table {
+        private final GameEngine engine;
+        private final Connection[] seats;
+        private final List<Connection> watchers = new ArrayList<>();
+        private final DeltaEncoder encoder = new DeltaEncoder(KEYFRAME_INTERVAL);
+        /** a STATE frame of the latest version, for a receiver that fell behind */
+        private final Supplier<ByteBuffer> keyframe = () -> Protocol.state(encoder.keyframe());
+        private MoveJournal journal;
+        private WriteAheadLog.Game log;
+        /** moves were played that are not published yet */
+        private boolean dirty;
+        private GameStateDTO last;
+
+        Table(int id, Path journalDirectory, WriteAheadLog writeAheadLog) {
+            // a random seed, players pick the table id and must not be able to deal the bag from it
+            engine = new GameEngine();
+            engine.initializeGame();
+            engine.setProfiled(true);
+            if (writeAheadLog != null) {
+                log = writeAheadLog.start(id, engine);
+            } else if (journalDirectory != null) {
+                try {
+                    journal = new MoveJournal(journalDirectory.resolve("table-" + id + ".journal"), engine);
+                } catch (IOException e) {
+                    System.err.println("table " + id + " is not journaled: " + e.getMessage());
+                }
+            }
+            seats = new Connection[engine.getPlayers().size()];
+            last = snapshot();
+        }
+
+        /**
+         * a table recovered from the log, everyone who joins gets the recovered position
+         */
+        Table(GameEngine engine, WriteAheadLog.Game log) {
+            this.engine = engine;
+            this.log = log;
+            engine.setProfiled(true);
+            seats = new Connection[engine.getPlayers().size()];
+            last = snapshot();
+        }
+
+        private GameStateDTO snapshot() {
+            engine.getBoard().getChanges().flush();
+            GameStateDTO state = GameStateDTO.of(engine);
+            encoder.encode(state);
+            return state;
+        }
+
+        int sit(Connection connection) {
+            for (int seat = 0; seat < seats.length; seat++) {
+                if (seats[seat] == null) {
+                    seats[seat] = connection;
+                    return seat;
+                }
+            }
+            watchers.add(connection);
+            return -1;
+        }
+
+        void leave(Connection connection) {
+            if (connection.seat >= 0 && seats[connection.seat] == connection) {
+                seats[connection.seat] = null;
+            }
+            watchers.remove(connection);
+        }
+
+        /**
+         * encodes what changed once and queues the same bytes for everyone at the table
+         */
+        void publish() {
+            last = last.next(engine, engine.getBoard().getChanges().flush());
+            ByteBuffer state = Protocol.state(encoder.encode(last)).asReadOnlyBuffer();
+            for (Connection seat : seats) {
+                if (seat != null) seat.send(state);
+            }
+            for (Connection watcher : watchers) {
+                watcher.send(state);
+            }
+        }
+    }
+
+    /**
+     * read buffer and queued writes of one socket
+     */
+    private final class Connection {
+        private final SelectionKey key;
+        private final ByteBuffer in = ByteBuffer.allocate(Protocol.HEADER + Protocol.MAX_FRAME);
+        private final SendQueue out;
+        private Table table;
+        private int seat = -1;
+        private boolean overflowed;
+
+        Connection(SelectionKey key, int sendLimit) {
+            this.key = key;
+            this.out = new SendQueue(sendLimit);
+        }
+
+        /**
+         * queues a frame for the next time the socket is writable,
+         * shared frames are duplicated so every connection has its own position
+         * a connection whose queue stays full is dropped after this round
+         */
+        void send(ByteBuffer frame) {
+            if (overflowed) {
+                return;
+            }
+            if (!out.add(frame.duplicate(), table == null ? null : table.keyframe)) {
+                overflowed = true;
+                stalled.add(this);
+                return;
+            }
+            if (out.size() == 1 && key.isValid()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+
+        void flush() throws IOException {
+            SocketChannel channel = (SocketChannel) key.channel();
+            while (!out.isEmpty()) {
+                ByteBuffer next = out.peek();
+                channel.write(next);
+                if (next.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                out.poll();
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package Test;
+
+import Controller.DeltaEncoder;
+import Controller.GameStateDTO;
+import Model.*;
+import Network.Protocol;
+import Network.TableClient;
+import Network.TableServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class TableServerTest {
+    private TableServer server;
+    private InetSocketAddress address;
+    private final List<TableClient> clients = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new TableServer(new InetSocketAddress("127.0.0.1", 0));
+        server.start();
+        address = new InetSocketAddress("127.0.0.1", server.getPort());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (TableClient client : clients) {
+            client.close();
+        }
+        server.close();
+    }
+
+    private TableClient join(int table, BlockingQueue<GameStateDTO> states) throws Exception {
+        TableClient client = TableClient.connect(address, table, Runnable::run);
+        clients.add(client);
+        client.addView(states::add);
+        assertNotNull(states.poll(5, TimeUnit.SECONDS));
+        return client;
+    }
+
+    @Test
+    public void testMovesReachEveryoneAtTheTable() throws Exception {
+        BlockingQueue<GameStateDTO> first = new LinkedBlockingQueue<>();
+        BlockingQueue<GameStateDTO> second = new LinkedBlockingQueue<>();
+        TableClient a = join(7, first);
+        TableClient b = TableClient.connect(address, 7, Runnable::run);
+        clients.add(b);
+        b.addView(second::add);
+        GameStateDTO dealt = second.poll(5, TimeUnit.SECONDS);
+        assertEquals(0, a.getSeat());
+        assertEquals(1, b.getSeat());
+
+        a.send(Move.DRAW);
+        GameStateDTO seenByA = first.poll(5, TimeUnit.SECONDS);
+        GameStateDTO seenByB = second.poll(5, TimeUnit.SECONDS);
+
+        assertEquals(seenByA, seenByB);
+        assertEquals(dealt.getBagSize() - 4, seenByA.getBagSize());
+        assertEquals(0, seenByA.getCurrentTurnIndex());
+    }
+
+    @Test
+    public void testServerRejectsMovesOutOfTurn() throws Exception {
+        BlockingQueue<Integer> reasons = new LinkedBlockingQueue<>();
+        join(3, new LinkedBlockingQueue<>());
+        TableClient second = join(3, new LinkedBlockingQueue<>());
+        second.addRejectionListener((move, reason) -> reasons.add(reason));
+
+        second.send(Move.DRAW);
+
+        assertEquals(Protocol.REASON_NOT_YOUR_TURN, (int) reasons.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFrameTooShortForItsTypeDropsTheConnection() throws Exception {
+        try (SocketChannel raw = SocketChannel.open(address)) {
+            ByteBuffer frames = ByteBuffer.allocate(16);
+            frames.putShort((short) 2).put(Protocol.MOVE).put((byte) 0);
+            frames.put(Protocol.join(5));
+            raw.write(frames.flip());
+
+            raw.socket().setSoTimeout(5000);
+            assertEquals(-1, raw.socket().getInputStream().read());
+        }
+        assertEquals(0, server.getTableCount());
+    }
+
+    /**
+     * reads one whole frame of a blocking socket, waiting at most five seconds
+     */
+    private static ByteBuffer readFrame(SocketChannel raw) throws Exception {
+        raw.socket().setSoTimeout(5000);
+        DataInputStream in = new DataInputStream(raw.socket().getInputStream());
+        byte[] frame = new byte[in.readUnsignedShort()];
+        in.readFully(frame);
+        return ByteBuffer.wrap(frame);
+    }
+
+    @Test
+    public void testResyncIsAnsweredWithAKeyframe() throws Exception {
+        try (SocketChannel raw = SocketChannel.open(address)) {
+            raw.write(Protocol.join(17));
+            assertEquals(Protocol.WELCOME, readFrame(raw).get());
+            ByteBuffer joined = readFrame(raw);
+
+            raw.write(Protocol.resync());
+            ByteBuffer resent = readFrame(raw);
+
+            assertEquals(Protocol.STATE, resent.get());
+            assertEquals(DeltaEncoder.KEYFRAME, resent.get());
+            assertEquals(joined, resent.position(0));
+        }
+    }
+
+    @Test
+    public void testClientAsksForAKeyframeAfterAGap() throws Exception {
+        GameEngine engine = new GameEngine(5);
+        engine.initializeGame();
+        ChangeBus changes = engine.getBoard().getChanges();
+        changes.flush();
+        GameStateDTO state = GameStateDTO.of(engine);
+        DeltaEncoder encoder = new DeltaEncoder(1000);
+
+        try (ServerSocketChannel fake = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0))) {
+            TableClient client = TableClient.connect((InetSocketAddress) fake.getLocalAddress(), 1, Runnable::run);
+            clients.add(client);
+            try (SocketChannel raw = fake.accept()) {
+                assertEquals(Protocol.JOIN, readFrame(raw).get());
+                raw.write(Protocol.state(encoder.encode(state)));
+                engine.apply(MoveCode.draw());
+                encoder.encode(state = state.next(engine, changes.flush()));
+                engine.apply(MoveCode.endTurn());
+                raw.write(Protocol.state(encoder.encode(state.next(engine, changes.flush()))));
+
+                assertEquals(Protocol.RESYNC, readFrame(raw).get());
+            }
+        }
+    }
+
+    @Test
+    public void testReceiverThatNeverReadsIsDropped() throws Exception {
+        server.setSendLimit(4096);
+        try (SocketChannel raw = SocketChannel.open()) {
+            raw.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+            raw.connect(address);
+            // every join is answered with a welcome and a keyframe, far more than the socket buffers hold
+            ByteBuffer joins = ByteBuffer.allocate(7 * 100_000);
+            while (joins.hasRemaining()) {
+                joins.put(Protocol.join(13));
+            }
+            joins.flip();
+            try {
+                while (joins.hasRemaining()) {
+                    raw.write(joins);
+                }
+            } catch (IOException dropped) {
+                // the server may hang up before it read every join
+            }
+
+            raw.socket().setSoTimeout(5000);
+            InputStream in = raw.socket().getInputStream();
+            byte[] buffer = new byte[1 << 16];
+            try {
+                while (in.read(buffer) >= 0) {
+                }
+            } catch (SocketTimeoutException e) {
+                fail("the server kept a connection that does not read");
+            } catch (IOException reset) {
+                // dropped with unread joins in its buffer
+            }
+        }
+        assertEquals(0, join(13, new LinkedBlockingQueue<>()).getSeat());
+    }
+
+    @Test
+    public void testLateComersWatch() throws Exception {
+        for (int seat = 0; seat < 4; seat++) {
+            assertEquals(seat, join(11, new LinkedBlockingQueue<>()).getSeat());
+        }
+        BlockingQueue<Integer> reasons = new LinkedBlockingQueue<>();
+        TableClient watcher = join(11, new LinkedBlockingQueue<>());
+        watcher.addRejectionListener((move, reason) -> reasons.add(reason));
+
+        watcher.send(Move.DRAW);
+
+        assertEquals(-1, watcher.getSeat());
+        assertEquals(Protocol.REASON_NOT_SEATED, (int) reasons.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testManyTablesPlayIndependently() throws Exception {
+        int tables = 200;
+        List<BlockingQueue<GameStateDTO>> states = new ArrayList<>();
+        for (int t = 0; t < tables; t++) {
+            BlockingQueue<GameStateDTO> queue = new LinkedBlockingQueue<>();
+            states.add(queue);
+            join(1000 + t, queue);
+        }
+        for (TableClient client : clients) {
+            client.send(Move.DRAW);
+            client.send(Move.END_TURN);
+        }
+        for (BlockingQueue<GameStateDTO> queue : states) {
+            assertNotNull(queue.poll(5, TimeUnit.SECONDS));
+            GameStateDTO after = queue.poll(5, TimeUnit.SECONDS);
+            assertEquals(1, after.getCurrentTurnIndex());
+        }
+        assertEquals(tables, server.getTableCount());
+    }
+
+    /**
+     * starts a server on the log, has seat 0 draw at table 9 and returns the state everyone at table 9 sees
+     */
+    private GameStateDTO playLogged(WriteAheadLog log, boolean draw) throws Exception {
+        try (TableServer logged = new TableServer(new InetSocketAddress("127.0.0.1", 0))) {
+            logged.setWriteAheadLog(log);
+            logged.start();
+            BlockingQueue<GameStateDTO> states = new LinkedBlockingQueue<>();
+            TableClient client = TableClient.connect(new InetSocketAddress("127.0.0.1", logged.getPort()), 9, Runnable::run);
+            clients.add(client);
+            client.addView(states::add);
+            GameStateDTO state = states.poll(5, TimeUnit.SECONDS);
+            if (draw) {
+                client.send(Move.DRAW);
+                state = states.poll(5, TimeUnit.SECONDS);
+            }
+            return state;
+        }
+    }
+
+    @Test
+    public void testLoggedTableResumesAfterRestart() throws Exception {
+        Path file = Files.createTempFile("tables", ".wal");
+        try {
+            GameStateDTO played;
+            try (WriteAheadLog log = new WriteAheadLog(file, 0, TimeUnit.MICROSECONDS)) {
+                played = playLogged(log, true);
+            }
+            assertNotNull(played);
+
+            try (WriteAheadLog log = new WriteAheadLog(file, 0, TimeUnit.MICROSECONDS)) {
+                assertEquals(1, log.getRecovered().size());
+                assertEquals(played, playLogged(log, false));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package Model;
+
+/**
+ * packs the tiles one move took out of the areas into a long, so the move can be undone without allocating
+ *
+ * layout: bits 0-2 number of tiles, bits 3-10 index of the first tile inside its area,
+ * then 6 bits per tile (area kind, tile code) in the order they were taken
+ * every tile after the first was taken from the front of its area
+ *
+ * {@code @invariant} at most MAX tiles are recorded, BITS bits are used in total
+ */
+public final class TakenTiles {
+    public static final int MAX = 4;
+    public static final int BITS = 35;
+    public static final long NONE = 0;
+
+    private TakenTiles() {
+    }
+
+    /**
+     * moves one tile from an area to the player and records it
+     *
+     * @param taken tiles taken so far by the same move
+     * @param kind area kind from TileCode
+     * @param index position of the tile, must be 0 unless it is the first tile of the move
+     * @return taken with the tile appended, unchanged if the area had no such tile
+     */
+    public static long take(Player player, Board board, int kind, int index, long taken) {
+        Tile tile = board.getArea(kind).removeTileByIndex(index);
+        if (tile == null) {
+            return taken;
+        }
+        player.addTileCode(tile.getCode());
+
+        int count = count(taken);
+        if (count == 0) {
+            taken |= (long) index << 3;
+        }
+        taken |= (long) (kind << 4 | tile.getCode()) << (11 + 6 * count);
+        return (taken & ~7L) | (count + 1);
+    }
+
+    /**
+     * gives every recorded tile back to its area, in reverse order and at its old position
+     */
+    public static void undo(Player player, Board board, long taken) {
+        for (int i = count(taken) - 1; i >= 0; i--) {
+            int entry = (int) (taken >>> (11 + 6 * i)) & 0x3F;
+            int kind = entry >>> 4;
+            player.removeLastTile(kind);
+            board.getArea(kind).insertTile(i == 0 ? firstIndex(taken) : 0, TileCode.toTile((byte) (entry & 0xF)));
+        }
+    }
+
+    public static int count(long taken) {
+        return (int) taken & 7;
+    }
+
+    public static int firstIndex(long taken) {
+        return (int) (taken >>> 3) & 0xFF;
+    }
+}
@@ -1,132 +1,106 @@
 package Model;
 
+import Metrics.Counter;
+import Metrics.Metrics;
+import Metrics.ScoreComputedEvent;
+import Metrics.TilesDrawnEvent;
+import Metrics.Timer;
+import Metrics.TurnEndedEvent;
+import Metrics.TurnStartedEvent;
+
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class GameEngine {
+    // recorded by profiled engines only, so bot playouts neither pay for them nor drown the played games
+    private static final Timer DRAW_TIMER = Metrics.timer("engine_draw", "time to draw tiles from the bag");
+    private static final Timer PLACE_TIMER = Metrics.timer("engine_place", "time to place the drawn tiles of a turn");
+    private static final Timer STATUE_TIMER = Metrics.timer("engine_statue_scores", "time to score the statues");
+    private static final Timer WINNER_TIMER = Metrics.timer("engine_check_winner", "time to check for a winner");
+    private static final Counter TILES_DRAWN = Metrics.counter("engine_tiles_drawn", "tiles drawn from the bag");
+    private static final AtomicInteger PROFILED_GAMES = new AtomicInteger();
+
     private List<Player> players = new ArrayList<>();
-    private static List<Tile> AllTiles = new ArrayList<>();
     private Board board;
     private int currentTurnIndex;
-    private Random random;
+    private final long seed;
+    private SplittableRandom random;
+    private MoveLog journal;
+    private final byte[] journalCodes = new byte[4];
+    private boolean profiled;
+    private int profiledGame;
+    private int profiledTurns;
+    private TurnEndedEvent turnEvent;
 
     public GameEngine() {
-        this.board = new Board();
-        this.random = new Random();
+        this(new Random().nextLong());
     }
 
     /**
-     * initializes the game with all components and players
-     *
-     * {@code @pre} the game state is uninitialized
+     * creates an engine whose bag and shuffles are driven by the given seed
      *
-     * {@code @post} players list is populated
-     * {@code @post} game components are initialized
-     * {@code @post} currentturnindex is set to 0
+     * @param seed seed of the per-game random stream
      */
-    public void initializeGame() {
-        initializeAllTiles();
-        board.initializeTiles();
-
-        String[] colors = {"1", "2", "3", "4"};
-        for (String color : colors) {
-            Player player = new Player(color);
-            players.add(player);
-            board.addPlayer(player);
-        }
+    public GameEngine(long seed) {
+        this.seed = seed;
+        this.random = RandomStreams.bag(seed);
+        this.board = new Board(random);
+    }
 
-        currentTurnIndex = 0;
+    /**
+     * @return seed of this game, the no argument constructor picks one at random
+     */
+    public long getSeed() {
+        return seed;
     }
 
     /**
-     * initializes and shuffles all tiles used in the game
+     * records every draw, move, end of turn, statue scoring and undo of this game from now on
      *
-     * {@code @pre} not initialized
+     * @param journal a MoveJournal or a game of a WriteAheadLog, or null to stop recording
      *
-     * {@code @post} alltiles contains all tiles shuffled
+     * {@code @pre} the game is fresh from initializeGame, or the log already holds everything before,
+     * so a replay of the seed starts where the log does
      */
-    private void initializeAllTiles() {
-        AllTiles.clear();
-
-        for (int i = 0; i < 9; i++) {
-            SimpleTile genericTile = new SimpleTile("green");
-            MosaicT mosaic = new MosaicT(genericTile);
-            AllTiles.add(mosaic);
-        }
-        for (int i = 0; i < 9; i++) {
-            SimpleTile genericTile = new SimpleTile("red");
-            MosaicT mosaic = new MosaicT(genericTile);
-            AllTiles.add(mosaic);
-        }
-        for (int i = 0; i < 9; i++) {
-            SimpleTile genericTile = new SimpleTile("yellow");
-            MosaicT mosaic = new MosaicT(genericTile);
-            AllTiles.add(mosaic);
-        }
-
-        for (int i = 0; i < 12; i++) {
-            SimpleTile genericTile = new SimpleTile("caryatid");
-            StatueT statue = new StatueT(genericTile);
-            AllTiles.add(statue);
-        }
-        for (int i = 0; i < 12; i++) {
-            SimpleTile genericTile = new SimpleTile("sphinx");
-            StatueT statue = new StatueT(genericTile);
-            AllTiles.add(statue);
-        }
-
-        for (int i = 0; i < 10; i++) {
-            SimpleTile genericTile = new SimpleTile("adult_top");
-            SkeletonT skeleton = new SkeletonT(genericTile);
-            AllTiles.add(skeleton);
-        }
-        for (int i = 0; i < 10; i++) {
-            SimpleTile genericTile = new SimpleTile("adult_bottom");
-            SkeletonT skeleton = new SkeletonT(genericTile);
-            AllTiles.add(skeleton);
-        }
-        for (int i = 0; i < 5; i++) {
-            SimpleTile genericTile = new SimpleTile("child_top");
-            SkeletonT skeleton = new SkeletonT(genericTile);
-            AllTiles.add(skeleton);
-        }
-        for (int i = 0; i < 5; i++) {
-            SimpleTile genericTile = new SimpleTile("child_bottom");
-            SkeletonT skeleton = new SkeletonT(genericTile);
-            AllTiles.add(skeleton);
-        }
+    public void setJournal(MoveLog journal) {
+        this.journal = journal;
+    }
 
-        String[] colors = {"blue", "brown", "red", "green", "yellow", "purple"};
-        for (String color : colors) {
-            for (int i = 0; i < 5; i++) {
-                SimpleTile genericTile = new SimpleTile(color);
-                AmphoraT amphora = new AmphoraT(genericTile);
-                AllTiles.add(amphora);
-            }
-        }
+    public MoveLog getJournal() {
+        return journal;
+    }
 
-        for (int i = 0; i < 24; i++) {
-            SimpleTile genericTile = new SimpleTile("landslide");
-            LandslideT landslide = new LandslideT(genericTile);
-            AllTiles.add(landslide);
+    /**
+     * hands the codes of the tiles just drawn to the journal, in draw order
+     */
+    private void journalDraw(int count) {
+        TileBag bag = board.getBag();
+        for (int i = 0; i < count; i++) {
+            journalCodes[i] = bag.drawnAgo(count - 1 - i);
         }
-
-        shuffleAllTiles();
+        journal.draw(journalCodes, count);
     }
 
     /**
-     * shuffles all tiles randomly
+     * initializes the game with all components and players
      *
-     * {@code @pre} alltiles is initialized
+     * {@code @pre} the game state is uninitialized
      *
-     * {@code @post} tiles are randomly reordered
+     * {@code @post} players list is populated
+     * {@code @post} game components are initialized
+     * {@code @post} currentturnindex is set to 0
      */
-    private void shuffleAllTiles() {
-        for (int i = 0; i < AllTiles.size(); i++) {
-            int j = random.nextInt(AllTiles.size());
-            Tile temp = AllTiles.get(i);
-            AllTiles.set(i, AllTiles.get(j));
-            AllTiles.set(j, temp);
+    public void initializeGame() {
+        board.initializeTiles();
+
+        String[] colors = {"1", "2", "3", "4"};
+        for (String color : colors) {
+            Player player = new Player(color);
+            players.add(player);
+            board.addPlayer(player);
         }
+
+        currentTurnIndex = 0;
     }
 
     /**
@@ -138,17 +112,16 @@ public class GameEngine {
      * {@code @pre} count is positive and enough tiles exist
      *
      * {@code @post} returned list contains drawn tiles
-     * {@code @post} drawn tiles are removed from alltiles
+     * {@code @post} drawn tiles are removed from the bag
      */
-    public static List<Tile> drawT(int count) {
-        List<Tile> drawnTiles = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            if (!AllTiles.isEmpty()) {
-                Tile tile = AllTiles.removeFirst();
-                drawnTiles.add(tile);
-            }
+    public List<Tile> drawT(int count) {
+        long start = profiled ? DRAW_TIMER.start() : 0;
+        List<Tile> drawn = board.drawFromBag(count);
+        if (profiled) {
+            DRAW_TIMER.stop(start);
+            TILES_DRAWN.add(drawn.size());
         }
-        return drawnTiles;
+        return drawn;
     }
 
     /**
@@ -192,6 +165,50 @@ public class GameEngine {
     public void nextTurn() {
         currentTurnIndex = (currentTurnIndex + 1) % players.size();
         board.nextPlayer();
+        if (journal != null) journal.endTurn();
+        if (profiled) {
+            turnEvent.commit();
+            startTurnEvent();
+        }
+    }
+
+    /**
+     * emits flight recorder events and records the engine timers for the turns, draws and scoring of this game,
+     * meant for the game a session plays, the scratch games of bots and simulations stay silent
+     *
+     * @param profiled true to emit events from now on, the current turn counts as started now
+     */
+    public void setProfiled(boolean profiled) {
+        if (profiled && !this.profiled) {
+            this.profiled = true;
+            profiledGame = PROFILED_GAMES.incrementAndGet();
+            startTurnEvent();
+        } else if (!profiled) {
+            this.profiled = false;
+            turnEvent = null;
+        }
+    }
+
+    public boolean isProfiled() {
+        return profiled;
+    }
+
+    private void startTurnEvent() {
+        Player player = getCurrentPlayer();
+        String color = player == null ? null : player.getColor();
+        profiledTurns++;
+
+        TurnStartedEvent started = new TurnStartedEvent();
+        started.game = profiledGame;
+        started.turn = profiledTurns;
+        started.player = color;
+        started.commit();
+
+        turnEvent = new TurnEndedEvent();
+        turnEvent.game = profiledGame;
+        turnEvent.turn = profiledTurns;
+        turnEvent.player = color;
+        turnEvent.begin();
     }
 
     /**
@@ -208,6 +225,23 @@ public class GameEngine {
             return null;
         }
 
+        long start = profiled ? WINNER_TIMER.start() : 0;
+        ScoreComputedEvent event = profiled ? new ScoreComputedEvent() : null;
+        if (event != null) event.begin();
+        try {
+            return findWinner();
+        } finally {
+            if (profiled) WINNER_TIMER.stop(start);
+            if (event != null) {
+                event.game = profiledGame;
+                event.turn = profiledTurns;
+                event.phase = "final";
+                event.commit();
+            }
+        }
+    }
+
+    private Player findWinner() {
         calculateAllScores();
 
         Player winner = null;
@@ -224,6 +258,22 @@ public class GameEngine {
         return winner;
     }
 
+    /**
+     * Zobrist hash of the position: area contents, what every player holds, used cards and turn state,
+     * the landslides and the side to move, the bag is not part of it
+     * the tile counts are kept up to date by every change of the model, so reading the hash costs
+     * a few operations per player and area
+     *
+     * @return equal for equal positions however they were reached
+     */
+    public long hash() {
+        long hash = board.hash() ^ Zobrist.field(Zobrist.SIDE, currentTurnIndex);
+        for (int seat = 0; seat < players.size(); seat++) {
+            hash ^= Long.rotateLeft(players.get(seat).hash(), 16 * seat);
+        }
+        return hash;
+    }
+
     /**
      * returns the game board
      *
@@ -242,25 +292,238 @@ public class GameEngine {
         return players;
     }
 
+    /**
+     * returns the seat index of the current player
+     *
+     * @return index into getPlayers()
+     */
+    public int getCurrentTurnIndex() {
+        return currentTurnIndex;
+    }
+
+    /**
+     * plays one packed move of the current player in place, for tree search without copying the game
+     *
+     * record layout: bits 0-3 type, 4-7 previous turn index, 8-17 previous turn state of the mover,
+     * bit 18 card was already used, 19-21 card, 22-25 drawn landslides that were counted, 26-28 tiles drawn,
+     * 29-63 tiles taken out of the areas as packed by TakenTiles
+     *
+     * @param move move built with MoveCode
+     * @return undo record to hand back to undo
+     *
+     * {@code @pre} the move is legal, see MoveGenerator
+     *
+     * {@code @post} undo(record) restores the position exactly
+     */
+    public long apply(int move) {
+        Player player = getCurrentPlayer();
+        int type = MoveCode.type(move);
+        long record = type | currentTurnIndex << 4 | (long) player.getTurnState() << 8;
+        long taken = TakenTiles.NONE;
+
+        switch (type) {
+            case MoveCode.DRAW -> {
+                TilesDrawnEvent event = profiled ? new TilesDrawnEvent() : null;
+                if (event != null) event.begin();
+                // tiles are placed as they are drawn, so the draw timer covers both here
+                long start = profiled ? DRAW_TIMER.start() : 0;
+                int count = 0;
+                while (count < 4) {
+                    byte code = board.drawCode();
+                    if (code == TileCode.NONE) {
+                        break;
+                    }
+                    int landslides = board.getLandslideCount();
+                    board.placeTileCode(code);
+                    if (board.getLandslideCount() != landslides) {
+                        record |= 1L << (22 + count);
+                    }
+                    count++;
+                }
+                if (profiled) {
+                    DRAW_TIMER.stop(start);
+                    TILES_DRAWN.add(count);
+                }
+                player.setDrawnThisTurn(true);
+                record |= (long) count << 26;
+                taken = takeProgrammerBonus(player);
+                if (journal != null) journalDraw(count);
+                if (event != null) commitDraw(event, count);
+            }
+            case MoveCode.TAKE -> {
+                int kind = MoveCode.area(move);
+                taken = TakenTiles.take(player, board, kind, MoveCode.index(move), taken);
+                player.notePick(kind);
+            }
+            case MoveCode.SELECT -> {
+                int kind = MoveCode.area(move);
+                int count = Math.min(MoveCode.count(move), 2);
+                for (int i = 0; i < count; i++) {
+                    taken = TakenTiles.take(player, board, kind, 0, taken);
+                    player.notePick(kind);
+                }
+            }
+            case MoveCode.END_TURN -> {
+                player.resetTurn();
+                nextTurn();
+            }
+            case MoveCode.USE_CARD -> {
+                if (player.isCardUsed(MoveCode.card(move))) {
+                    record |= 1L << 18;
+                }
+                record |= (long) MoveCode.card(move) << 19;
+                taken = player.useCharacterPower(board, move);
+            }
+            default -> throw new IllegalArgumentException("unknown move " + move);
+        }
+        if (journal != null && type != MoveCode.DRAW && type != MoveCode.END_TURN) {
+            journal.move(move);
+        }
+        return record | taken << 29;
+    }
+
+    /**
+     * takes back the latest applied move
+     *
+     * @param record value returned by apply
+     *
+     * {@code @pre} record belongs to the most recent move not yet undone
+     *
+     * {@code @post} the position equals the one before apply
+     */
+    public void undo(long record) {
+        int type = (int) (record & 0xF);
+        int previousTurn = (int) (record >>> 4) & 0xF;
+        Player player = players.get(previousTurn);
+
+        TakenTiles.undo(player, board, record >>> 29);
+
+        switch (type) {
+            case MoveCode.DRAW -> {
+                int count = (int) (record >>> 26) & 7;
+                TileBag bag = board.getBag();
+                for (int i = count - 1; i >= 0; i--) {
+                    board.unplaceTileCode(bag.drawnAgo(count - 1 - i), (record & 1L << (22 + i)) != 0);
+                }
+                bag.undraw(count);
+            }
+            case MoveCode.END_TURN -> {
+                currentTurnIndex = previousTurn;
+                board.restoreTurn(board.getLandslideCount(), previousTurn);
+            }
+            case MoveCode.USE_CARD -> {
+                if ((record & 1L << 18) == 0) {
+                    player.unmarkCardAsUsed(Player.CARD_NAMES[(int) (record >>> 19) & 7]);
+                }
+            }
+            case MoveCode.TAKE, MoveCode.SELECT -> {
+            }
+            default -> throw new IllegalArgumentException("unknown undo record " + record);
+        }
+        player.setTurnState((int) (record >>> 8) & 0x3FF);
+        if (journal != null) journal.undo();
+    }
+
+    /**
+     * gives a player the two tiles a Programmer card promised, right after their draw
+     *
+     * @return the tiles taken, packed by TakenTiles
+     */
+    private long takeProgrammerBonus(Player player) {
+        int kind = player.getProgrammerArea();
+        if (kind < 0) {
+            return TakenTiles.NONE;
+        }
+        player.setProgrammerArea(-1);
+        long taken = TakenTiles.take(player, board, kind, 0, TakenTiles.NONE);
+        return TakenTiles.take(player, board, kind, 0, taken);
+    }
+
+    /**
+     * makes sure the engine seats exactly the given players before a position is loaded into it
+     */
+    void restoreSeats(String[] colors, int currentTurnIndex) {
+        boolean same = players.size() == colors.length;
+        for (int i = 0; same && i < colors.length; i++) {
+            same = players.get(i).getColor().equals(colors[i]);
+        }
+        if (!same) {
+            players.clear();
+            board.clearPlayers();
+            for (String color : colors) {
+                Player player = new Player(color);
+                players.add(player);
+                board.addPlayer(player);
+            }
+        }
+        this.currentTurnIndex = currentTurnIndex;
+    }
+
     /**
      * executes a full player turn
      *
      * {@code @pre} game is initialized
      *
-     * {@code @post} tiles are drawn and placed
+     * {@code @post} tiles are drawn and placed, the current player has drawn this turn
+     * {@code @post} a pending Programmer bonus is given to the current player
      */
     public List<Tile> executePlayerTurn() {
         Player current = getCurrentPlayer();
         if (current == null) return null;
 
+        TilesDrawnEvent event = profiled ? new TilesDrawnEvent() : null;
+        if (event != null) event.begin();
         List<Tile> drawn = drawT(4);
+        long start = profiled ? PLACE_TIMER.start() : 0;
         for (Tile tile : drawn) {
             board.placeTileInArea(tile);
         }
+        if (profiled) PLACE_TIMER.stop(start);
+        current.setDrawnThisTurn(true);
+        takeProgrammerBonus(current);
+        if (journal != null) journalDraw(drawn.size());
+        if (event != null) commitDraw(event, drawn.size());
 
         return drawn;
     }
 
+    private void commitDraw(TilesDrawnEvent event, int count) {
+        event.game = profiledGame;
+        event.turn = profiledTurns;
+        event.count = count;
+        event.landslides = board.getLandslideCount();
+        event.gameOver = board.isGameOver();
+        event.commit();
+    }
+
+    /**
+     * executes the draw phase of a turn on tile codes only, for simulations
+     *
+     * @param drawn buffer that receives the codes of the drawn tiles
+     * @return number of tiles drawn, 0 when the bag is empty or there is no current player
+     *
+     * {@code @pre} drawn has room for 4 codes
+     *
+     * {@code @post} the drawn tiles are placed in their areas, the current player has drawn this turn
+     */
+    public int executePlayerTurn(byte[] drawn) {
+        if (getCurrentPlayer() == null) return 0;
+
+        int count = 0;
+        while (count < 4) {
+            byte code = board.drawCode();
+            if (code == TileCode.NONE) {
+                break;
+            }
+            board.placeTileCode(code);
+            drawn[count++] = code;
+        }
+        getCurrentPlayer().setDrawnThisTurn(true);
+        takeProgrammerBonus(getCurrentPlayer());
+        if (journal != null) journal.draw(drawn, count);
+        return count;
+    }
+
     /**
      * calculates statue scores for all players
      *
@@ -269,53 +532,47 @@ public class GameEngine {
      * {@code @post} statue points are assigned
      */
     public void calculateStatueScores() {
-        Map<Player, Integer> caryatidCounts = new HashMap<>();
-        Map<Player, Integer> sphinxCounts = new HashMap<>();
-
-        for (Player player : players) {
-            int caryatids = 0;
-            int sphinxes = 0;
-
-            for (StatueT statue : player.getStatueTiles()) {
-                if (statue.getColour().equals("caryatid")) {
-                    caryatids++;
-                } else if (statue.getColour().equals("sphinx")) {
-                    sphinxes++;
-                }
-            }
-
-            caryatidCounts.put(player, caryatids);
-            sphinxCounts.put(player, sphinxes);
+        long start = profiled ? STATUE_TIMER.start() : 0;
+        ScoreComputedEvent event = profiled ? new ScoreComputedEvent() : null;
+        if (event != null) event.begin();
+        int[] caryatids = new int[players.size()];
+        int[] sphinxes = new int[players.size()];
+        for (int seat = 0; seat < players.size(); seat++) {
+            caryatids[seat] = players.get(seat).getStatueCount(TileCode.CARYATID);
+            sphinxes[seat] = players.get(seat).getStatueCount(TileCode.SPHINX);
         }
 
-        assignStatuePoints(caryatidCounts);
-        assignStatuePoints(sphinxCounts);
+        // the majorities replace the points of the last scoring, scoring again never adds them twice
+        for (int seat = 0; seat < players.size(); seat++) {
+            players.get(seat).setStatuePoints(statuePoints(caryatids, seat) + statuePoints(sphinxes, seat));
+        }
+        if (journal != null) journal.statues();
+        if (profiled) STATUE_TIMER.stop(start);
+        if (event != null) {
+            event.game = profiledGame;
+            event.turn = profiledTurns;
+            event.phase = "statues";
+            event.commit();
+        }
     }
 
     /**
-     * assigns statue points based on counts
+     * statue points of one seat for one statue type: 6 for the most, 3 for more than the fewest
      *
-     * {@code @pre} statue counts are provided
-     *
-     * {@code @post} players receive statue points
+     * @param counts statues of that type per seat
+     * @return points of the seat, 0 when every seat holds as many
      */
-    private void assignStatuePoints(Map<Player, Integer> statueCounts) {
-        int maxCount = statueCounts.values().stream().max(Integer::compareTo).orElse(0);
-        int minCount = statueCounts.values().stream().min(Integer::compareTo).orElse(0);
+    private static int statuePoints(int[] counts, int seat) {
+        int maxCount = Arrays.stream(counts).max().orElse(0);
+        int minCount = Arrays.stream(counts).min().orElse(0);
+        int count = counts[seat];
 
-        if (maxCount == minCount) {
-            return;
+        if (maxCount == minCount || count == 0) {
+            return 0;
         }
-
-        for (Map.Entry<Player, Integer> entry : statueCounts.entrySet()) {
-            Player player = entry.getKey();
-            int count = entry.getValue();
-
-            if (count == maxCount && count > 0) {
-                player.addStatuePoints(6);
-            } else if (count > minCount && count > 0) {
-                player.addStatuePoints(3);
-            }
+        if (count == maxCount) {
+            return 6;
         }
+        return count > minCount ? 3 : 0;
     }
 }
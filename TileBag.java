@@ -0,0 +1,104 @@
+package Model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * the draw bag of one game stored as tile codes
+ * drawing only moves a cursor, so a game allocates nothing after the bag is filled
+ *
+ * {@code @invariant} 0 <= next <= size <= TileCode.BAG_SIZE
+ */
+public class TileBag {
+    private final byte[] tiles = new byte[TileCode.BAG_SIZE];
+    private int next;
+    private int size;
+
+    /**
+     * puts every tile of the game back into the bag in code order
+     *
+     * {@code @post} remaining() == TileCode.BAG_SIZE
+     */
+    public void fill() {
+        TileCode.fillBag(tiles);
+        next = 0;
+        size = TileCode.BAG_SIZE;
+    }
+
+    /**
+     * randomly reorders the tiles that are still in the bag
+     *
+     * @param random random stream of the game
+     */
+    public void shuffle(RandomGenerator random) {
+        RandomStreams.shuffle(tiles, next, size, random);
+    }
+
+    /**
+     * takes the next tile out of the bag
+     *
+     * @return the tile code or TileCode.NONE if the bag is empty
+     */
+    public byte draw() {
+        return next < size ? tiles[next++] : TileCode.NONE;
+    }
+
+    public int remaining() {
+        return size - next;
+    }
+
+    public boolean isEmpty() {
+        return next >= size;
+    }
+
+    /**
+     * puts the most recently drawn tiles back on top of the bag
+     */
+    void undraw(int count) {
+        next -= count;
+    }
+
+    /**
+     * returns a tile that was already drawn, 0 is the latest one
+     */
+    byte drawnAgo(int back) {
+        return tiles[next - 1 - back];
+    }
+
+    /**
+     * hashes the order of the next tiles, bags whose next count tiles are the same hash the same
+     *
+     * @param count how many tiles to cover, fewer when the bag runs out
+     * @return Zobrist hash of those codes, each at its place from the top of the bag
+     */
+    long hashAhead(int count) {
+        long hash = 0;
+        int end = Math.min(size, next + count);
+        for (int i = next; i < end; i++) {
+            hash ^= Zobrist.field(Zobrist.BAG, (long) (i - next) * TileCode.COUNT + tiles[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * copies the codes still in the bag, in draw order
+     *
+     * @return number of codes written
+     */
+    int writeRemaining(short[] out, int at) {
+        for (int i = next; i < size; i++) {
+            out[at++] = tiles[i];
+        }
+        return size - next;
+    }
+
+    /**
+     * replaces the bag contents with the given codes, the first one is drawn next
+     */
+    void restore(short[] in, int from, int count) {
+        for (int i = 0; i < count; i++) {
+            tiles[i] = (byte) in[from + i];
+        }
+        next = 0;
+        size = count;
+    }
+}
@@ -0,0 +1,139 @@
+package Model;
+
+/**
+ * compact one byte encoding of every tile kind and colour in the game
+ * codes are dense (0 .. COUNT-1) so they can index int[] counters directly
+ *
+ * {@code @invariant} kindOf(code) and colourOf(code) are defined for every code in [0, COUNT)
+ * {@code @invariant} toTile(code) always returns the same shared instance for a code
+ */
+public final class TileCode {
+    public static final int MOSAIC = 0;
+    public static final int STATUE = 1;
+    public static final int SKELETON = 2;
+    public static final int AMPHORA = 3;
+    public static final int LANDSLIDE = 4;
+    public static final int KIND_COUNT = 5;
+
+    public static final byte NONE = -1;
+
+    public static final byte MOSAIC_GREEN = 0;
+    public static final byte MOSAIC_RED = 1;
+    public static final byte MOSAIC_YELLOW = 2;
+    public static final byte CARYATID = 3;
+    public static final byte SPHINX = 4;
+    public static final byte ADULT_TOP = 5;
+    public static final byte ADULT_BOTTOM = 6;
+    public static final byte CHILD_TOP = 7;
+    public static final byte CHILD_BOTTOM = 8;
+    public static final byte AMPHORA_BLUE = 9;
+    public static final byte AMPHORA_BROWN = 10;
+    public static final byte AMPHORA_RED = 11;
+    public static final byte AMPHORA_GREEN = 12;
+    public static final byte AMPHORA_YELLOW = 13;
+    public static final byte AMPHORA_PURPLE = 14;
+    public static final byte LANDSLIDE_TILE = 15;
+    public static final int COUNT = 16;
+
+    /** number of tiles of every code in a full bag */
+    public static final int[] COPIES = {9, 9, 9, 12, 12, 10, 10, 5, 5, 5, 5, 5, 5, 5, 5, 24};
+
+    public static final int BAG_SIZE = 135;
+
+    private static final int[] KINDS = {
+            MOSAIC, MOSAIC, MOSAIC,
+            STATUE, STATUE,
+            SKELETON, SKELETON, SKELETON, SKELETON,
+            AMPHORA, AMPHORA, AMPHORA, AMPHORA, AMPHORA, AMPHORA,
+            LANDSLIDE
+    };
+
+    private static final String[] COLOURS = {
+            "green", "red", "yellow",
+            "caryatid", "sphinx",
+            "adult_top", "adult_bottom", "child_top", "child_bottom",
+            "blue", "brown", "red", "green", "yellow", "purple",
+            "landslide"
+    };
+
+    private static final byte[] FIRST_OF_KIND = {MOSAIC_GREEN, CARYATID, ADULT_TOP, AMPHORA_BLUE, LANDSLIDE_TILE, COUNT};
+
+    private static final Tile[] SHARED = new Tile[COUNT];
+
+    static {
+        for (byte code = 0; code < COUNT; code++) {
+            SimpleTile generic = new SimpleTile(COLOURS[code]);
+            SHARED[code] = switch (KINDS[code]) {
+                case MOSAIC -> new MosaicT(generic);
+                case STATUE -> new StatueT(generic);
+                case SKELETON -> new SkeletonT(generic);
+                case AMPHORA -> new AmphoraT(generic);
+                default -> new LandslideT(generic);
+            };
+        }
+    }
+
+    private TileCode() {
+    }
+
+    /**
+     * finds the code of a tile kind and colour name
+     *
+     * @param kind one of the kind constants
+     * @param colour colour name as used by the tile classes
+     * @return the code or NONE if the kind has no such colour
+     */
+    public static byte encode(int kind, String colour) {
+        if (kind < 0 || kind >= KIND_COUNT || colour == null) {
+            return NONE;
+        }
+        for (int code = FIRST_OF_KIND[kind]; code < FIRST_OF_KIND[kind + 1]; code++) {
+            if (COLOURS[code].equals(colour)) {
+                return (byte) code;
+            }
+        }
+        return NONE;
+    }
+
+    public static int kindOf(byte code) {
+        return KINDS[code];
+    }
+
+    public static String colourOf(byte code) {
+        return COLOURS[code];
+    }
+
+    /**
+     * codes of one kind are contiguous, from firstCode(kind) up to but not including firstCode(kind + 1)
+     *
+     * @param kind one of the kind constants, or KIND_COUNT for the end of the last kind
+     * @return first code of that kind
+     */
+    public static byte firstCode(int kind) {
+        return FIRST_OF_KIND[kind];
+    }
+
+    /**
+     * returns the shared tile object of a code, used by the list based api of Board, Player and the view
+     *
+     * @param code tile code
+     * @return shared immutable tile
+     */
+    public static Tile toTile(byte code) {
+        return SHARED[code];
+    }
+
+    /**
+     * writes the codes of a full unshuffled bag
+     *
+     * @param out destination with at least BAG_SIZE entries
+     */
+    public static void fillBag(byte[] out) {
+        int at = 0;
+        for (byte code = 0; code < COUNT; code++) {
+            for (int i = 0; i < COPIES[code]; i++) {
+                out[at++] = code;
+            }
+        }
+    }
+}
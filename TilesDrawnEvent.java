@@ -0,0 +1,37 @@
+package Metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * the draw of a turn, including placing the drawn tiles in their areas
+ */
+@Name("amphipolis.TilesDrawn")
+@Label("Tiles Drawn")
+@Category({"Amphipolis", "Game"})
+@StackTrace(false)
+public final class TilesDrawnEvent extends Event {
+    @Label("Game")
+    @Description("id of the profiled game")
+    public int game;
+
+    @Label("Turn")
+    @Description("turns started so far in this game")
+    public int turn;
+
+    @Label("Count")
+    @Description("tiles drawn")
+    public int count;
+
+    @Label("Landslides")
+    @Description("landslides on the board afterwards")
+    public int landslides;
+
+    @Label("Game Over")
+    @Description("the draw ended the game")
+    public boolean gameOver;
+}
@@ -0,0 +1,69 @@
+package Metrics;
+
+/**
+ * times one phase of the game into a latency histogram
+ *
+ * <pre>
+ *     long start = TIMER.start();
+ *     try {
+ *         ...
+ *     } finally {
+ *         TIMER.stop(start);
+ *     }
+ * </pre>
+ *
+ * with metrics disabled start() does not read the clock and stop() returns at once,
+ * both fold away once the JIT sees the constant switch
+ */
+public final class Timer {
+    private final String name;
+    private final String help;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    Timer(String name, String help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    /**
+     * @return the start time to hand to stop(), 0 when metrics are disabled
+     */
+    public long start() {
+        return Metrics.ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * @param start value returned by start()
+     *
+     * {@code @post} the time since start is recorded
+     */
+    public void stop(long start) {
+        if (Metrics.ENABLED) {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * runs a task and records how long it took
+     */
+    public void time(Runnable task) {
+        long start = start();
+        try {
+            task.run();
+        } finally {
+            stop(start);
+        }
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+}
@@ -0,0 +1,267 @@
+package Controller;
+
+import AI.BotPolicy;
+import AI.GreedyBot;
+import AI.RandomBot;
+import Model.GameEngine;
+import Model.Player;
+import Model.RandomStreams;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * round robin between bot policies, every seating of the entrants in the four seats is played in turn
+ * so no policy profits from its seat, games run on every worker of the pool
+ *
+ * a game's seed only depends on the master seed and the game's number, so a tournament gives the same
+ * tallies and ratings with any number of workers
+ *
+ * memory does not grow with the number of games: workers keep pairwise tallies only,
+ * and finished games are streamed to the csv through a bounded queue
+ *
+ * {@code @invariant} no Swing or View class is referenced, so headless runs never load the toolkit
+ */
+public class Tournament {
+    private static final int CHUNK = 256;
+    static final String CSV_HEADER = "game,seed,seat1,seat2,seat3,seat4,score1,score2,score3,score4,winner,turns\n";
+
+    private final BotPolicy[] entrants;
+    private final long cycleLength;
+    private final ForkJoinPool pool;
+
+    public Tournament(List<BotPolicy> entrants) {
+        this(entrants, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param entrants policies that take part, at least two and at most 255
+     * @param pool workers that play the games
+     */
+    public Tournament(List<BotPolicy> entrants, ForkJoinPool pool) {
+        if (entrants.size() < 2 || entrants.size() > 255) {
+            throw new IllegalArgumentException("a tournament needs 2 to 255 entrants");
+        }
+        this.entrants = entrants.toArray(new BotPolicy[0]);
+        this.cycleLength = cycleLength(this.entrants.length);
+        this.pool = pool;
+    }
+
+    /**
+     * @return the number of ways to fill the four seats with n entrants that seat at least two different ones
+     */
+    static long cycleLength(int n) {
+        return (long) n * n * n * n - n;
+    }
+
+    /**
+     * the seating of a game, worked out from its number so nothing is stored per seating
+     * the cycle counts through the four seats as the digits of a base n number, skipping the n numbers
+     * that seat one entrant four times, those lie 1 + n + n^2 + n^3 apart starting at 0
+     *
+     * @return the entrant of every seat, packed as one byte per seat
+     */
+    static int seating(int n, long game) {
+        long apart = 1 + n + (long) n * n + (long) n * n * n;
+        long index = game % cycleLength(n);
+        long code = index / (apart - 1) * apart + 1 + index % (apart - 1);
+        int packed = 0;
+        for (int seat = 0; seat < 4; seat++, code /= n) {
+            packed |= (int) (code % n) << 8 * seat;
+        }
+        return packed;
+    }
+
+    /**
+     * @return how many games one pass over every seating takes
+     */
+    public long getCycleLength() {
+        return cycleLength;
+    }
+
+    /**
+     * plays the tournament without writing the games anywhere
+     */
+    public TournamentResult run(long games, long masterSeed) {
+        try {
+            return run(games, masterSeed, null);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * plays a tournament, the calling thread writes the finished games while the workers play
+     *
+     * @param games number of games, a multiple of getCycleLength() gives every seating the same share
+     * @param masterSeed seed the per-game seeds are derived from
+     * @param csv receives CSV_HEADER and one line per game as games finish, in no particular order, or null
+     * @return tallies and ratings of the entrants
+     *
+     * {@code @pre} games is not negative
+     *
+     * {@code @post} every game was played to the end and, with a csv, written exactly once
+     */
+    public TournamentResult run(long games, long masterSeed, Writer csv) throws IOException {
+        int n = entrants.length;
+        TournamentResult.Tally total = new TournamentResult.Tally(n);
+        AtomicLong next = new AtomicLong();
+        AtomicBoolean stopped = new AtomicBoolean();
+        RandomStreams streams = new RandomStreams(masterSeed);
+        BlockingQueue<String> chunks = new ArrayBlockingQueue<>(2 * pool.getParallelism());
+        long start = System.nanoTime();
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int w = 0; w < pool.getParallelism(); w++) {
+            workers.add(pool.submit(() -> work(games, streams, next, stopped, csv == null ? null : chunks, total)));
+        }
+
+        try {
+            if (csv != null) {
+                csv.write(CSV_HEADER);
+            }
+            while (!allDone(workers) || !chunks.isEmpty()) {
+                String chunk = chunks.poll(20, TimeUnit.MILLISECONDS);
+                if (chunk != null) {
+                    csv.write(chunk);
+                }
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            if (csv != null) {
+                csv.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("tournament interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("a tournament game failed", e.getCause());
+        } finally {
+            stopped.set(true);
+        }
+
+        return new TournamentResult(names(), total, System.nanoTime() - start);
+    }
+
+    private static boolean allDone(List<Future<?>> workers) {
+        for (Future<?> worker : workers) {
+            if (!worker.isDone()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * claims chunks of game numbers until none are left, adds their tallies to the total after every chunk
+     */
+    private void work(long games, RandomStreams streams, AtomicLong next, AtomicBoolean stopped,
+                      BlockingQueue<String> chunks, TournamentResult.Tally total) {
+        TournamentResult.Tally tally = new TournamentResult.Tally(entrants.length);
+        StringBuilder lines = new StringBuilder();
+        BotPolicy[] seats = new BotPolicy[4];
+        int[] seated = new int[4];
+        int[] scores = new int[4];
+
+        long from;
+        while (!stopped.get() && (from = next.getAndAdd(CHUNK)) < games) {
+            long to = Math.min(from + CHUNK, games);
+            for (long game = from; game < to; game++) {
+                int seating = seating(entrants.length, game);
+                for (int seat = 0; seat < 4; seat++) {
+                    seated[seat] = seating >>> 8 * seat & 0xff;
+                    seats[seat] = entrants[seated[seat]];
+                }
+                long seed = streams.gameSeed(game);
+
+                GameEngine engine = new GameEngine(seed);
+                engine.initializeGame();
+                int turns = SimulationRunner.play(engine, seats, RandomStreams.bots(seed));
+                Player winner = engine.checkWinner();
+                List<Player> players = engine.getPlayers();
+                // checkWinner has set the statue majorities, calculateScore only reads tiles and statues
+                for (int seat = 0; seat < 4; seat++) {
+                    scores[seat] = players.get(seat).calculateScore();
+                }
+                int winnerSeat = players.indexOf(winner);
+                tally.add(seated, scores, winnerSeat, turns);
+
+                if (chunks != null) {
+                    line(lines, game, seed, seated, scores, winnerSeat, turns);
+                }
+            }
+
+            total.merge(tally);
+            tally.clear();
+            if (chunks != null) {
+                offer(chunks, lines.toString(), stopped);
+                lines.setLength(0);
+            }
+        }
+    }
+
+    private void line(StringBuilder lines, long game, long seed, int[] seated, int[] scores, int winnerSeat, int turns) {
+        lines.append(game).append(',').append(seed);
+        for (int seat = 0; seat < 4; seat++) {
+            lines.append(',').append(entrants[seated[seat]].getName());
+        }
+        for (int seat = 0; seat < 4; seat++) {
+            lines.append(',').append(scores[seat]);
+        }
+        lines.append(',').append(winnerSeat + 1).append(',').append(turns).append('\n');
+    }
+
+    /**
+     * waits for room in the queue, gives up once the tournament stopped so a failed writer never blocks a worker
+     */
+    private static void offer(BlockingQueue<String> chunks, String chunk, AtomicBoolean stopped) {
+        try {
+            while (!chunks.offer(chunk, 20, TimeUnit.MILLISECONDS)) {
+                if (stopped.get()) return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String[] names() {
+        String[] names = new String[entrants.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = entrants[i].getName();
+        }
+        return names;
+    }
+
+    /**
+     * command line entry: [games] [seed] [csv file]
+     */
+    public static void main(String[] args) throws IOException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+
+        Tournament tournament = new Tournament(List.of(new GreedyBot(), new RandomBot()));
+        TournamentResult result;
+        if (args.length > 2) {
+            try (Writer csv = Files.newBufferedWriter(Path.of(args[2]), StandardCharsets.UTF_8)) {
+                result = tournament.run(games, seed, csv);
+            }
+        } else {
+            result = tournament.run(games, seed);
+        }
+
+        System.out.println("=== Tournament on " + tournament.pool.getParallelism() + " workers, seed " + seed + " ===");
+        System.out.println(result);
+    }
+}
@@ -0,0 +1,213 @@
+package Controller;
+
+import java.util.Arrays;
+
+/**
+ * tallies and Elo ratings of a tournament
+ *
+ * every game counts as a match between each two seats held by different entrants,
+ * the higher score wins and equal scores are a draw
+ * ratings are the Bradley-Terry fit of those matches on the Elo scale, centred on 1500,
+ * every pair that met starts with one draw so an entrant that never won still gets a finite rating
+ * the 95% intervals treat the matches as independent, the matches of one game are not, so read them as a lower bound
+ */
+public class TournamentResult {
+    private static final double ELO = 400 / Math.log(10);
+
+    private final String[] names;
+    private final Tally tally;
+    private final long elapsedNanos;
+    private final double[] ratings;
+    private final double[] margins;
+
+    TournamentResult(String[] names, Tally tally, long elapsedNanos) {
+        this.names = names.clone();
+        this.tally = tally;
+        this.elapsedNanos = elapsedNanos;
+        this.ratings = new double[names.length];
+        this.margins = new double[names.length];
+        fit();
+    }
+
+    /**
+     * counts of a tournament or of one worker's share of it, memory only depends on the number of entrants
+     */
+    static final class Tally {
+        final int n;
+        long games;
+        long turns;
+        final long[] appearances;
+        final long[] wins;
+        /** half points, [a * n + b] is what a scored against b: 2 a win, 1 a draw */
+        final long[] points;
+
+        Tally(int n) {
+            this.n = n;
+            this.appearances = new long[n];
+            this.wins = new long[n];
+            this.points = new long[n * n];
+        }
+
+        void add(int[] seated, int[] scores, int winnerSeat, int turns) {
+            games++;
+            this.turns += turns;
+            for (int seat = 0; seat < seated.length; seat++) {
+                appearances[seated[seat]]++;
+            }
+            if (winnerSeat >= 0) {
+                wins[seated[winnerSeat]]++;
+            }
+            for (int i = 0; i < seated.length; i++) {
+                for (int j = i + 1; j < seated.length; j++) {
+                    int a = seated[i];
+                    int b = seated[j];
+                    if (a == b) continue;
+                    int result = Integer.compare(scores[i], scores[j]);
+                    points[a * n + b] += result + 1;
+                    points[b * n + a] += 1 - result;
+                }
+            }
+        }
+
+        synchronized void merge(Tally other) {
+            games += other.games;
+            turns += other.turns;
+            for (int i = 0; i < n; i++) {
+                appearances[i] += other.appearances[i];
+                wins[i] += other.wins[i];
+            }
+            for (int i = 0; i < points.length; i++) {
+                points[i] += other.points[i];
+            }
+        }
+
+        void clear() {
+            games = 0;
+            turns = 0;
+            Arrays.fill(appearances, 0);
+            Arrays.fill(wins, 0);
+            Arrays.fill(points, 0);
+        }
+
+        /**
+         * @return matches between a and b, each is worth 2 half points in total
+         */
+        double matches(int a, int b) {
+            return (points[a * n + b] + points[b * n + a]) / 2.0;
+        }
+    }
+
+    /**
+     * minorization-maximization for the Bradley-Terry strengths, Hunter (2004)
+     */
+    private void fit() {
+        int n = names.length;
+        double[] strength = new double[n];
+        Arrays.fill(strength, 1);
+
+        for (int iteration = 0; iteration < 10_000; iteration++) {
+            double change = 0;
+            double logMean = 0;
+            for (int i = 0; i < n; i++) {
+                double won = 0;
+                double denominator = 0;
+                for (int j = 0; j < n; j++) {
+                    double matches = priorMatches(i, j);
+                    if (j == i || matches == 0) continue;
+                    won += prior(i, j) + tally.points[i * n + j] / 2.0;
+                    denominator += matches / (strength[i] + strength[j]);
+                }
+                double updated = denominator == 0 ? strength[i] : won / denominator;
+                change = Math.max(change, Math.abs(Math.log(updated / strength[i])));
+                strength[i] = updated;
+                logMean += Math.log(updated) / n;
+            }
+            for (int i = 0; i < n; i++) {
+                strength[i] /= Math.exp(logMean);
+            }
+            if (change < 1e-10) break;
+        }
+
+        for (int i = 0; i < n; i++) {
+            double information = 0;
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                double sum = strength[i] + strength[j];
+                information += priorMatches(i, j) * strength[i] * strength[j] / (sum * sum);
+            }
+            ratings[i] = 1500 + ELO * Math.log(strength[i]);
+            margins[i] = information == 0 ? Double.POSITIVE_INFINITY : 1.96 * ELO / Math.sqrt(information);
+        }
+    }
+
+    private double prior(int a, int b) {
+        return tally.matches(a, b) > 0 ? 0.5 : 0;
+    }
+
+    private double priorMatches(int a, int b) {
+        return tally.matches(a, b) + 2 * prior(a, b);
+    }
+
+    public int getEntrants() {
+        return names.length;
+    }
+
+    public String getName(int entrant) {
+        return names[entrant];
+    }
+
+    public long getGames() {
+        return tally.games;
+    }
+
+    public long getTurns() {
+        return tally.turns;
+    }
+
+    public long getWins(int entrant) {
+        return tally.wins[entrant];
+    }
+
+    public long getAppearances(int entrant) {
+        return tally.appearances[entrant];
+    }
+
+    /**
+     * @return half points a scored against b, a win is 2 and a draw 1
+     */
+    public long getHalfPoints(int a, int b) {
+        return tally.points[a * names.length + b];
+    }
+
+    public double getRating(int entrant) {
+        return ratings[entrant];
+    }
+
+    /**
+     * @return half width of the 95% interval around getRating
+     */
+    public double getMargin(int entrant) {
+        return margins[entrant];
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : tally.games * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("games: %d, turns: %d, time: %.3f s, games/sec: %.0f%n",
+                tally.games, tally.turns, elapsedNanos / 1e9, gamesPerSecond()));
+        for (int i = 0; i < names.length; i++) {
+            report.append(String.format("%-12s elo %7.1f +- %5.1f   won %d of %d (%.1f%%)%n", names[i],
+                    ratings[i], margins[i], tally.wins[i], tally.appearances[i],
+                    tally.appearances[i] == 0 ? 0 : 100.0 * tally.wins[i] / tally.appearances[i]));
+        }
+        return report.toString();
+    }
+}
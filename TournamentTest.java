@@ -0,0 +1,121 @@
+package Test;
+
+import AI.*;
+import Controller.SimulationRunner;
+import Controller.Tournament;
+import Controller.TournamentResult;
+import Model.GameEngine;
+import Model.Player;
+import Model.RandomStreams;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class TournamentTest {
+    private final List<BotPolicy> entrants = List.of(new GreedyBot(), new RandomBot());
+
+    @Test
+    public void testEverySeatingIsPlayedOncePerCycle() {
+        Tournament tournament = new Tournament(entrants);
+        assertEquals(14, tournament.getCycleLength());
+
+        TournamentResult result = tournament.run(14, 3L);
+
+        assertEquals(14, result.getGames());
+        assertEquals(28, result.getAppearances(0));
+        assertEquals(28, result.getAppearances(1));
+        assertEquals(14, result.getWins(0) + result.getWins(1));
+    }
+
+    @Test
+    public void testLargestFieldNeedsNoTableOfSeatings() {
+        List<BotPolicy> field = new ArrayList<>();
+        for (int i = 0; i < 255; i++) {
+            field.add(i % 2 == 0 ? new GreedyBot() : new RandomBot());
+        }
+        TournamentResult result;
+        try (ForkJoinPool pool = new ForkJoinPool(2)) {
+            Tournament tournament = new Tournament(field, pool);
+            assertEquals(255L * 255 * 255 * 255 - 255, tournament.getCycleLength());
+            result = tournament.run(20, 4L);
+        }
+
+        assertEquals(20, result.getGames());
+        long appearances = 0;
+        for (int i = 0; i < 255; i++) {
+            appearances += result.getAppearances(i);
+        }
+        assertEquals(80, appearances);
+    }
+
+    @Test
+    public void testWorkerCountDoesNotChangeTheOutcome() {
+        TournamentResult one;
+        TournamentResult four;
+        try (ForkJoinPool single = new ForkJoinPool(1); ForkJoinPool pool = new ForkJoinPool(4)) {
+            one = new Tournament(entrants, single).run(700, 11L);
+            four = new Tournament(entrants, pool).run(700, 11L);
+        }
+
+        assertEquals(one.getTurns(), four.getTurns());
+        assertEquals(one.getHalfPoints(0, 1), four.getHalfPoints(0, 1));
+        assertEquals(one.getRating(0), four.getRating(0), 1e-9);
+    }
+
+    @Test
+    public void testGreedyOutratesRandom() {
+        TournamentResult result = new Tournament(entrants).run(1400, 5L);
+
+        assertTrue(result.getRating(0) - result.getMargin(0) > result.getRating(1) + result.getMargin(1));
+        assertEquals(3000, result.getRating(0) + result.getRating(1), 1e-6);
+    }
+
+    @Test
+    public void testCsvHasOneLinePerGame() throws Exception {
+        StringWriter csv = new StringWriter();
+        try (ForkJoinPool pool = new ForkJoinPool(3)) {
+            new Tournament(entrants, pool).run(1000, 7L, csv);
+        }
+
+        String[] lines = csv.toString().split("\n");
+        assertEquals(1001, lines.length);
+        assertTrue(lines[0].startsWith("game,seed,seat1"));
+        assertEquals(12, lines[1].split(",").length);
+    }
+
+    @Test
+    public void testCsvScoresIncludeStatueMajorities() throws Exception {
+        StringWriter csv = new StringWriter();
+        try (ForkJoinPool pool = new ForkJoinPool(2)) {
+            new Tournament(entrants, pool).run(200, 11L, csv);
+        }
+
+        String[] lines = csv.toString().split("\n");
+        int withStatues = 0;
+        for (int i = 1; i < lines.length; i++) {
+            String[] fields = lines[i].split(",");
+            long seed = Long.parseLong(fields[1]);
+            BotPolicy[] seats = new BotPolicy[4];
+            for (int seat = 0; seat < 4; seat++) {
+                seats[seat] = fields[2 + seat].equals(entrants.get(0).getName()) ? entrants.get(0) : entrants.get(1);
+            }
+
+            // replays the game on its own and scores it the long way round
+            GameEngine engine = new GameEngine(seed);
+            engine.initializeGame();
+            SimulationRunner.play(engine, seats, RandomStreams.bots(seed));
+            engine.checkWinner();
+            List<Player> players = engine.getPlayers();
+            for (int seat = 0; seat < 4; seat++) {
+                Player player = players.get(seat);
+                assertEquals(lines[i], player.tileScore() + player.getStatuePoints(), Integer.parseInt(fields[6 + seat]));
+                if (player.getStatuePoints() > 0) withStatues++;
+            }
+        }
+        assertTrue("no game scored a statue majority", withStatues > 0);
+    }
+}
@@ -0,0 +1,109 @@
+package AI;
+
+import Model.RandomStreams;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * fixed size hash table from position hashes to one long of search data, shared by parallel searchers
+ *
+ * open addressing with a short linear probe, every slot is two longs: the scrambled key xor the data, then the data
+ * a reader only trusts a slot whose two words xor back to its scrambled key, so a slot torn by two writers
+ * reads as a miss instead of as wrong data, and no lock is ever taken
+ * the key is scrambled first with RandomStreams.mix, with plain keys a torn slot of two small keys can xor to a third one
+ * mix is one to one and 0 only for 0, so a key that is not 0 never reads as an empty slot
+ * when the probe finds no free slot the entry at the home slot is replaced, the newest result wins
+ *
+ * {@code @invariant} probe(key) returns MISS or data that was stored for key
+ */
+public final class TranspositionTable {
+    /** returned by probe when the position is not in the table, never store it as data */
+    public static final long MISS = Long.MIN_VALUE;
+
+    private static final int PROBES = 4;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+
+    /**
+     * @param entries number of positions the table holds, rounded up to a power of two
+     */
+    public TranspositionTable(int entries) {
+        if (entries <= 0 || entries > 1 << 28) {
+            throw new IllegalArgumentException("entries must be between 1 and 2^28");
+        }
+        int capacity = entries == 1 ? 1 : Integer.highestOneBit(entries - 1) << 1;
+        this.slots = new AtomicLongArray(2 * capacity);
+        this.mask = capacity - 1;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @param key position hash
+     * @return the data stored for that position, or MISS
+     */
+    public long probe(long key) {
+        key = nonZero(key);
+        int home = home(key);
+        long sealed = RandomStreams.mix(key);
+        for (int p = 0; p < PROBES; p++) {
+            int slot = (home + p) & mask;
+            long data = slots.getAcquire(2 * slot + 1);
+            long check = slots.getAcquire(2 * slot);
+            if ((check ^ data) == sealed) {
+                return data;
+            }
+            if (check == 0 && data == 0) {
+                return MISS;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * @param key position hash
+     * @param data search data of that position, anything but MISS
+     *
+     * {@code @post} probe(key) returns data until another position takes the slot
+     */
+    public void store(long key, long data) {
+        key = nonZero(key);
+        int home = home(key);
+        long sealed = RandomStreams.mix(key);
+        int target = home;
+        for (int p = 0; p < PROBES; p++) {
+            int slot = (home + p) & mask;
+            long old = slots.getAcquire(2 * slot + 1);
+            long check = slots.getAcquire(2 * slot);
+            if ((check ^ old) == sealed || (check == 0 && old == 0)) {
+                target = slot;
+                break;
+            }
+        }
+        slots.setRelease(2 * target + 1, data);
+        slots.setRelease(2 * target, sealed ^ data);
+    }
+
+    /**
+     * empties the table, only while no searcher uses it
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.setPlain(i, 0);
+        }
+    }
+
+    private int home(long key) {
+        return (int) (key ^ key >>> 32) & mask;
+    }
+
+    /**
+     * an empty slot reads as key 0, so the one position hashing to 0 is filed under 1
+     */
+    private static long nonZero(long key) {
+        return key == 0 ? 1 : key;
+    }
+}
@@ -0,0 +1,29 @@
+package Metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * spans a whole turn of a profiled game, from its start to GameEngine.nextTurn
+ */
+@Name("amphipolis.TurnEnded")
+@Label("Turn Ended")
+@Category({"Amphipolis", "Game"})
+@StackTrace(false)
+public final class TurnEndedEvent extends Event {
+    @Label("Game")
+    @Description("id of the profiled game")
+    public int game;
+
+    @Label("Turn")
+    @Description("turns started so far in this game")
+    public int turn;
+
+    @Label("Player")
+    @Description("colour of the player")
+    public String player;
+}
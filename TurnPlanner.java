@@ -0,0 +1,209 @@
+package AI;
+
+import Model.GameEngine;
+import Model.GameState;
+import Model.MoveCode;
+import Model.MoveGenerator;
+import Model.Player;
+import Model.TileCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * looks a fixed number of turns ahead through every line of picks, cards and draws and returns the first move
+ * of the line that is best for the current player, every player is assumed to play for their own score (max^n)
+ * the draws follow the bag order of the engine it is given, no bot plays with it yet, the benchmarks and tests
+ * drive it directly, a caller that must not know the hidden bag order hands it a copy with the rest of the bag
+ * reshuffled, see Board.shuffleRemaining
+ *
+ * many lines reach the same position, two picks in either order or a card before or after a pick,
+ * and every one of them leads into the same following turns
+ * with a transposition table each position is searched once, parallel searches share the table
+ * a key is the position hash, the turns still searched and the order of every tile those turns can draw,
+ * so a table can be shared between planners and searches from different roots or bag orders
+ *
+ * a value is the evaluation of every seat packed 16 bits each, seat 0 in the low bits
+ *
+ * {@code @invariant} the searched engine is left exactly as it was given
+ */
+public class TurnPlanner {
+    /** the draw, two picks, each of the five cards once and the end of the turn */
+    private static final int PLIES_PER_TURN = 9;
+    /** tiles dealt by one draw */
+    private static final int TILES_PER_DRAW = 4;
+
+    private final int turns;
+    private final TranspositionTable table;
+    private final LongAdder nodes = new LongAdder();
+
+    /**
+     * @param turns how many turns to look ahead, the current one included
+     * @param table table shared with other planners, or null to search without one
+     */
+    public TurnPlanner(int turns, TranspositionTable table) {
+        if (turns <= 0) {
+            throw new IllegalArgumentException("turns must be positive");
+        }
+        this.turns = turns;
+        this.table = table;
+    }
+
+    /**
+     * @param engine game whose current player is to move
+     * @return the best move as a MoveCode, the draw when the player has not drawn yet
+     *
+     * {@code @post} the engine is unchanged
+     */
+    public int bestMove(GameEngine engine) {
+        if (!engine.getCurrentPlayer().hasDrawnThisTurn()) {
+            return MoveCode.draw();
+        }
+        int[][] buffers = buffers();
+        int[] moves = buffers[0];
+        int n = MoveGenerator.generate(engine, moves);
+        int mover = engine.getCurrentTurnIndex();
+
+        int best = MoveCode.endTurn();
+        int bestValue = -1;
+        for (int i = 0; i < n; i++) {
+            int value = seat(child(engine, moves[i], buffers), mover);
+            if (value > bestValue) {
+                bestValue = value;
+                best = moves[i];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * searches every first move on its own copy of the game, all copies share this planner's table
+     *
+     * @param engine game whose current player is to move, only read
+     * @param pool workers of the search
+     * @return the same move bestMove(engine) returns
+     */
+    public int bestMove(GameEngine engine, ForkJoinPool pool) {
+        if (!engine.getCurrentPlayer().hasDrawnThisTurn()) {
+            return MoveCode.draw();
+        }
+        GameState root = GameState.capture(engine);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int n = MoveGenerator.generate(engine, moves);
+        int mover = engine.getCurrentTurnIndex();
+
+        List<Callable<Long>> searches = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            int move = moves[i];
+            searches.add(() -> child(root.toEngine(0), move, buffers()));
+        }
+
+        int best = MoveCode.endTurn();
+        int bestValue = -1;
+        try {
+            List<Future<Long>> values = pool.invokeAll(searches);
+            for (int i = 0; i < n; i++) {
+                int value = seat(values.get(i).get(), mover);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = moves[i];
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("search worker failed", e.getCause());
+        }
+        return best;
+    }
+
+    private int[][] buffers() {
+        return new int[turns * PLIES_PER_TURN + 2][MoveGenerator.MAX_MOVES];
+    }
+
+    /**
+     * @return value of the position after a first move of the current turn
+     */
+    private long child(GameEngine engine, int move, int[][] buffers) {
+        if (MoveCode.type(move) == MoveCode.END_TURN && turns == 1) {
+            return evaluate(engine);
+        }
+        long record = engine.apply(move);
+        long value = value(engine, buffers, 1, MoveCode.type(move) == MoveCode.END_TURN ? turns - 1 : turns);
+        engine.undo(record);
+        return value;
+    }
+
+    /**
+     * @param turnsLeft turns still searched, the current one included
+     * @return value of the position for every seat
+     */
+    private long value(GameEngine engine, int[][] buffers, int depth, int turnsLeft) {
+        nodes.increment();
+        long key = engine.hash() ^ engine.getBoard().bagHash(turnsLeft * TILES_PER_DRAW) ^ turnsLeft * 0x9E3779B97F4A7C15L;
+        if (table != null) {
+            long hit = table.probe(key);
+            if (hit != TranspositionTable.MISS) {
+                return hit;
+            }
+        }
+
+        int[] moves = buffers[depth];
+        int n = MoveGenerator.generate(engine, moves);
+        int mover = engine.getCurrentTurnIndex();
+        long best = n == 0 ? evaluate(engine) : 0;
+        int bestValue = -1;
+
+        for (int i = 0; i < n; i++) {
+            boolean endsTurn = MoveCode.type(moves[i]) == MoveCode.END_TURN;
+            long value;
+            if (endsTurn && turnsLeft == 1) {
+                value = evaluate(engine);
+            } else {
+                long record = engine.apply(moves[i]);
+                value = value(engine, buffers, depth + 1, endsTurn ? turnsLeft - 1 : turnsLeft);
+                engine.undo(record);
+            }
+            if (seat(value, mover) > bestValue) {
+                bestValue = seat(value, mover);
+                best = value;
+            }
+        }
+
+        if (table != null) {
+            table.store(key, best);
+        }
+        return best;
+    }
+
+    /**
+     * tile score first, statues break ties since their points are only shared out at the end of the turn
+     */
+    private static long evaluate(GameEngine engine) {
+        List<Player> players = engine.getPlayers();
+        long value = 0;
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            long own = player.tileScore() * 16L
+                    + player.getStatueCount(TileCode.CARYATID) + player.getStatueCount(TileCode.SPHINX);
+            value |= Math.min(own, 0xffff) << 16 * seat;
+        }
+        return value;
+    }
+
+    private static int seat(long value, int seat) {
+        return (int) (value >>> 16 * seat) & 0xffff;
+    }
+
+    /**
+     * @return positions searched by this planner so far, table hits included
+     */
+    public long getNodes() {
+        return nodes.sum();
+    }
+}
@@ -0,0 +1,25 @@
+package Metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * the screen applying a snapshot or showing a new turn, on the event dispatch thread
+ */
+@Name("amphipolis.ViewRefresh")
+@Label("View Refresh")
+@Category({"Amphipolis", "Game"})
+@StackTrace(false)
+public final class ViewRefreshEvent extends Event {
+    @Label("Region")
+    @Description("snapshot or turn")
+    public String region;
+
+    @Label("Dirty Bits")
+    @Description("ChangeBus bits the refresh covered")
+    public int dirty;
+}
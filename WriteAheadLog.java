@@ -0,0 +1,631 @@
+package Model;
+
+import Metrics.Counter;
+import Metrics.Metrics;
+import Metrics.Timer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+/**
+ * one log file shared by every hosted game, a move is durable once the log was forced to the disk after it
+ *
+ * the games append from their own threads into a lock-free queue, one writer thread drains it and writes
+ * everything queued as one batch followed by a single force, so a force is shared by every move that
+ * arrived while the previous one ran (group commit)
+ * with a commit delay the writer also waits up to that long for more moves before it forces,
+ * which bounds the extra latency of a move and trades it for bigger batches
+ *
+ * layout, little endian: batches of BATCH_HEADER bytes (BATCH_MAGIC, the length of its records, a CRC32C
+ * of them) followed by the records: kind, payload length, game id, payload
+ * START carries the seed and the player count, ENTRY one MoveJournal entry, END closes the game
+ *
+ * opening a log recovers it: the batches are read up to the first one that is cut short or damaged,
+ * the rest is cut off, and every game started and not ended is rebuilt by replaying its entries
+ *
+ * the log rolls over so that it does not grow with every game ever hosted: the records of the games still
+ * running are copied into a new file, which is forced and then moved over the log, the ended games are dropped
+ * this happens on opening a log that holds ended games, and whenever the log has doubled since the last time
+ * and is at least the rollover size, so copying costs a bounded share of the writes
+ *
+ * {@code @invariant} the records of one game are written in the order that game appended them
+ */
+public final class WriteAheadLog implements Closeable {
+    static final int BATCH_MAGIC = 0x424C4157;
+    static final int BATCH_HEADER = 12;
+    static final int RECORD_HEADER = 10;
+
+    static final int START = 1;
+    static final int ENTRY = 2;
+    static final int END = 3;
+
+    private static final int BATCH_BYTES = 1 << 16;
+    private static final long ROLLOVER_BYTES = 64L << 20;
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final Counter RECORDS = Metrics.counter("wal_records", "records written to the write-ahead log");
+    private static final Counter BATCHES = Metrics.counter("wal_batches", "forced batches of the write-ahead log");
+    private static final Timer SYNC_TIMER = Metrics.timer("wal_sync", "time to write and force one batch");
+
+    private final Path file;
+    private final long rolloverBytes;
+    private FileChannel channel;
+    /** bytes in the log, kept by the writer */
+    private long length;
+    private long compactAt;
+    private final long commitDelayNanos;
+    private final Map<Long, GameEngine> recovered;
+    /** ids of the games started and not ended, kept by the writer */
+    private final Set<Long> live;
+    private final ConcurrentLinkedQueue<Record> queue = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile boolean idle;
+    private volatile IOException failure;
+    private long records;
+    private long batches;
+
+    /**
+     * opens or creates a log, recovers the games in it and starts the writer
+     *
+     * @param file the log
+     * @param commitDelay how long the writer may wait for more moves before forcing, 0 to force at once
+     */
+    public WriteAheadLog(Path file, long commitDelay, TimeUnit unit) throws IOException {
+        this(file, commitDelay, unit, ROLLOVER_BYTES);
+    }
+
+    /**
+     * @param rolloverBytes size below which the log is never rolled over while it is open
+     */
+    public WriteAheadLog(Path file, long commitDelay, TimeUnit unit, long rolloverBytes) throws IOException {
+        if (rolloverBytes <= 0) {
+            throw new IllegalArgumentException("rolloverBytes must be positive");
+        }
+        this.file = file;
+        this.rolloverBytes = rolloverBytes;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        commitDelayNanos = unit.toNanos(commitDelay);
+        Recovery recovery = new Recovery();
+        try {
+            long valid = recovery.read(channel);
+            channel.truncate(valid);
+            channel.position(valid);
+            recovered = Collections.unmodifiableMap(recovery.games());
+            live = new HashSet<>(recovered.keySet());
+            if (recovery.ended > 0) {
+                compact(channel, file, live);
+                channel.close();
+                channel = reopen(file);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        length = channel.position();
+        compactAt = Math.max(rolloverBytes, 2 * length);
+        writer = new Thread(this::run, "write-ahead-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * rebuilds the games a log holds without opening it for writing
+     *
+     * @param file the log
+     * @return every game started and not ended, by id in the order they were started
+     */
+    public static Map<Long, GameEngine> recover(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            Recovery recovery = new Recovery();
+            recovery.read(channel);
+            return recovery.games();
+        }
+    }
+
+    /**
+     * @return the games that were in flight when the log was opened, to be resumed
+     */
+    public Map<Long, GameEngine> getRecovered() {
+        return recovered;
+    }
+
+    /**
+     * logs a new game from now on
+     *
+     * @param id id of the game, unique in this log
+     * @param engine game fresh from initializeGame
+     * @return the game's handle, already set as the engine's journal
+     */
+    public Game start(long id, GameEngine engine) {
+        Game game = new Game(id, engine);
+        Record record = game.append(START, 9);
+        record.seed = engine.getSeed();
+        record.entry = engine.getPlayers().size();
+        offer(record);
+        return game;
+    }
+
+    /**
+     * logs a recovered game on, its start is in the log already
+     *
+     * @param id id the game was recovered under
+     * @param engine the recovered game
+     * @return the game's handle, already set as the engine's journal
+     */
+    public Game resume(long id, GameEngine engine) {
+        return new Game(id, engine);
+    }
+
+    /**
+     * the log of one game, appended to by the thread that plays it
+     */
+    public final class Game extends MoveLog {
+        private final long id;
+        private final GameEngine engine;
+        private Record last;
+
+        private Game(long id, GameEngine engine) {
+            this.id = id;
+            this.engine = engine;
+            this.last = Record.DURABLE;
+            engine.setJournal(this);
+        }
+
+        private Record append(int kind, int length) {
+            Record record = new Record(id, kind, length);
+            last = record;
+            return record;
+        }
+
+        private void entry(int entry, int length) {
+            Record record = append(ENTRY, length);
+            record.entry = entry;
+            offer(record);
+        }
+
+        @Override
+        void move(int move) {
+            entry(MoveJournal.MOVE | move << 8, 4);
+        }
+
+        @Override
+        void draw(byte[] codes, int count) {
+            entry(MoveJournal.drawEntry(codes, count), MoveJournal.drawLength(count));
+        }
+
+        @Override
+        void endTurn() {
+            entry(MoveJournal.END_TURN, 1);
+        }
+
+        @Override
+        void statues() {
+            entry(MoveJournal.STATUES, 1);
+        }
+
+        @Override
+        void undo() {
+            entry(MoveJournal.UNDO, 1);
+        }
+
+        /**
+         * @return completes once everything this game appended so far is on the disk, callers cannot complete it
+         */
+        public CompletionStage<Void> durable() {
+            return last.minimalCompletionStage();
+        }
+
+        /**
+         * @return true if everything this game appended so far is on the disk
+         */
+        public boolean isDurable() {
+            return last.isDone() && !last.isCompletedExceptionally();
+        }
+
+        /**
+         * closes the game in the log, it is not recovered any more, and stops logging its engine
+         *
+         * @return completes once the end is on the disk
+         */
+        public CompletionStage<Void> end() {
+            engine.setJournal(null);
+            offer(append(END, 0));
+            return durable();
+        }
+
+        public long getId() {
+            return id;
+        }
+    }
+
+    private void offer(Record record) {
+        if (!running) {
+            throw new IllegalStateException("write-ahead log is closed");
+        }
+        queue.offer(record);
+        // close() may have drained the queue between the check above and the offer, take the record back then
+        if (!running && queue.remove(record)) {
+            throw new IllegalStateException("write-ahead log is closed");
+        }
+        if (idle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * one record waiting for the writer, completed once it is durable
+     */
+    private static final class Record extends CompletableFuture<Void> {
+        static final Record DURABLE = new Record(0, 0, 0);
+
+        static {
+            DURABLE.complete(null);
+        }
+
+        final long game;
+        final int kind;
+        final int length;
+        final long queued = System.nanoTime();
+        /** the entry bytes packed little endian, or the player count of a START */
+        int entry;
+        long seed;
+
+        Record(long game, int kind, int length) {
+            this.game = game;
+            this.kind = kind;
+            this.length = length;
+        }
+    }
+
+    private void run() {
+        ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        List<Record> written = new ArrayList<>();
+        CRC32C crc = new CRC32C();
+        while (true) {
+            Record record = queue.poll();
+            if (record == null) {
+                if (!running) {
+                    break;
+                }
+                idle = true;
+                if (queue.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                }
+                idle = false;
+                continue;
+            }
+
+            batch.clear().position(BATCH_HEADER);
+            long deadline = record.queued + commitDelayNanos;
+            while (record != null) {
+                put(batch, record);
+                written.add(record);
+                if (batch.remaining() < RECORD_HEADER + 9) {
+                    break;
+                }
+                record = queue.poll();
+                long left;
+                // producers do not wake the writer here, the whole delay is spent collecting
+                while (record == null && running && (left = deadline - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(this, left);
+                    record = queue.poll();
+                }
+            }
+
+            seal(batch, crc);
+
+            long start = SYNC_TIMER.start();
+            try {
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                // the file may end in half a batch now, nothing after it would be recovered
+                failure = e;
+                running = false;
+                for (Record failed : written) {
+                    failed.completeExceptionally(e);
+                }
+                written.clear();
+                break;
+            }
+            SYNC_TIMER.stop(start);
+            length += batch.limit();
+            records += written.size();
+            batches++;
+            RECORDS.add(written.size());
+            BATCHES.increment();
+            for (Record durable : written) {
+                if (durable.kind == START) {
+                    live.add(durable.game);
+                } else if (durable.kind == END) {
+                    live.remove(durable.game);
+                }
+                durable.complete(null);
+            }
+            written.clear();
+
+            if (length >= compactAt && !rollOver()) {
+                break;
+            }
+        }
+        Record left;
+        while (failure != null && (left = queue.poll()) != null) {
+            left.completeExceptionally(failure);
+        }
+    }
+
+    /**
+     * replaces the log by one holding only the live games, queued records wait meanwhile
+     *
+     * @return false if the log was replaced but cannot be opened again, the writer stops then
+     */
+    private boolean rollOver() {
+        try {
+            compact(channel, file, live);
+        } catch (IOException e) {
+            // the old log is untouched, keep appending to it and try again once it has doubled
+            compactAt = 2 * compactAt;
+            return true;
+        }
+        try {
+            channel.close();
+            channel = reopen(file);
+            length = channel.position();
+        } catch (IOException e) {
+            failure = e;
+            running = false;
+            return false;
+        }
+        compactAt = Math.max(rolloverBytes, 2 * length);
+        return true;
+    }
+
+    /**
+     * writes the live games' records of a log into a new file beside it, forces that and moves it over the log
+     *
+     * {@code @post} file holds the records of the live games in their order, or is unchanged if this throws
+     */
+    private static void compact(FileChannel log, Path file, Set<Long> live) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".compact");
+        ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        CRC32C crc = new CRC32C();
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                batch.position(BATCH_HEADER);
+                scan(log, body -> {
+                    int at = 0;
+                    while (at < body.limit()) {
+                        int size = RECORD_HEADER + (body.get(at + 1) & 0xFF);
+                        if (live.contains(body.getLong(at + 2))) {
+                            if (batch.remaining() < size) {
+                                flush(out, batch, crc);
+                            }
+                            batch.put(body.slice(at, size));
+                        }
+                        at += size;
+                    }
+                });
+                if (batch.position() > BATCH_HEADER) {
+                    flush(out, batch, crc);
+                }
+                // the move may reach the disk before the contents otherwise
+                out.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static FileChannel reopen(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        return channel;
+    }
+
+    private static void flush(FileChannel out, ByteBuffer batch, CRC32C crc) throws IOException {
+        seal(batch, crc);
+        while (batch.hasRemaining()) {
+            out.write(batch);
+        }
+        batch.clear().position(BATCH_HEADER);
+    }
+
+    /**
+     * fills in the header of the batch written from BATCH_HEADER up to the position and flips it for writing
+     */
+    private static void seal(ByteBuffer batch, CRC32C crc) {
+        int end = batch.position();
+        batch.putInt(0, BATCH_MAGIC);
+        batch.putInt(4, end - BATCH_HEADER);
+        crc.reset();
+        crc.update(batch.slice(BATCH_HEADER, end - BATCH_HEADER));
+        batch.putInt(8, (int) crc.getValue());
+        batch.flip();
+    }
+
+    private static void put(ByteBuffer batch, Record record) {
+        batch.put((byte) record.kind);
+        batch.put((byte) record.length);
+        batch.putLong(record.game);
+        if (record.kind == START) {
+            batch.putLong(record.seed);
+            batch.put((byte) record.entry);
+        } else {
+            for (int i = 0; i < record.length; i++) {
+                batch.put((byte) (record.entry >>> 8 * i));
+            }
+        }
+    }
+
+    /**
+     * @return records forced so far, only exact once the log is closed
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * @return forces so far, records / batches is the mean group size
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * @return the last write or force that failed, null if none did
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * writes and forces what is queued, then stops the writer, appending afterwards throws
+     *
+     * {@code @post} every record appended so far is durable or completed exceptionally
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // appended while the writer was stopping, after it saw the queue empty for the last time
+        IllegalStateException closed = new IllegalStateException("write-ahead log is closed");
+        Record left;
+        while ((left = queue.poll()) != null) {
+            left.completeExceptionally(failure != null ? failure : closed);
+        }
+        channel.close();
+    }
+
+    /**
+     * receives the records of one whole batch, from position 0 to the limit
+     */
+    private interface BatchReader {
+        void batch(ByteBuffer body) throws IOException;
+    }
+
+    /**
+     * hands every whole batch of a log to the reader, up to the first one that is cut short or damaged
+     *
+     * @return length of the log up to its last whole batch
+     */
+    private static long scan(FileChannel channel, BatchReader reader) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(BATCH_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer body = ByteBuffer.allocate(BATCH_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        CRC32C crc = new CRC32C();
+        long position = 0;
+        while (position + BATCH_HEADER <= size) {
+            header.clear();
+            if (channel.read(header, position) < BATCH_HEADER) {
+                break;
+            }
+            int length = header.getInt(4);
+            if (header.getInt(0) != BATCH_MAGIC || length < 0 || length > BATCH_BYTES - BATCH_HEADER
+                    || position + BATCH_HEADER + length > size) {
+                break;
+            }
+            body.clear().limit(length);
+            while (body.hasRemaining()) {
+                if (channel.read(body, position + BATCH_HEADER + body.position()) < 0) {
+                    break;
+                }
+            }
+            body.flip();
+            crc.reset();
+            crc.update(body.duplicate());
+            if (body.limit() != length || (int) crc.getValue() != header.getInt(8)) {
+                break;
+            }
+            reader.batch(body);
+            position += BATCH_HEADER + length;
+        }
+        return position;
+    }
+
+    /**
+     * reads the whole batches of a log and replays its games
+     */
+    private static final class Recovery {
+        private final Map<Long, JournalReplayer> games = new LinkedHashMap<>();
+        /** games the log holds that are over, a rollover drops them */
+        int ended;
+
+        /**
+         * @return length of the log up to its last whole batch
+         */
+        long read(FileChannel channel) throws IOException {
+            return scan(channel, this::replay);
+        }
+
+        private void replay(ByteBuffer body) {
+            int at = 0;
+            while (at < body.limit()) {
+                int kind = body.get(at);
+                int length = body.get(at + 1) & 0xFF;
+                long id = body.getLong(at + 2);
+                int payload = at + RECORD_HEADER;
+                switch (kind) {
+                    case START -> {
+                        GameEngine engine = new GameEngine(body.getLong(payload));
+                        engine.initializeGame();
+                        if (engine.getPlayers().size() != body.get(payload + 8)) {
+                            throw new IllegalStateException("game " + id + " of the log has " + body.get(payload + 8) + " players");
+                        }
+                        games.put(id, new JournalReplayer(engine));
+                    }
+                    case ENTRY -> {
+                        JournalReplayer game = games.get(id);
+                        if (game == null) {
+                            throw new IllegalStateException("log entry of game " + id + " before its start");
+                        }
+                        game.apply(body, payload);
+                    }
+                    case END -> {
+                        games.remove(id);
+                        ended++;
+                    }
+                    default -> throw new IllegalStateException("unknown log record " + kind);
+                }
+                at = payload + length;
+            }
+        }
+
+        Map<Long, GameEngine> games() {
+            Map<Long, GameEngine> engines = new LinkedHashMap<>();
+            for (Map.Entry<Long, JournalReplayer> game : games.entrySet()) {
+                engines.put(game.getKey(), game.getValue().getEngine());
+            }
+            return engines;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package Test;
+
+import Model.*;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class WriteAheadLogTest {
+
+    /**
+     * plays random legal moves, some taken back, each one waited for until it is durable if wait is set
+     */
+    private static void play(GameEngine engine, WriteAheadLog.Game game, long seed, int limit, boolean wait) {
+        Random random = new Random(seed);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int played = 0; played < limit && !engine.getBoard().isGameOver(); played++) {
+            int n = MoveGenerator.generate(engine, moves);
+            if (n == 0) break;
+            long record = engine.apply(moves[random.nextInt(n)]);
+            if (random.nextInt(8) == 0) {
+                engine.undo(record);
+            }
+            if (wait) {
+                game.durable().toCompletableFuture().join();
+            }
+        }
+    }
+
+    private static GameEngine newGame(long seed) {
+        GameEngine engine = new GameEngine(seed);
+        engine.initializeGame();
+        return engine;
+    }
+
+    @Test
+    public void testConcurrentGamesAreRecoveredAsPlayed() throws Exception {
+        Path file = Files.createTempFile("tables", ".wal");
+        try {
+            GameEngine[] engines = new GameEngine[6];
+            try (WriteAheadLog log = new WriteAheadLog(file, 200, TimeUnit.MICROSECONDS)) {
+                List<Thread> threads = new ArrayList<>();
+                for (int id = 0; id < engines.length; id++) {
+                    GameEngine engine = newGame(100 + id);
+                    WriteAheadLog.Game game = log.start(id, engine);
+                    engines[id] = engine;
+                    int seed = id;
+                    Thread thread = new Thread(() -> {
+                        play(engine, game, seed, seed == 0 ? Integer.MAX_VALUE : 40 + 10 * seed, seed % 2 == 0);
+                        if (seed == 0) {
+                            game.end();
+                        }
+                        game.durable().toCompletableFuture().join();
+                    });
+                    threads.add(thread);
+                    thread.start();
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            }
+
+            Map<Long, GameEngine> recovered = WriteAheadLog.recover(file);
+            assertFalse("an ended game is not recovered", recovered.containsKey(0L));
+            assertEquals(engines.length - 1, recovered.size());
+            for (int id = 1; id < engines.length; id++) {
+                assertEquals(GameState.capture(engines[id]), GameState.capture(recovered.get((long) id)));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testTornTailIsCutOffAndTheLogGoesOn() throws Exception {
+        Path file = Files.createTempFile("tables", ".wal");
+        try {
+            GameEngine engine = newGame(7);
+            List<GameState> states = new ArrayList<>();
+            try (WriteAheadLog log = new WriteAheadLog(file, 0, TimeUnit.MICROSECONDS)) {
+                WriteAheadLog.Game game = log.start(7, engine);
+                int[] moves = new int[MoveGenerator.MAX_MOVES];
+                Random random = new Random(7);
+                for (int i = 0; i < 30; i++) {
+                    engine.apply(moves[random.nextInt(MoveGenerator.generate(engine, moves))]);
+                    game.durable().toCompletableFuture().join();
+                    states.add(GameState.capture(engine));
+                }
+            }
+            long size = Files.size(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(size - 3);
+            }
+
+            GameEngine resumed;
+            try (WriteAheadLog log = new WriteAheadLog(file, 0, TimeUnit.MICROSECONDS)) {
+                assertTrue(Files.size(file) < size - 3);
+                resumed = log.getRecovered().get(7L);
+                assertEquals(states.get(28), GameState.capture(resumed));
+                play(resumed, log.resume(7, resumed), 8, 20, true);
+            }
+            assertEquals(GameState.capture(resumed), GameState.capture(WriteAheadLog.recover(file).get(7L)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testEndedGamesAreDroppedOnOpening() throws Exception {
+        Path file = Files.createTempFile("tables", ".wal");
+        try {
+            GameEngine kept = newGame(40);
+            try (WriteAheadLog log = new WriteAheadLog(file, 0, TimeUnit.MICROSECONDS)) {
+                WriteAheadLog.Game game = log.start(40, kept);
+                play(kept, game, 40, 30, true);
+                for (int id = 41; id < 45; id++) {
+                    GameEngine engine = newGame(id);
+                    WriteAheadLog.Game ended = log.start(id, engine);
+                    play(engine, ended, id, 60, false);
+                    ended.end().toCompletableFuture().join();
+                }
+            }
+            long size = Files.size(file);
+
+            try (WriteAheadLog log = new WriteAheadLog(file, 0, TimeUnit.MICROSECONDS)) {
+                assertTrue(Files.size(file) * 3 < size);
+                assertEquals(List.of(40L), List.copyOf(log.getRecovered().keySet()));
+                assertEquals(GameState.capture(kept), GameState.capture(log.getRecovered().get(40L)));
+            }
+            assertEquals(GameState.capture(kept), GameState.capture(WriteAheadLog.recover(file).get(40L)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testLogRollsOverWhileOpen() throws Exception {
+        Path file = Files.createTempFile("tables", ".wal");
+        try {
+            GameEngine kept = newGame(50);
+            long largest = 0;
+            try (WriteAheadLog log = new WriteAheadLog(file, 0, TimeUnit.MICROSECONDS, 4096)) {
+                WriteAheadLog.Game game = log.start(50, kept);
+                for (int id = 51; id < 111; id++) {
+                    play(kept, game, id, 2, true);
+                    GameEngine engine = newGame(id);
+                    WriteAheadLog.Game ended = log.start(id, engine);
+                    play(engine, ended, id, 40, false);
+                    ended.end().toCompletableFuture().join();
+                    largest = Math.max(largest, Files.size(file));
+                }
+                assertNull(log.getFailure());
+            }
+
+            assertTrue("log grew to " + largest, largest < 3 * 4096);
+            Map<Long, GameEngine> recovered = WriteAheadLog.recover(file);
+            assertEquals(1, recovered.size());
+            assertEquals(GameState.capture(kept), GameState.capture(recovered.get(50L)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testDurableCannotBeCompletedByCallers() throws Exception {
+        Path file = Files.createTempFile("tables", ".wal");
+        try (WriteAheadLog log = new WriteAheadLog(file, 0, TimeUnit.MICROSECONDS)) {
+            WriteAheadLog.Game game = log.resume(3, newGame(3));
+            CompletionStage<Void> durable = game.durable();
+            try {
+                ((CompletableFuture<Void>) durable).complete(null);
+                fail("a caller completed the durable stage");
+            } catch (UnsupportedOperationException expected) {
+                // read only
+            }
+            assertTrue(game.isDurable());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testMovesRacingCloseAllComplete() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            Path file = Files.createTempFile("tables", ".wal");
+            try {
+                WriteAheadLog log = new WriteAheadLog(file, 0, TimeUnit.MICROSECONDS);
+                List<CompletionStage<Void>> stages = Collections.synchronizedList(new ArrayList<>());
+                List<Thread> threads = new ArrayList<>();
+                for (int id = 0; id < 4; id++) {
+                    GameEngine engine = newGame(id);
+                    WriteAheadLog.Game game = log.start(id, engine);
+                    Thread thread = new Thread(() -> {
+                        int[] moves = new int[MoveGenerator.MAX_MOVES];
+                        Random random = new Random(engine.getSeed());
+                        try {
+                            while (!engine.getBoard().isGameOver()) {
+                                int n = MoveGenerator.generate(engine, moves);
+                                if (n == 0) break;
+                                engine.apply(moves[random.nextInt(n)]);
+                                stages.add(game.durable());
+                            }
+                        } catch (IllegalStateException closed) {
+                            // appended after close, refused at once
+                        }
+                    });
+                    threads.add(thread);
+                    thread.start();
+                }
+                Thread.sleep(round % 3);
+                log.close();
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+
+                for (CompletionStage<Void> stage : stages) {
+                    try {
+                        stage.toCompletableFuture().get(5, TimeUnit.SECONDS);
+                    } catch (ExecutionException refused) {
+                        assertTrue(refused.getCause() instanceof IllegalStateException);
+                    }
+                }
+            } finally {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void testGamesShareTheirSyncs() throws Exception {
+        Path file = Files.createTempFile("tables", ".wal");
+        try {
+            WriteAheadLog log = new WriteAheadLog(file, 2, TimeUnit.MILLISECONDS);
+            List<Thread> threads = new ArrayList<>();
+            for (int id = 0; id < 8; id++) {
+                GameEngine engine = newGame(id);
+                WriteAheadLog.Game game = log.start(id, engine);
+                int seed = id;
+                Thread thread = new Thread(() -> play(engine, game, seed, 30, true));
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            log.close();
+
+            assertNull(log.getFailure());
+            assertTrue(log.getRecords() >= 8 * 30);
+            assertTrue("records " + log.getRecords() + " in " + log.getBatches() + " syncs",
+                    log.getBatches() * 2 < log.getRecords());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
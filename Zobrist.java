@@ -0,0 +1,49 @@
+package Model;
+
+/**
+ * keys of the Zobrist position hash, see GameEngine.hash()
+ *
+ * the tile counts of every area and every player are hashed incrementally: a count of c tiles of one code
+ * contributes key[code][c], so taking or adding a tile swaps two keys whatever order the tiles came in
+ * fields that fit in a word (landslides, side to move, cards, turn state, the open mosaic group)
+ * are mixed in when the hash is read, which costs the same as keeping them up to date
+ *
+ * the keys are fixed, so a hash means the same position in every run
+ */
+final class Zobrist {
+    static final int MAX_COUNT = 24;
+
+    /** [code][count] of the board areas, key[code][0] is 0 so an empty area hashes to 0 */
+    static final long[][] AREA = keys(1);
+    /** [code][count] of a player's tiles */
+    static final long[][] HELD = keys(2);
+
+    static final int LANDSLIDES = 1;
+    static final int SIDE = 2;
+    static final int PLAYER = 3;
+    static final int BAG = 4;
+
+    private Zobrist() {
+    }
+
+    private static long[][] keys(long stream) {
+        long[][] keys = new long[TileCode.COUNT][MAX_COUNT + 1];
+        long state = stream * 0x632BE59BD9B4E019L;
+        for (long[] code : keys) {
+            for (int count = 1; count <= MAX_COUNT; count++) {
+                state += 0x9E3779B97F4A7C15L;
+                code[count] = RandomStreams.mix(state);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * @param tag which field, one of the constants above
+     * @param value value of the field
+     * @return the key of that field having that value
+     */
+    static long field(int tag, long value) {
+        return RandomStreams.mix(value * 0x9E3779B97F4A7C15L + tag * 0xD1B54A32D192ED03L);
+    }
+}
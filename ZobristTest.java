@@ -0,0 +1,156 @@
+package Test;
+
+import AI.TranspositionTable;
+import AI.TurnPlanner;
+import Model.*;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ZobristTest {
+
+    @Test
+    public void testUndoRestoresTheHashAndCopiesAgree() {
+        GameEngine engine = new GameEngine(21);
+        engine.initializeGame();
+        Random random = new Random(21);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+        for (int ply = 0; ply < 300 && !engine.getBoard().isGameOver(); ply++) {
+            int n = MoveGenerator.generate(engine, moves);
+            long before = engine.hash();
+            for (int i = 0; i < n; i++) {
+                long record = engine.apply(moves[i]);
+                engine.undo(record);
+                assertEquals(before, engine.hash());
+            }
+            assertEquals(before, GameState.capture(engine).toEngine(0).hash());
+
+            engine.apply(moves[random.nextInt(n)]);
+            assertNotEquals(before, engine.hash());
+        }
+    }
+
+    @Test
+    public void testPickOrderDoesNotMatter() {
+        GameEngine first = new GameEngine(4);
+        first.initializeGame();
+        first.apply(MoveCode.draw());
+        first.getBoard().placeTileCode(TileCode.CARYATID);
+        first.getBoard().placeTileCode(TileCode.SPHINX);
+        GameEngine second = GameState.capture(first).toEngine(0);
+
+        AreaType statues = first.getBoard().getArea(TileCode.STATUE);
+        first.apply(MoveCode.take(TileCode.STATUE, statues.indexOf(TileCode.CARYATID)));
+        first.apply(MoveCode.take(TileCode.STATUE, statues.indexOf(TileCode.SPHINX)));
+        statues = second.getBoard().getArea(TileCode.STATUE);
+        second.apply(MoveCode.take(TileCode.STATUE, statues.indexOf(TileCode.SPHINX)));
+        second.apply(MoveCode.take(TileCode.STATUE, statues.indexOf(TileCode.CARYATID)));
+
+        assertEquals(first.hash(), second.hash());
+    }
+
+    @Test
+    public void testTableKeepsWhatWasStored() {
+        TranspositionTable table = new TranspositionTable(100);
+        assertEquals(128, table.capacity());
+
+        table.store(42, 7);
+        table.store(0, 3);
+        assertEquals(7, table.probe(42));
+        assertEquals(3, table.probe(0));
+        assertEquals(TranspositionTable.MISS, table.probe(43));
+
+        table.clear();
+        assertEquals(TranspositionTable.MISS, table.probe(42));
+    }
+
+    @Test
+    public void testConcurrentWritersNeverCorruptAnEntry() throws Exception {
+        TranspositionTable table = new TranspositionTable(64);
+        Thread[] threads = new Thread[4];
+        boolean[] corrupt = new boolean[1];
+        for (int t = 0; t < threads.length; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    long key = random.nextInt(1000) + 1;
+                    if (random.nextBoolean()) {
+                        table.store(key, key * 3);
+                    } else {
+                        long data = table.probe(key);
+                        if (data != TranspositionTable.MISS && data != key * 3) {
+                            corrupt[0] = true;
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(corrupt[0]);
+    }
+
+    @Test
+    public void testTableSavesNodesWithoutChangingTheMove() {
+        GameEngine engine = new GameEngine(8);
+        engine.initializeGame();
+        Random random = new Random(8);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int ply = 0; ply < 40; ply++) {
+            engine.apply(moves[random.nextInt(MoveGenerator.generate(engine, moves))]);
+        }
+        if (!engine.getCurrentPlayer().hasDrawnThisTurn()) {
+            engine.apply(MoveCode.draw());
+        }
+        GameState before = GameState.capture(engine);
+
+        TurnPlanner plain = new TurnPlanner(2, null);
+        TurnPlanner cached = new TurnPlanner(2, new TranspositionTable(1 << 16));
+        int move = plain.bestMove(engine);
+
+        assertEquals(move, cached.bestMove(engine));
+        try (ForkJoinPool pool = new ForkJoinPool(2)) {
+            assertEquals(move, new TurnPlanner(2, new TranspositionTable(1 << 16)).bestMove(engine, pool));
+        }
+        assertTrue(cached.getNodes() < plain.getNodes());
+        assertEquals(before, GameState.capture(engine));
+    }
+
+    @Test
+    public void testSharedTableKeepsBagOrdersApart() {
+        for (long seed = 0; seed < 5; seed++) {
+            GameEngine engine = new GameEngine(seed);
+            engine.initializeGame();
+            engine.apply(MoveCode.draw());
+            GameEngine reshuffled = GameState.capture(engine).toEngine(0);
+            reshuffled.getBoard().shuffleRemaining(new Random(seed));
+            assertEquals(engine.hash(), reshuffled.hash());
+            assertNotEquals(engine.getBoard().bagHash(4), reshuffled.getBoard().bagHash(4));
+
+            TurnPlanner shared = new TurnPlanner(2, new TranspositionTable(1 << 16));
+            shared.bestMove(engine);
+            long first = shared.getNodes();
+            TurnPlanner fresh = new TurnPlanner(2, new TranspositionTable(1 << 16));
+            assertEquals(fresh.bestMove(reshuffled), shared.bestMove(reshuffled));
+            // the other bag deals other tiles next turn, so none of the first search's results may be reused
+            assertTrue(shared.getNodes() - first >= fresh.getNodes());
+        }
+    }
+
+    @Test
+    public void testBagHashFollowsDrawsAndUndo() {
+        GameEngine engine = new GameEngine(3);
+        engine.initializeGame();
+        long before = engine.getBoard().bagHash(8);
+        long record = engine.apply(MoveCode.draw());
+        assertNotEquals(before, engine.getBoard().bagHash(8));
+        engine.undo(record);
+        assertEquals(before, engine.getBoard().bagHash(8));
+    }
+}
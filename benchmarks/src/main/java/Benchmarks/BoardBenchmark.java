@@ -0,0 +1,68 @@
+package Benchmarks;
+
+import Model.AreaType;
+import Model.Board;
+import Model.Tile;
+import Model.TileCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * board setup and the area operations every move goes through
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    private final Random random = new Random(1);
+    private Board board;
+    private AreaType mosaic;
+    private Tile tile;
+
+    @Setup
+    public void setUp() {
+        board = new Board(new Random(1));
+        board.initializeTiles();
+        mosaic = board.getArea(TileCode.MOSAIC);
+        tile = TileCode.toTile(TileCode.MOSAIC_RED);
+    }
+
+    /** a fresh bag of 135 tiles, shuffled */
+    @Benchmark
+    public Board initializeTilesAndShuffle() {
+        Board fresh = new Board(random);
+        fresh.initializeTiles();
+        fresh.shuffleRemaining(random);
+        return fresh;
+    }
+
+    /** placing a drawn tile, taken back so the area does not grow */
+    @Benchmark
+    public boolean placeTileInArea() {
+        board.placeTileInArea(tile);
+        return mosaic.removeCode(TileCode.MOSAIC_RED);
+    }
+
+    /** a normal pick of two tiles from the front of an area, put back so the area does not shrink */
+    @Benchmark
+    public List<Tile> removeTiles() {
+        mosaic.addCode(TileCode.MOSAIC_GREEN);
+        mosaic.addCode(TileCode.MOSAIC_YELLOW);
+        return mosaic.removeTiles(2);
+    }
+}
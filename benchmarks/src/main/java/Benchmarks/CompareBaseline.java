@@ -0,0 +1,98 @@
+package Benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * compares a JMH run written with -rf csv against the stored baseline
+ *
+ * a benchmark is named with its parameters and compared only against the same benchmark in the same mode,
+ * for thrpt a lower score is worse, for every other mode a higher one
+ * it is a regression when it got worse by more than the threshold and by more than the two error bars together,
+ * so a change inside the noise of either run is never reported
+ *
+ * usage: CompareBaseline baseline.csv current.csv [threshold percent, default 15]
+ * exits with 1 when any benchmark regressed
+ */
+public class CompareBaseline {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: CompareBaseline baseline.csv current.csv [threshold%]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 15;
+        Map<String, Result> baseline = read(Path.of(args[0]));
+        Map<String, Result> current = read(Path.of(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null || !before.mode.equals(now.mode) || !before.unit.equals(now.unit)) {
+                System.out.printf("%-64s %5s %12.1f   (new)%n", entry.getKey(), now.mode, now.score);
+                continue;
+            }
+            double change = (now.score - before.score) / before.score * 100;
+            double worse = now.higherIsBetter() ? -change : change;
+            boolean regressed = worse > threshold
+                    && Math.abs(now.score - before.score) > before.error + now.error;
+            if (regressed) regressions++;
+            System.out.printf("%-64s %5s %12.1f %12.1f %+7.1f%% %s%s%n", entry.getKey(), now.mode,
+                    before.score, now.score, change, now.unit, regressed ? "  REGRESSION" : "");
+        }
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    /**
+     * one row of a JMH result file
+     *
+     * @param error half width of the 99.9% confidence interval, 0 when JMH gave none
+     */
+    record Result(String mode, double score, double error, String unit) {
+        boolean higherIsBetter() {
+            return mode.equals("thrpt");
+        }
+    }
+
+    /**
+     * @param csv JMH result file
+     * @return result of every benchmark, by name and parameters, e.g. Benchmarks.WalBenchmark.durableMove(commitDelayMicros=0)
+     */
+    static Map<String, Result> read(Path csv) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(csv);
+        if (lines.isEmpty()) {
+            return results;
+        }
+        String[] header = lines.get(0).split(",");
+        for (int i = 1; i < lines.size(); i++) {
+            String[] fields = lines.get(i).split(",");
+            if (fields.length < 7) continue;
+            StringBuilder name = new StringBuilder(unquote(fields[0]));
+            String separator = "(";
+            for (int p = 7; p < fields.length && p < header.length; p++) {
+                String param = unquote(header[p]);
+                // every row has a column for every parameter of the run, those of other benchmarks are empty
+                if (param.startsWith("Param: ") && !fields[p].isEmpty()) {
+                    name.append(separator).append(param.substring("Param: ".length())).append('=').append(unquote(fields[p]));
+                    separator = ",";
+                }
+            }
+            if (!separator.equals("(")) {
+                name.append(')');
+            }
+            double error = Double.parseDouble(unquote(fields[5]));
+            results.put(name.toString(), new Result(unquote(fields[1]), Double.parseDouble(unquote(fields[4])),
+                    Double.isNaN(error) ? 0 : error, unquote(fields[6])));
+        }
+        return results;
+    }
+
+    private static String unquote(String field) {
+        return field.startsWith("\"") && field.endsWith("\"") ? field.substring(1, field.length() - 1) : field;
+    }
+}
@@ -0,0 +1,117 @@
+package Benchmarks;
+
+import Controller.GameController;
+import Model.GameEngine;
+import Model.GameState;
+import Model.Move;
+import Model.MoveGenerator;
+import Model.Player;
+import Model.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * engine operations on a seeded mid-game position, every benchmark that changes the game
+ * restores the position first, restore() alone is measured so its cost can be taken off
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+    private static final long SEED = 42;
+    private static final int MIDGAME_MOVES = 60;
+
+    private GameEngine engine;
+    private GameState midgame;
+    private GameEngine finished;
+    private GameController controller;
+    private Move[] legal;
+    private int next;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        engine = Positions.after(SEED, MIDGAME_MOVES);
+        midgame = GameState.capture(engine);
+        finished = Positions.after(SEED, Integer.MAX_VALUE);
+        controller = new GameController();
+        controller.setGameEngine(engine);
+
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int n = MoveGenerator.generate(engine, buffer);
+        legal = new Move[n];
+        for (int i = 0; i < n; i++) {
+            legal[i] = Move.decode(buffer[i]);
+        }
+        random = new Random(SEED);
+    }
+
+    /** the cost every other benchmark here pays before its work */
+    @Benchmark
+    public GameEngine restore() {
+        midgame.restore(engine);
+        return engine;
+    }
+
+    @Benchmark
+    public List<Tile> drawT() {
+        midgame.restore(engine);
+        return engine.drawT(4);
+    }
+
+    @Benchmark
+    public List<Tile> executePlayerTurn() {
+        midgame.restore(engine);
+        return engine.executePlayerTurn();
+    }
+
+    @Benchmark
+    public int calculateScore() {
+        return engine.getCurrentPlayer().calculateScore();
+    }
+
+    @Benchmark
+    public GameEngine calculateStatueScores() {
+        midgame.restore(engine);
+        engine.calculateStatueScores();
+        return engine;
+    }
+
+    /** on a finished game, before the end checkWinner returns at once */
+    @Benchmark
+    public Player checkWinner() {
+        return finished.checkWinner();
+    }
+
+    /** validates the legal moves of the position in turn, the position is never changed */
+    @Benchmark
+    public boolean checkMoveValidity() {
+        Move move = legal[next];
+        next = next + 1 == legal.length ? 0 : next + 1;
+        return controller.checkMoveValidity(move);
+    }
+
+    /** a whole game of random legal moves from the opening */
+    @Benchmark
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 3, time = 2)
+    public int randomGame() {
+        GameEngine game = Positions.opening(random.nextLong());
+        return Positions.playRandom(game, random, Integer.MAX_VALUE);
+    }
+}
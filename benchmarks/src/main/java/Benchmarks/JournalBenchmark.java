@@ -0,0 +1,73 @@
+package Benchmarks;
+
+import Model.GameEngine;
+import Model.JournalIndex;
+import Model.JournalReplayer;
+import Model.MoveJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * replays the journal of one whole seeded game, which setup checks ends in the position that was recorded,
+ * and seeks to the move before its last keyframe, the worst case of a seek
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalBenchmark {
+    private static final long SEED = 42;
+
+    private ByteBuffer journal;
+    private JournalReplayer replayer;
+    private JournalIndex index;
+    private int lastBeforeKeyframe;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path file = Files.createTempFile("benchmark", ".journal");
+        GameEngine engine = Positions.opening(SEED);
+        try {
+            try (MoveJournal recording = new MoveJournal(file, engine, 16)) {
+                Positions.playRandom(engine, new Random(SEED), Integer.MAX_VALUE);
+            }
+            journal = ByteBuffer.wrap(Files.readAllBytes(file));
+        } finally {
+            Files.delete(file);
+        }
+        replayer = new JournalReplayer();
+        replayer.run(journal);
+        if (replayer.getEngine().hash() != engine.hash()) {
+            throw new IllegalStateException("the journal does not replay the game it recorded");
+        }
+        index = JournalIndex.build(journal);
+        lastBeforeKeyframe = index.getKeyframeCount() * 16 - 1;
+    }
+
+    @Benchmark
+    public int replay() {
+        return replayer.run(journal);
+    }
+
+    @Benchmark
+    public GameEngine seek() {
+        return index.seek(lastBeforeKeyframe);
+    }
+}
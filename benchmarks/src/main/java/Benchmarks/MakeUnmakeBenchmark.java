@@ -0,0 +1,84 @@
+package Benchmarks;
+
+import Model.GameEngine;
+import Model.GameState;
+import Model.MoveCode;
+import Model.TileCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compares the two ways a search can step through positions and come back:
+ * make/unmake on one engine against capturing and restoring a full GameState for every move
+ * one operation walks depth random moves down from the opening and back again
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MakeUnmakeBenchmark {
+    private static final int[] AREA_KINDS = {TileCode.MOSAIC, TileCode.STATUE, TileCode.SKELETON, TileCode.AMPHORA};
+
+    @Param({"8"})
+    public int depth;
+
+    private GameEngine engine;
+    private SplittableRandom random;
+    private long[] records;
+    private GameState[] states;
+
+    @Setup
+    public void setUp() {
+        engine = Positions.opening(1);
+        random = new SplittableRandom(1);
+        records = new long[depth];
+        states = new GameState[depth];
+    }
+
+    @Benchmark
+    public GameEngine makeUnmake() {
+        for (int d = 0; d < depth; d++) {
+            records[d] = engine.apply(nextMove());
+        }
+        for (int d = depth - 1; d >= 0; d--) {
+            engine.undo(records[d]);
+        }
+        return engine;
+    }
+
+    @Benchmark
+    public GameEngine copyRestore() {
+        for (int d = 0; d < depth; d++) {
+            int move = nextMove();
+            states[d] = GameState.capture(engine);
+            engine.apply(move);
+        }
+        for (int d = depth - 1; d >= 0; d--) {
+            states[d].restore(engine);
+        }
+        return engine;
+    }
+
+    private int nextMove() {
+        if (!engine.getCurrentPlayer().hasDrawnThisTurn()) {
+            return MoveCode.draw();
+        }
+        int kind = AREA_KINDS[random.nextInt(AREA_KINDS.length)];
+        int size = engine.getBoard().getArea(kind).size();
+        return size == 0 ? MoveCode.endTurn() : MoveCode.take(kind, random.nextInt(size));
+    }
+}
@@ -0,0 +1,76 @@
+package Benchmarks;
+
+import Model.GameEngine;
+import Model.GameState;
+import Model.MoveGenerator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * random playouts with MoveGenerator and make/unmake, every playout starts from the same opening with
+ * the rest of the bag shuffled and is undone afterwards, the positions counter gives positions per second
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGeneratorBenchmark {
+    private GameEngine engine;
+    private GameState opening;
+    private SplittableRandom random;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final long[] records = new long[4096];
+
+    /**
+     * positions reached, reported next to the playouts
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Reached {
+        public long positions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            positions = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        engine = Positions.opening(1);
+        opening = GameState.capture(engine);
+        random = new SplittableRandom(1);
+    }
+
+    @Benchmark
+    public int playout(Reached reached) {
+        opening.restore(engine);
+        engine.getBoard().shuffleRemaining(random);
+        int depth = 0;
+        int n;
+        while ((n = MoveGenerator.generate(engine, moves)) > 0 && engine.getBoard().getBagSize() > 0) {
+            records[depth++] = engine.apply(moves[random.nextInt(n)]);
+        }
+        reached.positions += depth;
+        int played = depth;
+        while (depth > 0) {
+            engine.undo(records[--depth]);
+        }
+        return played;
+    }
+}
@@ -0,0 +1,52 @@
+package Benchmarks;
+
+import Model.GameEngine;
+import Model.MoveGenerator;
+
+import java.util.Random;
+
+/**
+ * seeded positions shared by the benchmarks, so every run measures the same games
+ */
+final class Positions {
+    private Positions() {
+    }
+
+    /**
+     * @param seed seed of the engine and of the move choices
+     * @return a game right after the opening
+     */
+    static GameEngine opening(long seed) {
+        GameEngine engine = new GameEngine(seed);
+        engine.initializeGame();
+        return engine;
+    }
+
+    /**
+     * @param seed seed of the engine and of the move choices
+     * @param moves how many random legal moves to play from the opening
+     * @return the game after those moves, or at its end if it finished earlier
+     */
+    static GameEngine after(long seed, int moves) {
+        GameEngine engine = opening(seed);
+        playRandom(engine, new Random(seed), moves);
+        return engine;
+    }
+
+    /**
+     * plays random legal moves
+     *
+     * @return number of moves played
+     */
+    static int playRandom(GameEngine engine, Random random, int limit) {
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int played = 0;
+        while (played < limit && !engine.getBoard().isGameOver()) {
+            int n = MoveGenerator.generate(engine, buffer);
+            if (n == 0) break;
+            engine.apply(buffer[random.nextInt(n)]);
+            played++;
+        }
+        return played;
+    }
+}
@@ -0,0 +1,73 @@
+package Benchmarks;
+
+import Model.GameEngine;
+import Model.GameSave;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * saving and loading a seeded mid-game position, in memory and through a file
+ * the file save includes creating the temporary file and moving it over the old save
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveBenchmark {
+    private GameEngine engine;
+    private ByteBuffer save;
+    private Path directory;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        engine = Positions.after(42, 60);
+        save = GameSave.write(engine);
+        directory = Files.createTempDirectory("saves");
+        file = directory.resolve("game.sav");
+        GameSave.save(engine, file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public ByteBuffer write() {
+        return GameSave.write(engine);
+    }
+
+    @Benchmark
+    public GameEngine read() throws IOException {
+        return GameSave.read(save);
+    }
+
+    @Benchmark
+    public void saveFile() throws IOException {
+        GameSave.save(engine, file);
+    }
+
+    @Benchmark
+    public GameEngine loadFile() throws IOException {
+        return GameSave.load(file);
+    }
+}
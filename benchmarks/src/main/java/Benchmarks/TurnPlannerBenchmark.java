@@ -0,0 +1,80 @@
+package Benchmarks;
+
+import AI.TranspositionTable;
+import AI.TurnPlanner;
+import Model.GameEngine;
+import Model.MoveCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the same look-ahead with and without a transposition table, the table is emptied before every search
+ * so only the transpositions inside one search are counted, not positions left over from the previous run
+ * one turn ahead the lines barely meet, two turns ahead every way of ending the first turn shares the second
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TurnPlannerBenchmark {
+    @Param({"20", "40"})
+    public int moves;
+
+    @Param({"1", "2"})
+    public int turns;
+
+    private GameEngine engine;
+    private TranspositionTable table;
+    private TurnPlanner plain;
+    private TurnPlanner cached;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        engine = Positions.after(1, moves);
+        if (!engine.getCurrentPlayer().hasDrawnThisTurn()) {
+            engine.apply(MoveCode.draw());
+        }
+        table = new TranspositionTable(turns == 1 ? 1 << 10 : 1 << 17);
+        plain = new TurnPlanner(turns, null);
+        cached = new TurnPlanner(turns, table);
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int withoutTable() {
+        return plain.bestMove(engine);
+    }
+
+    @Benchmark
+    public int withTable() {
+        table.clear();
+        return cached.bestMove(engine);
+    }
+
+    @Benchmark
+    public int parallelWithTable() {
+        table.clear();
+        return cached.bestMove(engine, pool);
+    }
+}
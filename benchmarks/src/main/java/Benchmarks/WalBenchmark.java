@@ -0,0 +1,114 @@
+package Benchmarks;
+
+import Model.GameEngine;
+import Model.MoveGenerator;
+import Model.WriteAheadLog;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * durable moves per second: 8 tables play at once into one write-ahead log, every move waits until it is
+ * on the disk, as the server waits before it publishes the move
+ * commitDelayMicros 0 forces as soon as anything is queued, a delay lets more tables share every force,
+ * the syncs counter gives forces per second, the score divided by it is the moves that shared a force
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class WalBenchmark {
+    @Param({"0", "1000"})
+    public long commitDelayMicros;
+
+    private Path file;
+    private WriteAheadLog log;
+    private final AtomicLong ids = new AtomicLong();
+    /** forces already added to a thread's counter, so every force is counted by exactly one thread */
+    private final AtomicLong counted = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("benchmark", ".wal");
+        log = new WriteAheadLog(file, commitDelayMicros, TimeUnit.MICROSECONDS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        log.close();
+        Files.delete(file);
+    }
+
+    /**
+     * forces of the log, reported next to the moves
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Forced {
+        public long syncs;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            syncs = 0;
+        }
+    }
+
+    /**
+     * one table, a new game once the last one is over
+     */
+    @State(Scope.Thread)
+    public static class Table {
+        private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        private final Random random = new Random(1);
+        private GameEngine engine;
+        private WriteAheadLog.Game game;
+
+        void next(WriteAheadLog log, long id) {
+            if (game != null) {
+                game.end();
+            }
+            engine = Positions.opening(id);
+            game = log.start(id, engine);
+        }
+    }
+
+    @Benchmark
+    public void durableMove(Table table, Forced forced) {
+        int n;
+        if (table.engine == null || table.engine.getBoard().isGameOver()
+                || (n = MoveGenerator.generate(table.engine, table.moves)) == 0) {
+            table.next(log, ids.incrementAndGet());
+            n = MoveGenerator.generate(table.engine, table.moves);
+        }
+        table.engine.apply(table.moves[table.random.nextInt(n)]);
+        table.game.durable().toCompletableFuture().join();
+        // the force of this move happened before its completion, so the count includes it
+        long batches = log.getBatches();
+        long before = counted.getAndAccumulate(batches, Math::max);
+        if (batches > before) {
+            forced.syncs += batches - before;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * copies the sources of the repository root into a package directory layout javac accepts
+ * the root keeps every class in one flat folder and file names do not always match the class inside,
+ * so each file is placed by its package declaration and the name of its top level type
+ *
+ * usage: java SourceLayout.java rootDir mainOut testOut
+ * files in package Test go to testOut, everything else with a package declaration to mainOut
+ */
+public class SourceLayout {
+    private static final Pattern PACKAGE = Pattern.compile("^package ([A-Za-z.]+);", Pattern.MULTILINE);
+    private static final Pattern TYPE = Pattern.compile(
+            "^(?:public )?(?:abstract |final |sealed |non-sealed )*(?:class|interface|enum|record|@interface) ([A-Za-z0-9_]+)",
+            Pattern.MULTILINE);
+
+    public static void main(String[] args) throws IOException {
+        Path root = Path.of(args[0]);
+        Path mainOut = Path.of(args[1]);
+        Path testOut = Path.of(args[2]);
+        int copied = 0;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root)) {
+            for (Path file : files) {
+                if (!Files.isRegularFile(file) || file.getFileName().toString().startsWith(".")) continue;
+
+                byte[] bytes = Files.readAllBytes(file);
+                String text = new String(bytes, StandardCharsets.ISO_8859_1);
+                if (text.indexOf('\0') >= 0) continue;
+
+                Matcher pkg = PACKAGE.matcher(text);
+                Matcher type = TYPE.matcher(text);
+                if (!pkg.find() || !type.find()) continue;
+
+                Path out = pkg.group(1).equals("Test") ? testOut : mainOut;
+                Path target = out.resolve(pkg.group(1).replace('.', '/')).resolve(type.group(1) + ".java");
+                Files.createDirectories(target.getParent());
+                Files.write(target, bytes);
+                copied++;
+            }
+        }
+        System.out.println("laid out " + copied + " source files");
+    }
+}